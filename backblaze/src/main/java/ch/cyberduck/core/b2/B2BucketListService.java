@@ -25,6 +25,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.RootListService;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
 
 import java.io.IOException;
@@ -56,6 +57,8 @@ public class B2BucketListService implements RootListService {
                 buckets.add(new Path(PathNormalizer.normalize(bucket.getBucketName()), EnumSet.of(Path.Type.directory, Path.Type.volume), attributes));
             }
             listener.chunk(directory, buckets);
+            // Remove bucket ids saved for buckets no longer found
+            FileidStore.get().validate(session.getHost(), directory, buckets);
             return buckets;
         }
         catch(B2ApiException e) {
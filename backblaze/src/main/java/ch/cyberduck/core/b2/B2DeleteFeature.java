@@ -20,14 +20,23 @@ import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BatchExecutor;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import synapticloop.b2.exception.B2ApiException;
 
@@ -47,54 +56,39 @@ public class B2DeleteFeature implements Delete {
 
     @Override
     public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+        final List<Path> versions = new ArrayList<Path>();
+        final Set<Path> containers = new HashSet<Path>();
         for(Path file : files) {
             if(containerService.isContainer(file)) {
                 continue;
             }
-            callback.delete(file);
-            if(file.getType().contains(Path.Type.upload)) {
-                new B2LargeUploadPartService(session, fileid).delete(file.attributes().getVersionId());
+            versions.add(file);
+            if(StringUtils.isBlank(file.attributes().getVersionId())) {
+                containers.add(containerService.getContainer(file));
             }
-            else {
-                if(file.isDirectory()) {
-                    // Delete /.bzEmpty if any
-                    final String fileid;
-                    try {
-                        fileid = this.fileid.getFileid(file, new DisabledListProgressListener());
-                    }
-                    catch(NotfoundException e) {
-                        log.warn(String.format("Ignore failure %s deleting placeholder file for %s", e.getDetail(), file));
-                        continue;
-                    }
-                    try {
-                        session.getClient().deleteFileVersion(containerService.getKey(file), fileid);
-                    }
-                    catch(B2ApiException e) {
-                        log.warn(String.format("Ignore failure %s deleting placeholder file for %s", e.getMessage(), file));
-                    }
-                    catch(IOException e) {
-                        throw new DefaultIOExceptionMappingService().map(e);
-                    }
-                }
-                else if(file.isFile()) {
-                    try {
-                        session.getClient().deleteFileVersion(containerService.getKey(file), fileid.getFileid(file, new DisabledListProgressListener()));
-                    }
-                    catch(B2ApiException e) {
-                        throw new B2ExceptionMappingService().map("Cannot delete {0}", e, file);
-                    }
-                    catch(IOException e) {
-                        throw new DefaultIOExceptionMappingService().map(e);
-                    }
+        }
+        for(Path container : containers) {
+            // Resolve bucket ids once before looking up file ids concurrently
+            fileid.getFileid(container, new DisabledListProgressListener());
+        }
+        // No bulk delete in API. Delete file versions concurrently
+        new BatchExecutor("delete", PreferencesFactory.get().getInteger("b2.delete.concurrency")).execute(versions, 1, new BatchExecutor.Batch<Path>() {
+            @Override
+            public Map<Path, BackgroundException> run(final List<Path> items) throws BackgroundException {
+                for(Path file : items) {
+                    callback.delete(file);
+                    delete(file);
                 }
+                return Collections.emptyMap();
             }
-        }
+        });
         for(Path file : files) {
             try {
                 if(containerService.isContainer(file)) {
                     callback.delete(file);
                     // Finally delete bucket itself
                     session.getClient().deleteBucket(fileid.getFileid(file, new DisabledListProgressListener()));
+                    FileidStore.get().remove(session.getHost(), file);
                 }
             }
             catch(B2ApiException e) {
@@ -106,6 +100,45 @@ public class B2DeleteFeature implements Delete {
         }
     }
 
+    private void delete(final Path file) throws BackgroundException {
+        if(file.getType().contains(Path.Type.upload)) {
+            new B2LargeUploadPartService(session, fileid).delete(file.attributes().getVersionId());
+        }
+        else {
+            if(file.isDirectory()) {
+                // Delete /.bzEmpty if any
+                final String fileid;
+                try {
+                    fileid = this.fileid.getFileid(file, new DisabledListProgressListener());
+                }
+                catch(NotfoundException e) {
+                    log.warn(String.format("Ignore failure %s deleting placeholder file for %s", e.getDetail(), file));
+                    return;
+                }
+                try {
+                    session.getClient().deleteFileVersion(containerService.getKey(file), fileid);
+                }
+                catch(B2ApiException e) {
+                    log.warn(String.format("Ignore failure %s deleting placeholder file for %s", e.getMessage(), file));
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map(e);
+                }
+            }
+            else if(file.isFile()) {
+                try {
+                    session.getClient().deleteFileVersion(containerService.getKey(file), fileid.getFileid(file, new DisabledListProgressListener()));
+                }
+                catch(B2ApiException e) {
+                    throw new B2ExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map(e);
+                }
+            }
+        }
+    }
+
     @Override
     public boolean isRecursive() {
         return false;
@@ -23,6 +23,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
@@ -64,6 +65,12 @@ public class B2FileidProvider implements IdProvider {
             }
         }
         if(containerService.isContainer(file)) {
+            // File ids reference a single version and are not saved
+            final String cached = FileidStore.get().get(session.getHost(), file);
+            if(StringUtils.isNotBlank(cached)) {
+                file.attributes().setVersionId(cached);
+                return cached;
+            }
             final AttributedList<Path> list = new B2ListService(session, this).list(file.getParent(), listener);
             cache.put(file.getParent(), list);
             final Path found = list.find(new SimplePathPredicate(file));
@@ -105,6 +112,9 @@ public class B2FileidProvider implements IdProvider {
 
     protected String set(final Path file, final String id) {
         file.attributes().setVersionId(id);
+        if(containerService.isContainer(file)) {
+            FileidStore.get().put(session.getHost(), file, id);
+        }
         return id;
     }
 
@@ -39,6 +39,7 @@ import ch.cyberduck.core.local.Application;
 import ch.cyberduck.core.local.ApplicationFinder;
 import ch.cyberduck.core.local.ApplicationFinderFactory;
 import ch.cyberduck.core.local.ApplicationQuitCallback;
+import ch.cyberduck.core.local.LocalChecksumStore;
 import ch.cyberduck.core.local.TemporaryFileServiceFactory;
 import ch.cyberduck.core.manta.MantaProtocol;
 import ch.cyberduck.core.nio.LocalProtocol;
@@ -186,6 +187,8 @@ public class Terminal {
         finally {
             // Clear temporary files
             TemporaryFileServiceFactory.get().shutdown();
+            // Close file with saved checksums
+            LocalChecksumStore.get().shutdown();
         }
     }
 
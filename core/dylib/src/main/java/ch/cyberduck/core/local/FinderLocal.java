@@ -119,6 +119,10 @@ public class FinderLocal extends Local {
 
     @Override
     public boolean exists(final LinkOption... options) {
+        if(this.snapshot() != null) {
+            // Attributes read in advance
+            return super.exists(options);
+        }
         NSURL resolved = null;
         try {
             resolved = this.lock(false);
@@ -179,6 +183,7 @@ public class FinderLocal extends Local {
 
     @Override
     public OutputStream getOutputStream(boolean append) throws AccessDeniedException {
+        this.invalidate();
         final NSURL resolved;
         try {
             resolved = this.lock(this.exists());
@@ -208,6 +213,57 @@ public class FinderLocal extends Local {
         }
     }
 
+    @Override
+    public OutputStream getOutputStream(final long position) throws AccessDeniedException {
+        this.invalidate();
+        final NSURL resolved;
+        try {
+            resolved = this.lock(this.exists());
+            if(null == resolved) {
+                return super.getOutputStream(position);
+            }
+        }
+        catch(LocalAccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", this, e.getMessage()));
+            return super.getOutputStream(position);
+        }
+        return new ProxyOutputStream(super.getOutputStream(resolved.path(), position)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                }
+                finally {
+                    release(resolved);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void allocate(final long length) throws AccessDeniedException {
+        this.invalidate();
+        final NSURL resolved;
+        try {
+            resolved = this.lock(this.exists());
+            if(null == resolved) {
+                super.allocate(length);
+                return;
+            }
+        }
+        catch(LocalAccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", this, e.getMessage()));
+            super.allocate(length);
+            return;
+        }
+        try {
+            super.allocate(resolved.path(), length);
+        }
+        finally {
+            this.release(resolved);
+        }
+    }
+
     /**
      * @param interactive Prompt to resolve bookmark of file outside of sandbox with choose panel
      */
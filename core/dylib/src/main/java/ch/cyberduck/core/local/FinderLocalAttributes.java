@@ -47,7 +47,7 @@ public class FinderLocalAttributes extends LocalAttributes {
     private final FinderLocal local;
 
     public FinderLocalAttributes(final FinderLocal local) {
-        super(local.getAbsolute());
+        super(local);
         this.local = local;
     }
 
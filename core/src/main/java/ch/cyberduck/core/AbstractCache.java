@@ -22,35 +22,130 @@ import ch.cyberduck.core.cache.LRUCache;
 
 import org.apache.log4j.Logger;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(AbstractCache.class);
 
     private final LRUCache<T, AttributedList<T>> impl;
 
+    /**
+     * Reference of child in any cached directory listing to child
+     */
+    private final Map<CacheReference<?>, T> index = new ConcurrentHashMap<>();
+
+    /**
+     * Entries of cached directory listings added to index
+     */
+    private final Map<T, Indexed<T>> indexed = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
     public AbstractCache(int size) {
+        final RemovalListener<T, AttributedList<T>> listener = new RemovalListener<T, AttributedList<T>>() {
+            @Override
+            public void onRemoval(final RemovalNotification<T, AttributedList<T>> notification) {
+                if(notification.wasEvicted()) {
+                    evictions.increment();
+                    synchronized(lock) {
+                        final Indexed<T> entries = indexed.get(notification.getKey());
+                        if(null != entries && entries.list == notification.getValue()) {
+                            unindex(notification.getKey());
+                        }
+                    }
+                }
+            }
+        };
         if(size == Integer.MAX_VALUE) {
             // Unlimited
-            impl = LRUCache.build();
+            impl = LRUCache.build(listener, -1L);
         }
         else {
             // Will inflate to the given size
-            impl = LRUCache.build(size);
+            impl = LRUCache.build(listener, size);
         }
     }
 
+    /**
+     * Lookup in index of all children of cached directory listings
+     *
+     * @param reference Key for item in cached list that equals the reference obtained with {@link #reference(Referenceable)}
+     * @return Null if not found in any cached directory listing
+     */
     @Override
     public T lookup(final CacheReference<T> reference) {
-        for(AttributedList<T> entry : impl.asMap().values()) {
-            final T f = entry.find(reference);
-            if(null == f) {
-                continue;
+        final T f = index.get(reference);
+        if(null == f) {
+            misses.increment();
+            log.warn(String.format("Lookup failed for %s in cache", reference));
+            return null;
+        }
+        hits.increment();
+        return f;
+    }
+
+    /**
+     * Add entries of directory listing to index. Only entries appended since the directory listing was last
+     * indexed are added if the same list is cached again.
+     */
+    private void index(final T reference, final AttributedList<T> children) {
+        final List<T> entries = children.snapshot();
+        final Indexed<T> previous = indexed.get(reference);
+        int offset = 0;
+        if(null != previous) {
+            if(previous.list == children && AttributedList.isAppended(previous.entries, entries)) {
+                offset = previous.entries.size();
             }
-            return f;
+            else {
+                this.unindex(reference);
+            }
+        }
+        for(int i = offset; i < entries.size(); i++) {
+            final T f = entries.get(i);
+            index.put(this.reference(f), f);
         }
-        log.warn(String.format("Lookup failed for %s in cache", reference));
-        return null;
+        indexed.put(reference, new Indexed<>(children, entries));
+    }
+
+    private void unindex(final T reference) {
+        final Indexed<T> previous = indexed.remove(reference);
+        if(null == previous) {
+            return;
+        }
+        for(T f : previous.entries) {
+            index.remove(this.reference(f), f);
+        }
+    }
+
+    /**
+     * @return Number of lookups found in index
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups not found in index
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of directory listings removed from cache because of its size limit
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
     }
 
     @Override
@@ -83,8 +178,12 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return The previously cached directory listing
      */
     public AttributedList<T> remove(final T reference) {
-        final AttributedList<T> removed = impl.get(reference);
-        impl.remove(reference);
+        final AttributedList<T> removed;
+        synchronized(lock) {
+            removed = impl.get(reference);
+            impl.remove(reference);
+            this.unindex(reference);
+        }
         if(null == removed) {
             // Not previously in cache
             return AttributedList.emptyList();
@@ -121,8 +220,14 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isDebugEnabled()) {
             log.debug(String.format("Caching %s", reference));
         }
-        final AttributedList<T> replaced = impl.get(reference);
-        impl.put(reference, children);
+        final AttributedList<T> replaced;
+        synchronized(lock) {
+            replaced = impl.get(reference);
+            impl.put(reference, children);
+            if(null != reference && null != children) {
+                this.index(reference, children);
+            }
+        }
         if(null == replaced) {
             // Not previously in cache
             return AttributedList.emptyList();
@@ -145,6 +250,9 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     }
 
     /**
+     * Mark directory listing as out of date. Its children remain in the index for lookup until the
+     * directory listing is replaced or removed.
+     *
      * @param reference Path reference
      */
     public void invalidate(final T reference) {
@@ -168,14 +276,31 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isInfoEnabled()) {
             log.info(String.format("Clear cache %s", this));
         }
-        impl.clear();
+        synchronized(lock) {
+            impl.clear();
+            index.clear();
+            indexed.clear();
+        }
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Cache{");
         sb.append("size=").append(impl.size());
+        sb.append(", hits=").append(hits.sum());
+        sb.append(", misses=").append(misses.sum());
+        sb.append(", evictions=").append(evictions.sum());
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class Indexed<T extends Referenceable> {
+        private final AttributedList<T> list;
+        private final List<T> entries;
+
+        private Indexed(final AttributedList<T> list, final List<T> entries) {
+            this.list = list;
+            this.entries = entries;
+        }
+    }
 }
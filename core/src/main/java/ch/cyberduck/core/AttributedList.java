@@ -18,19 +18,35 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.transfer.TransferItem;
+
 import org.apache.log4j.Logger;
 
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
  * A sortable list with a map to lookup values by key.
+ * <p>
+ * Entries are appended to a growing array without copying the existing entries. Readers always operate on
+ * an immutable snapshot of the list published after every modification. Lookups by entry or by reference
+ * use a hash index built lazily from the snapshot and extended incrementally as more entries are appended.
+ * Modifications other than appending start a new generation with a copy of the entries.
+ * <p>
+ * Entries may be modified while in the list, changing their hash code. Lookups by entry therefore index entries
+ * by absolute path only, which is not modified, and confirm candidates with {@link Object#equals(Object)}.
  */
 public class AttributedList<E extends Referenceable> implements Iterable<E> {
     private static final Logger log = Logger.getLogger(AttributedList.class);
@@ -52,8 +68,40 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         }
     };
 
-    private final List<E> impl
-        = new CopyOnWriteArrayList<>();
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Key for index of entries by equality
+     */
+    private static final Object IDENTITY = new Object();
+
+    /**
+     * Key of entry not modified while in list. Equal entries always have the same key.
+     */
+    private static final Function<Object, Object> STABLE = new Function<Object, Object>() {
+        @Override
+        public Object apply(final Object o) {
+            if(o instanceof AbstractPath) {
+                return ((AbstractPath) o).getAbsolute();
+            }
+            if(o instanceof TransferItem) {
+                return ((TransferItem) o).remote.getAbsolute();
+            }
+            return o;
+        }
+    };
+
+    private final Object lock = new Object();
+
+    /**
+     * Modifiable entries. Guarded by lock.
+     */
+    private Generation generation;
+
+    /**
+     * Frozen view of the entries for readers
+     */
+    private volatile Snapshot<E> snapshot;
 
     /**
      * Metadata of file listing
@@ -65,16 +113,20 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      * Initialize an attributed list with default attributes
      */
     public AttributedList() {
-        //
+        this(new Object[DEFAULT_CAPACITY], 0);
     }
 
     /**
      * @param collection Default content
      */
     public AttributedList(final Iterable<E> collection) {
-        for(E e : collection) {
-            this.add(e);
-        }
+        this(new Object[collection instanceof Collection ? Math.max(((Collection) collection).size(), DEFAULT_CAPACITY) : DEFAULT_CAPACITY], 0);
+        this.addAll(collection);
+    }
+
+    private AttributedList(final Object[] elements, final int size) {
+        this.generation = new Generation(elements);
+        this.snapshot = new Snapshot<>(generation, elements, size);
     }
 
     @SuppressWarnings("unchecked")
@@ -92,58 +144,95 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     public boolean add(final E e) {
-        return impl.add(e);
+        synchronized(lock) {
+            final int size = snapshot.size;
+            this.ensureCapacity(size + 1);
+            generation.elements[size] = e;
+            snapshot = new Snapshot<>(generation, generation.elements, size + 1);
+        }
+        return true;
     }
 
     public void add(final int index, final E e) {
-        impl.add(index, e);
+        synchronized(lock) {
+            final int size = snapshot.size;
+            if(index == size) {
+                this.add(e);
+                return;
+            }
+            if(index < 0 || index > size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+            }
+            final Object[] copy = new Object[Math.max(size + 1, DEFAULT_CAPACITY)];
+            System.arraycopy(snapshot.elements, 0, copy, 0, index);
+            copy[index] = e;
+            System.arraycopy(snapshot.elements, index, copy, index + 1, size - index);
+            this.publish(copy, size + 1);
+        }
     }
 
     public boolean addAll(final Iterable<? extends E> c) {
-        for(E file : c) {
-            this.add(file);
+        synchronized(lock) {
+            int size = snapshot.size;
+            if(c instanceof Collection) {
+                this.ensureCapacity(size + ((Collection) c).size());
+            }
+            for(E file : c) {
+                this.ensureCapacity(size + 1);
+                generation.elements[size++] = file;
+            }
+            snapshot = new Snapshot<>(generation, generation.elements, size);
         }
         return true;
     }
 
+    /**
+     * Grow backing array of current generation. Entries up to the current size are never modified in place
+     * and may be shared with snapshots.
+     */
+    private void ensureCapacity(final int capacity) {
+        if(capacity > generation.elements.length) {
+            generation.elements = Arrays.copyOf(generation.elements,
+                Math.max(capacity, generation.elements.length + (generation.elements.length >> 1)));
+        }
+    }
+
+    /**
+     * Start new generation with entries not shared with any previous snapshot.
+     */
+    private void publish(final Object[] elements, final int size) {
+        generation = new Generation(elements);
+        snapshot = new Snapshot<>(generation, elements, size);
+    }
+
     public E get(final int index) {
-        return impl.get(index);
+        return snapshot.get(index);
     }
 
     public E get(final E reference) {
-        final int index = impl.indexOf(reference);
+        final Snapshot<E> current = snapshot;
+        final int index = current.indexOf(reference);
         if(-1 == index) {
             return null;
         }
-        return impl.get(index);
+        return current.get(index);
     }
 
     public void set(final int i, final E e) {
-        impl.set(i, e);
+        synchronized(lock) {
+            final int size = snapshot.size;
+            if(i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, size));
+            }
+            final Object[] copy = Arrays.copyOf(snapshot.elements, Math.max(size, DEFAULT_CAPACITY));
+            copy[i] = e;
+            this.publish(copy, size);
+        }
     }
 
     @Override
     public Iterator<E> iterator() {
-        return impl.iterator();
-    }
-
-    /**
-     * The CopyOnWriteArrayList iterator does not support remove but the sort implementation
-     * makes use of it. Provide our own implementation here to circumvent.
-     *
-     * @param copy       The list copy to sort
-     * @param comparator The comparator to use
-     * @see java.util.Collections#sort(java.util.List, java.util.Comparator)
-     * @see java.util.concurrent.CopyOnWriteArrayList#iterator()
-     */
-    private void doSort(final List<E> copy, final Comparator<E> comparator) {
-        if(null == comparator) {
-            return;
-        }
-        if(log.isDebugEnabled()) {
-            log.debug(String.format("Sort list %s with comparator %s", this, comparator));
-        }
-        Collections.sort(copy, comparator);
+        return snapshot.iterator();
     }
 
     /**
@@ -163,72 +252,181 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      * @param filter     Filter
      * @return Filtered list sorted with comparator
      */
+    @SuppressWarnings("unchecked")
     public AttributedList<E> filter(final Comparator<E> comparator, final Filter<E> filter) {
-        final AttributedList<E> filtered = new AttributedList<>(impl);
+        final Snapshot<E> current = snapshot;
+        final Object[] copy = Arrays.copyOf(current.elements, Math.max(current.size, DEFAULT_CAPACITY));
+        int size = current.size;
         if(null != comparator) {
-            this.doSort(filtered.impl, comparator);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Sort list %s with comparator %s", this, comparator));
+            }
+            Arrays.sort(copy, 0, size, (Comparator) comparator);
         }
         if(null != filter) {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Filter list %s with filter %s", this, filter));
             }
-            filtered.impl.removeIf(new Predicate<E>() {
-                @Override
-                public boolean test(final E e) {
-                    return !filter.accept(e);
+            int accepted = 0;
+            for(int i = 0; i < size; i++) {
+                if(filter.accept((E) copy[i])) {
+                    copy[accepted++] = copy[i];
                 }
-            });
+            }
+            Arrays.fill(copy, accepted, size, null);
+            size = accepted;
         }
-        return filtered;
+        return new AttributedList<>(copy, size);
     }
 
     /**
      * Clear the list and all references.
      */
     public void clear() {
-        impl.clear();
+        synchronized(lock) {
+            this.publish(new Object[DEFAULT_CAPACITY], 0);
+        }
     }
 
     public boolean isEmpty() {
-        return impl.isEmpty();
+        return snapshot.size == 0;
     }
 
     public int size() {
-        return impl.size();
+        return snapshot.size;
     }
 
     public boolean contains(final E e) {
-        return impl.contains(e);
+        return snapshot.indexOf(e) != -1;
     }
 
     public E find(final Predicate<E> predicate) {
-        final Optional<E> optional = impl.stream().filter(predicate).findFirst();
-        return optional.orElse(null);
+        final Snapshot<E> current = snapshot;
+        for(int i = 0; i < current.size; i++) {
+            final E e = current.get(i);
+            if(predicate.test(e)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lookup entry using a hash index instead of testing every entry. The index is built on first use for
+     * the type of reference and key function given and reused for subsequent lookups with the same type of
+     * reference and key function. Candidates found are confirmed by comparing with the key computed for the entry.
+     *
+     * @param reference Reference to entry
+     * @param key       Compute reference for entry in list that equals the reference to find. Must only depend
+     *                  on properties of the entry not modified while in the list.
+     * @return Null if no entry is found for reference
+     */
+    public E find(final CacheReference<E> reference, final Function<E, CacheReference<?>> key) {
+        final Snapshot<E> current = snapshot;
+        final int[] candidates = current.candidates(new AbstractMap.SimpleImmutableEntry<>(reference.getClass(), key), key, reference);
+        if(null == candidates) {
+            return null;
+        }
+        boolean stale = false;
+        for(int i : candidates) {
+            if(i >= current.size) {
+                break;
+            }
+            final E e = current.get(i);
+            if(reference.equals(key.apply(e))) {
+                return e;
+            }
+            stale = true;
+        }
+        if(stale) {
+            // Key of entry modified after indexing
+            for(E e : current) {
+                if(reference.equals(key.apply(e))) {
+                    return e;
+                }
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("unchecked")
     public E[] toArray() {
-        return (E[]) impl.toArray(new Referenceable[impl.size()]);
+        final Snapshot<E> current = snapshot;
+        return (E[]) Arrays.copyOf(current.elements, current.size, Referenceable[].class);
     }
 
+    /**
+     * @return Unmodifiable view of the current entries
+     */
     public List<E> toList() {
-        return impl;
+        return snapshot;
     }
 
     public int indexOf(final E e) {
-        return impl.indexOf(e);
+        return snapshot.indexOf(e);
+    }
+
+    /**
+     * @return Immutable view of the current entries
+     */
+    List<E> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @param previous Snapshot previously obtained
+     * @param current  Snapshot obtained later from the same list
+     * @return True if entries in current snapshot only differ by entries appended to previous snapshot
+     */
+    static boolean isAppended(final List<?> previous, final List<?> current) {
+        if(previous instanceof Snapshot && current instanceof Snapshot) {
+            return ((Snapshot) previous).generation == ((Snapshot) current).generation
+                && previous.size() <= current.size();
+        }
+        return false;
     }
 
     public void remove(final int index) {
-        impl.remove(index);
+        synchronized(lock) {
+            final int size = snapshot.size;
+            if(index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+            }
+            final Object[] copy = new Object[Math.max(size - 1, DEFAULT_CAPACITY)];
+            System.arraycopy(snapshot.elements, 0, copy, 0, index);
+            System.arraycopy(snapshot.elements, index + 1, copy, index, size - index - 1);
+            this.publish(copy, size - 1);
+        }
     }
 
     public boolean remove(final E e) {
-        return impl.remove(e);
+        synchronized(lock) {
+            final int index = snapshot.indexOf(e);
+            if(-1 == index) {
+                return false;
+            }
+            this.remove(index);
+            return true;
+        }
     }
 
     public boolean removeAll(final java.util.Collection<E> e) {
-        return impl.removeAll(e);
+        synchronized(lock) {
+            final int size = snapshot.size;
+            final Object[] copy = new Object[Math.max(size, DEFAULT_CAPACITY)];
+            int retained = 0;
+            for(int i = 0; i < size; i++) {
+                final Object f = snapshot.elements[i];
+                if(!e.contains(f)) {
+                    copy[retained++] = f;
+                }
+            }
+            if(retained == size) {
+                return false;
+            }
+            this.publish(copy, retained);
+            return true;
+        }
     }
 
     @Override
@@ -240,11 +438,168 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
             return false;
         }
         final AttributedList<?> that = (AttributedList<?>) o;
-        return Objects.equals(impl, that.impl);
+        return Objects.equals(snapshot, that.snapshot);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(impl);
+        return Objects.hash(snapshot);
+    }
+
+    /**
+     * Entries sharing the same array content up to the size of any snapshot taken. Appending only writes
+     * past the size of published snapshots.
+     */
+    private static final class Generation {
+        private Object[] elements;
+
+        /**
+         * Hash index by type of reference and key function
+         */
+        private final Map<Object, Index> indexes = new ConcurrentHashMap<>();
+
+        private Generation(final Object[] elements) {
+            this.elements = elements;
+        }
+    }
+
+    /**
+     * Map of key to positions in generation in ascending order. Only covers entries up to the largest snapshot size
+     * a lookup was made for.
+     */
+    private static final class Index {
+        private final Map<Object, int[]> positions = new ConcurrentHashMap<>();
+        private final Function<Object, ?> key;
+
+        private volatile int indexed;
+
+        private Index(final Function<Object, ?> key) {
+            this.key = key;
+        }
+
+        /**
+         * @return Positions of entries with key or null if none
+         */
+        private int[] candidates(final Object reference, final Object[] elements, final int size) {
+            if(indexed < size) {
+                synchronized(this) {
+                    for(int i = indexed; i < size; i++) {
+                        if(null == elements[i]) {
+                            continue;
+                        }
+                        final Object k = key.apply(elements[i]);
+                        if(null == k) {
+                            continue;
+                        }
+                        final int[] previous = positions.get(k);
+                        if(null == previous) {
+                            positions.put(k, new int[]{i});
+                        }
+                        else {
+                            // Copy to not modify array seen by concurrent readers
+                            final int[] copy = Arrays.copyOf(previous, previous.length + 1);
+                            copy[previous.length] = i;
+                            positions.put(k, copy);
+                        }
+                    }
+                    if(size > indexed) {
+                        indexed = size;
+                    }
+                }
+            }
+            return positions.get(reference);
+        }
+    }
+
+    /**
+     * Immutable view on the entries of a generation
+     */
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+        private final Generation generation;
+        private final Object[] elements;
+        private final int size;
+
+        private Snapshot(final Generation generation, final Object[] elements, final int size) {
+            this.generation = generation;
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(final int index) {
+            if(index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+            }
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int indexOf(final Object o) {
+            if(null == o) {
+                for(int i = 0; i < size; i++) {
+                    if(null == elements[i]) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            final int[] candidates = this.candidates(IDENTITY, STABLE, STABLE.apply(o));
+            if(null == candidates) {
+                return -1;
+            }
+            for(int i : candidates) {
+                if(i >= size) {
+                    break;
+                }
+                if(o.equals(elements[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @param type      Key for index in generation
+         * @param key       Compute key for entry
+         * @param reference Key to lookup
+         * @return Positions of entries with key or null if none
+         */
+        @SuppressWarnings("unchecked")
+        private int[] candidates(final Object type, final Function<? super E, ?> key, final Object reference) {
+            final Index index = generation.indexes.computeIfAbsent(type, k -> new Index((Function<Object, ?>) key));
+            return index.candidates(reference, elements, size);
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return this.indexOf(o) != -1;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int cursor = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < size;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public E next() {
+                    if(cursor >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return (E) elements[cursor++];
+                }
+            };
+        }
     }
 }
@@ -22,6 +22,8 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LocalNotfoundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.io.FileChannelInputStream;
+import ch.cyberduck.core.io.FileChannelOutputStream;
 import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
 import ch.cyberduck.core.local.TildeExpander;
 import ch.cyberduck.core.local.WorkdirPrefixer;
@@ -39,9 +41,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
-import java.nio.channels.SeekableByteChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
@@ -69,6 +69,11 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      */
     private String path;
 
+    /**
+     * Attributes cached when read in advance
+     */
+    private transient volatile LocalAttributesSnapshot snapshot;
+
     public Local(final String parent, final String name) {
         this(parent, name, PreferencesFactory.get().getProperty("local.delimiter"));
     }
@@ -146,6 +151,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isDirectory() {
+        final LocalAttributesSnapshot snapshot = this.snapshot;
+        if(snapshot != null) {
+            return snapshot.isDirectory();
+        }
         return Paths.get(path).toFile().isDirectory();
     }
 
@@ -155,6 +164,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isFile() {
+        final LocalAttributesSnapshot snapshot = this.snapshot;
+        if(snapshot != null) {
+            return snapshot.isFile();
+        }
         return Paths.get(path).toFile().isFile();
     }
 
@@ -164,6 +177,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @return true if the file is a symbolic link.
      */
     public boolean isSymbolicLink() {
+        final LocalAttributesSnapshot snapshot = this.snapshot;
+        if(snapshot != null) {
+            return snapshot.isSymbolicLink();
+        }
         return Files.isSymbolicLink(Paths.get(path));
     }
 
@@ -197,7 +214,33 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public LocalAttributes attributes() {
-        return new LocalAttributes(path);
+        return new LocalAttributes(this);
+    }
+
+    /**
+     * Read attributes with a single call and cache them until invalidated by a modification through this
+     * instance. Changes made to the file by other means are not seen until refreshed again.
+     *
+     * @return Attributes read or null if attributes cannot be read and are queried from the file system when requested
+     */
+    public LocalAttributesSnapshot refresh() {
+        final LocalAttributesSnapshot snapshot = LocalAttributesSnapshot.read(path);
+        this.snapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Discard cached attributes
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * @return Cached attributes or null if not read in advance
+     */
+    protected LocalAttributesSnapshot snapshot() {
+        return snapshot;
     }
 
     @Override
@@ -206,6 +249,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public void mkdir() throws AccessDeniedException {
+        this.invalidate();
         new DefaultLocalDirectoryFeature().mkdir(this);
     }
 
@@ -213,6 +257,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * Delete the file
      */
     public void delete() throws AccessDeniedException, NotfoundException {
+        this.invalidate();
         try {
             Files.delete(Paths.get(path));
         }
@@ -333,6 +378,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @return True if the path exists on the file system.
      */
     public boolean exists(LinkOption... options) {
+        final LocalAttributesSnapshot snapshot = this.snapshot;
+        if(snapshot != null) {
+            return snapshot.exists(options.length == 0);
+        }
         if(options.length == 0) {
             return Paths.get(path).toFile().exists();
         }
@@ -340,6 +389,8 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public void rename(final Local renamed) throws AccessDeniedException {
+        this.invalidate();
+        renamed.invalidate();
         try {
             try {
                 Files.move(Paths.get(path), Paths.get(renamed.getAbsolute()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
@@ -441,7 +492,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     protected InputStream getInputStream(final String path) throws LocalAccessDeniedException {
         try {
             final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
-            return new SeekableByteChannelInputStream(channel);
+            return new FileChannelInputStream(channel);
         }
         catch(IOException e) {
             throw new LocalAccessDeniedException(e.getMessage(), e);
@@ -449,6 +500,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public OutputStream getOutputStream(final boolean append) throws AccessDeniedException {
+        this.invalidate();
         return this.getOutputStream(path, append);
     }
 
@@ -466,7 +518,54 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
                 options.add(StandardOpenOption.TRUNCATE_EXISTING);
             }
             final FileChannel channel = FileChannel.open(Paths.get(path), options);
-            return Channels.newOutputStream(channel);
+            return new FileChannelOutputStream(channel);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Open file for writing at position without truncating. Allows to write segments of a file concurrently.
+     *
+     * @param position Offset in file to write first byte to
+     */
+    public OutputStream getOutputStream(final long position) throws AccessDeniedException {
+        this.invalidate();
+        return this.getOutputStream(path, position);
+    }
+
+    protected OutputStream getOutputStream(final String path, final long position) throws LocalAccessDeniedException {
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            channel.position(position);
+            return new FileChannelOutputStream(channel);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create file with length or truncate existing file to length. No data is written and the file is sparse if
+     * supported by the file system.
+     *
+     * @param length Size of file
+     */
+    public void allocate(final long length) throws AccessDeniedException {
+        this.invalidate();
+        this.allocate(path, length);
+    }
+
+    protected void allocate(final String path, final long length) throws LocalAccessDeniedException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path),
+            StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.SPARSE)) {
+            if(channel.size() > length) {
+                channel.truncate(length);
+            }
+            else if(channel.size() < length) {
+                channel.write(ByteBuffer.allocate(1), length - 1);
+            }
         }
         catch(IOException e) {
             throw new LocalAccessDeniedException(e.getMessage(), e);
@@ -531,72 +630,4 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         sb.append('}');
         return sb.toString();
     }
-
-    private static final class SeekableByteChannelInputStream extends InputStream {
-        private final SeekableByteChannel channel;
-        private long markPosition = 0L;
-
-        public SeekableByteChannelInputStream(final SeekableByteChannel channel) {
-            this.channel = channel;
-        }
-
-        @Override
-        public int read() throws IOException {
-            final ByteBuffer buffer = ByteBuffer.wrap(new byte[1]);
-            final int bytesRead = channel.read(buffer);
-            if(bytesRead > 0) {
-                buffer.position(0);
-                return buffer.get();
-            }
-            else {
-                return -1;
-            }
-        }
-
-        @Override
-        public int read(final byte[] b, final int off, final int len) throws IOException {
-            final ByteBuffer buffer = ByteBuffer.wrap(b);
-            buffer.position(off);
-            buffer.limit(off + len);
-            final int bytesRead = channel.read(buffer);
-            if(bytesRead > 0) {
-                return bytesRead;
-            }
-            else {
-                return -1;
-            }
-        }
-
-        @Override
-        public long skip(final long n) throws IOException {
-            channel.position(channel.position() + n);
-            return channel.position();
-        }
-
-        @Override
-        public boolean markSupported() {
-            return true;
-        }
-
-        @Override
-        public void mark(final int readlimit) {
-            try {
-                markPosition = channel.position();
-            }
-            catch(final IOException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        @Override
-        public void reset() throws IOException {
-            channel.position(markPosition);
-            markPosition = 0;
-        }
-
-        @Override
-        public void close() throws IOException {
-            channel.close();
-        }
-    }
 }
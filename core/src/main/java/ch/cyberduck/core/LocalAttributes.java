@@ -38,14 +38,44 @@ public class LocalAttributes extends Attributes {
     private static final Logger log = Logger.getLogger(LocalAttributes.class);
 
     private final String path;
+    /**
+     * File to read cached attributes from if available
+     */
+    private final Local local;
     private Checksum checksum = Checksum.NONE;
 
     public LocalAttributes(final String path) {
         this.path = path;
+        this.local = null;
+    }
+
+    public LocalAttributes(final Local local) {
+        this.path = local.getAbsolute();
+        this.local = local;
+    }
+
+    /**
+     * @return Attributes read in advance or null
+     */
+    private LocalAttributesSnapshot snapshot() {
+        if(null == local) {
+            return null;
+        }
+        return local.snapshot();
+    }
+
+    private void invalidate() {
+        if(null != local) {
+            local.invalidate();
+        }
     }
 
     @Override
     public long getModificationDate() {
+        final LocalAttributesSnapshot snapshot = this.snapshot();
+        if(snapshot != null) {
+            return snapshot.getModificationDate();
+        }
         try {
             return Files.getLastModifiedTime(Paths.get(path)).toMillis();
         }
@@ -75,6 +105,7 @@ public class LocalAttributes extends Attributes {
         if(timestamp < 0) {
             return;
         }
+        this.invalidate();
         try {
             Files.setLastModifiedTime(Paths.get(path), FileTime.fromMillis(timestamp));
         }
@@ -85,6 +116,10 @@ public class LocalAttributes extends Attributes {
 
     @Override
     public long getSize() {
+        final LocalAttributesSnapshot snapshot = this.snapshot();
+        if(snapshot != null) {
+            return snapshot.getSize();
+        }
         try {
             return Files.size(Paths.get(path));
         }
@@ -96,6 +131,13 @@ public class LocalAttributes extends Attributes {
 
     @Override
     public Permission getPermission() {
+        final LocalAttributesSnapshot snapshot = this.snapshot();
+        if(snapshot != null) {
+            if(null == snapshot.getPermission() || !snapshot.exists(false)) {
+                return Permission.EMPTY;
+            }
+            return new LocalPermission(snapshot.getPermission(), snapshot.getOwner());
+        }
         if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
             final BasicFileAttributes attributes;
             try {
@@ -109,6 +151,7 @@ public class LocalAttributes extends Attributes {
     }
 
     public void setPermission(final Permission permission) throws AccessDeniedException {
+        this.invalidate();
         if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
             try {
                 Files.setPosixFilePermissions(Paths.get(path), PosixFilePermissions.fromString(permission.getSymbol()));
@@ -146,31 +189,79 @@ public class LocalAttributes extends Attributes {
     }
 
     protected class LocalPermission extends Permission {
+        /**
+         * Owner of file read in advance with mode or null to check access on file system
+         */
+        private final String owner;
+
         public LocalPermission() {
-            //
+            this.owner = null;
         }
 
         public LocalPermission(final String mode) {
+            this(mode, null);
+        }
+
+        public LocalPermission(final String mode, final String owner) {
             super(mode);
+            this.owner = owner;
         }
 
         public LocalPermission(final int mode) {
             super(mode);
+            this.owner = null;
         }
 
         @Override
         public boolean isReadable() {
-            return Files.isReadable(Paths.get(path));
+            final Boolean access = this.access(Action.read);
+            if(null == access) {
+                return Files.isReadable(Paths.get(path));
+            }
+            return access;
         }
 
         @Override
         public boolean isWritable() {
-            return Files.isWritable(Paths.get(path));
+            final Boolean access = this.access(Action.write);
+            if(null == access) {
+                return Files.isWritable(Paths.get(path));
+            }
+            return access;
         }
 
         @Override
         public boolean isExecutable() {
-            return Files.isExecutable(Paths.get(path));
+            final Boolean access = this.access(Action.execute);
+            if(null == access) {
+                return Files.isExecutable(Paths.get(path));
+            }
+            return access;
+        }
+
+        /**
+         * @return Access of current user derived from mode or null if unknown
+         */
+        private Boolean access(final Action action) {
+            if(null == owner) {
+                return null;
+            }
+            final String user = System.getProperty("user.name");
+            if("root".equals(user)) {
+                // Not restricted by mode
+                return null;
+            }
+            if(owner.equals(user)) {
+                return this.getUser().implies(action);
+            }
+            if(this.getOther().implies(action)) {
+                return true;
+            }
+            if(this.getGroup().implies(action)) {
+                // Group membership unknown
+                return null;
+            }
+            return false;
         }
     }
 
@@ -0,0 +1,190 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * Immutable file attributes read with a single <code>readAttributes</code> call instead of querying type, size,
+ * timestamp and permissions separately. Symbolic links are followed for type, size and timestamp with an additional
+ * call, permissions are of the link itself.
+ */
+public final class LocalAttributesSnapshot {
+    private static final Logger log = Logger.getLogger(LocalAttributesSnapshot.class);
+
+    private static final boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    /**
+     * File not found
+     */
+    public static final LocalAttributesSnapshot NONE = new LocalAttributesSnapshot(
+        false, false, false, false, false, -1L, -1L, null, null);
+
+    /**
+     * Exists without following symbolic links
+     */
+    private final boolean exists;
+    /**
+     * Exists following symbolic links
+     */
+    private final boolean resolved;
+    private final boolean symlink;
+    private final boolean directory;
+    private final boolean file;
+    private final long size;
+    private final long modificationDate;
+    /**
+     * Unix permission mode or null if not supported by file system
+     */
+    private final String permission;
+    /**
+     * Name of owner or null if not supported by file system
+     */
+    private final String owner;
+
+    private LocalAttributesSnapshot(final boolean exists, final boolean resolved, final boolean symlink,
+                                    final boolean directory, final boolean file,
+                                    final long size, final long modificationDate, final String permission, final String owner) {
+        this.exists = exists;
+        this.resolved = resolved;
+        this.symlink = symlink;
+        this.directory = directory;
+        this.file = file;
+        this.size = size;
+        this.modificationDate = modificationDate;
+        this.permission = permission;
+        this.owner = owner;
+    }
+
+    /**
+     * @param path Absolute path
+     * @return Attributes of file, NONE if not found or null on failure reading attributes
+     */
+    public static LocalAttributesSnapshot read(final String path) {
+        final Path p;
+        try {
+            p = Paths.get(path);
+        }
+        catch(IllegalArgumentException e) {
+            log.warn(String.format("Invalid path %s. %s", path, e.getMessage()));
+            return null;
+        }
+        final BasicFileAttributes attributes;
+        try {
+            attributes = posix ?
+                Files.readAttributes(p, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS) :
+                Files.readAttributes(p, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+        catch(NoSuchFileException e) {
+            return NONE;
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading attributes of %s. %s", path, e.getMessage()));
+            return null;
+        }
+        final String permission = posix ?
+            PosixFilePermissions.toString(((PosixFileAttributes) attributes).permissions()) : null;
+        final String owner = posix ?
+            ((PosixFileAttributes) attributes).owner().getName() : null;
+        if(attributes.isSymbolicLink()) {
+            final BasicFileAttributes target;
+            try {
+                target = Files.readAttributes(p, BasicFileAttributes.class);
+            }
+            catch(IOException e) {
+                // Link target not found
+                return new LocalAttributesSnapshot(true, false, true, false, false, -1L, -1L, permission, owner);
+            }
+            return new LocalAttributesSnapshot(true, true, true, target.isDirectory(), target.isRegularFile(),
+                target.size(), target.lastModifiedTime().toMillis(), permission, owner);
+        }
+        return new LocalAttributesSnapshot(true, true, false, attributes.isDirectory(), attributes.isRegularFile(),
+            attributes.size(), attributes.lastModifiedTime().toMillis(), permission, owner);
+    }
+
+    /**
+     * @param follow Follow symbolic links
+     */
+    public boolean exists(final boolean follow) {
+        return follow ? resolved : exists;
+    }
+
+    public boolean isSymbolicLink() {
+        return symlink;
+    }
+
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    public boolean isFile() {
+        return file;
+    }
+
+    /**
+     * @return Size in bytes or -1 if unknown
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return Milliseconds since the epoch or -1 if unknown
+     */
+    public long getModificationDate() {
+        return modificationDate;
+    }
+
+    /**
+     * @return Symbolic permission string such as <code>rwxr-xr-x</code> or null if not supported
+     */
+    public String getPermission() {
+        return permission;
+    }
+
+    /**
+     * @return Name of owner or null if not supported
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LocalAttributesSnapshot{");
+        sb.append("exists=").append(exists);
+        sb.append(", symlink=").append(symlink);
+        sb.append(", directory=").append(directory);
+        sb.append(", size=").append(size);
+        sb.append(", modificationDate=").append(modificationDate);
+        sb.append(", permission='").append(permission).append('\'');
+        sb.append(", owner='").append(owner).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
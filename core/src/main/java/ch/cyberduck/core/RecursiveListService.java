@@ -0,0 +1,44 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.exception.BackgroundException;
+
+/**
+ * Listing of a directory tree with a single request
+ */
+public interface RecursiveListService {
+
+    /**
+     * @param directory Root of tree
+     * @param filter    Only include listings of descendant directories accepted
+     * @param listener  Notified once with the complete listing of every directory in the tree
+     * @param callback  Receives the listing of the directory and every descendant directory when complete
+     * @throws ch.cyberduck.core.exception.UnsupportedException Server does not allow to list the tree. Must list
+     *                                                          every directory not yet passed to the callback with
+     *                                                          the list service instead.
+     */
+    void walk(Path directory, Filter<Path> filter, ListProgressListener listener, Callback callback) throws BackgroundException;
+
+    interface Callback {
+        /**
+         * @param directory Directory in tree
+         * @param children  Complete listing of directory
+         */
+        void complete(Path directory, AttributedList<Path> children) throws BackgroundException;
+    }
+}
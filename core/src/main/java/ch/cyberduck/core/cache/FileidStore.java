@@ -0,0 +1,390 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shared index of file ids by path for protocols addressing files by id. Lookups avoid listing the parent directory
+ * for paths not in the directory cache and must only be made after a miss in the directory cache. Entries must be
+ * removed when files are moved or deleted or an operation fails with a not found error, and are validated against
+ * directory listings retrieved from the server by the protocol implementation. Optionally entries are appended to a file in the application
+ * support directory to be available for new sessions.
+ */
+public final class FileidStore {
+    private static final Logger log = Logger.getLogger(FileidStore.class);
+
+    private static final FileidStore instance = new FileidStore(
+        LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Fileids.txt"),
+        PreferencesFactory.get().getBoolean("fileid.cache.persist"),
+        PreferencesFactory.get().getInteger("fileid.cache.size"));
+
+    public static FileidStore get() {
+        return instance;
+    }
+
+    private static final char DELIMITER = '\t';
+
+    private final Local file;
+    private final boolean persist;
+    private final int limit;
+
+    /**
+     * Ids by host, path and type in access order. Guarded by this.
+     */
+    private Map<String, String> entries;
+    /**
+     * Host and path of entries by host and path of parent directory. Guarded by this.
+     */
+    private final Map<String, Set<String>> children = new HashMap<>();
+    /**
+     * Appends changes to file. Guarded by this.
+     */
+    private Writer writer;
+
+    /**
+     * @param file    File to persist entries
+     * @param persist Save entries to file
+     * @param limit   Maximum number of entries
+     */
+    public FileidStore(final Local file, final boolean persist, final int limit) {
+        this.file = file;
+        this.persist = persist;
+        this.limit = limit;
+    }
+
+    /**
+     * @return Id saved for file or null if unknown
+     */
+    public synchronized String get(final Host host, final Path file) {
+        return this.load().get(key(host, file));
+    }
+
+    /**
+     * Save id found for file
+     */
+    public synchronized void put(final Host host, final Path file, final String id) {
+        if(StringUtils.isBlank(id)) {
+            return;
+        }
+        final String key = key(host, file);
+        if(StringUtils.containsAny(key, '\n', '\r') || StringUtils.contains(id, DELIMITER)) {
+            return;
+        }
+        if(id.equals(this.add(key, id))) {
+            return;
+        }
+        this.write("P" + DELIMITER + id + DELIMITER + key);
+    }
+
+    /**
+     * Remove entries of children of directory not found in listing or saved with a different id
+     *
+     * @param directory Parent directory
+     * @param list      Children retrieved from server
+     */
+    public synchronized void validate(final Host host, final Path directory, final AttributedList<Path> list) {
+        final Set<String> stored = children.get(host(host) + DELIMITER + directory.getAbsolute());
+        if(null == stored) {
+            return;
+        }
+        final Map<String, String> listed = new HashMap<>();
+        for(Path file : list) {
+            if(file.attributes().isDuplicate()) {
+                continue;
+            }
+            listed.put(key(host, file), file.attributes().getVersionId());
+        }
+        final List<String> invalid = new ArrayList<>();
+        for(String prefix : stored) {
+            for(Path.Type type : new Path.Type[]{Path.Type.file, Path.Type.directory}) {
+                final String key = prefix + DELIMITER + type.name();
+                final String id = this.load().get(key);
+                if(null == id) {
+                    if(!children.containsKey(prefix) || listed.containsKey(key)) {
+                        continue;
+                    }
+                    // Only descendants saved for directory
+                    if(Path.Type.directory == type) {
+                        invalid.add(prefix);
+                    }
+                }
+                else if(!listed.containsKey(key)) {
+                    invalid.add(prefix);
+                }
+                else if(StringUtils.isNotBlank(listed.get(key)) && !id.equals(listed.get(key))) {
+                    invalid.add(prefix);
+                }
+            }
+        }
+        for(String prefix : invalid) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Remove invalid file id for %s", prefix));
+            }
+            if(this.remove(prefix)) {
+                this.write("D" + DELIMITER + prefix);
+            }
+        }
+    }
+
+    /**
+     * Remove id of file and all its descendants when moved or deleted
+     */
+    public synchronized void remove(final Host host, final Path file) {
+        final String prefix = host(host) + DELIMITER + file.getAbsolute();
+        if(this.remove(prefix)) {
+            this.write("D" + DELIMITER + prefix);
+        }
+    }
+
+    /**
+     * @param prefix Host and path
+     * @return True if any entry was removed
+     */
+    private boolean remove(final String prefix) {
+        final Map<String, String> entries = this.load();
+        boolean removed = entries.remove(prefix + DELIMITER + Path.Type.file.name()) != null;
+        removed |= entries.remove(prefix + DELIMITER + Path.Type.directory.name()) != null;
+        this.unlink(prefix);
+        // Descendants
+        final Set<String> descendants = children.remove(prefix);
+        if(null != descendants) {
+            for(String child : new ArrayList<>(descendants)) {
+                removed |= this.remove(child);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Save entry and add to index of parent directory. Removes least recently used entries exceeding limit.
+     *
+     * @return Previous id
+     */
+    private String add(final String key, final String id) {
+        final Map<String, String> entries = this.load();
+        final String previous = entries.put(key, id);
+        // Link with all ancestors including directories without saved id
+        String prefix = StringUtils.substringBeforeLast(key, String.valueOf(DELIMITER));
+        for(String parent = parent(prefix); parent != null; prefix = parent, parent = parent(parent)) {
+            Set<String> set = children.get(parent);
+            if(null == set) {
+                set = new HashSet<>();
+                children.put(parent, set);
+            }
+            if(!set.add(prefix)) {
+                break;
+            }
+        }
+        while(entries.size() > limit) {
+            final String eldest = entries.keySet().iterator().next();
+            entries.remove(eldest);
+            final String p = StringUtils.substringBeforeLast(eldest, String.valueOf(DELIMITER));
+            if(this.isUnused(p)) {
+                this.unlink(p);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * @return True if no entry is saved for path or any of its descendants
+     */
+    private boolean isUnused(final String prefix) {
+        return !entries.containsKey(prefix + DELIMITER + Path.Type.file.name())
+            && !entries.containsKey(prefix + DELIMITER + Path.Type.directory.name())
+            && !children.containsKey(prefix);
+    }
+
+    /**
+     * Remove from index of parent directory and unlink parent directories no longer referenced
+     */
+    private void unlink(final String prefix) {
+        final String parent = parent(prefix);
+        if(null == parent) {
+            return;
+        }
+        final Set<String> set = children.get(parent);
+        if(null != set) {
+            set.remove(prefix);
+            if(set.isEmpty()) {
+                children.remove(parent);
+                if(this.isUnused(parent)) {
+                    this.unlink(parent);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param prefix Host and path
+     * @return Host and path of parent directory or null for root
+     */
+    private static String parent(final String prefix) {
+        final int index = prefix.indexOf(DELIMITER);
+        final String absolute = prefix.substring(index + 1);
+        final int cut = absolute.lastIndexOf(Path.DELIMITER);
+        if(cut < 0 || String.valueOf(Path.DELIMITER).equals(absolute)) {
+            return null;
+        }
+        return prefix.substring(0, index + 1) + (cut == 0 ? String.valueOf(Path.DELIMITER) : absolute.substring(0, cut));
+    }
+
+    /**
+     * Remove all entries
+     */
+    public synchronized void clear() {
+        this.load().clear();
+        children.clear();
+        if(null != writer) {
+            try {
+                writer.close();
+                Files.deleteIfExists(Paths.get(file.getAbsolute()));
+                writer = Files.newBufferedWriter(Paths.get(file.getAbsolute()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure clearing %s. %s", file, e.getMessage()));
+                writer = null;
+            }
+        }
+    }
+
+    private void write(final String line) {
+        if(null == writer) {
+            return;
+        }
+        try {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving file id to %s. %s", file, e.getMessage()));
+        }
+    }
+
+    private Map<String, String> load() {
+        if(null == entries) {
+            entries = new LinkedHashMap<String, String>(16, 0.75f, true);
+            if(!persist) {
+                return entries;
+            }
+            final java.nio.file.Path path = Paths.get(file.getAbsolute());
+            int lines = 0;
+            if(Files.exists(path)) {
+                try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    String line;
+                    while((line = reader.readLine()) != null) {
+                        lines++;
+                        if(line.startsWith("P" + DELIMITER)) {
+                            final int index = line.indexOf(DELIMITER, 2);
+                            if(index > 2) {
+                                this.add(line.substring(index + 1), line.substring(2, index));
+                            }
+                        }
+                        else if(line.startsWith("D" + DELIMITER)) {
+                            this.remove(line.substring(2));
+                        }
+                        else {
+                            log.warn(String.format("Ignore invalid entry %s in %s", line, file));
+                        }
+                    }
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure reading file ids from %s. %s", file, e.getMessage()));
+                }
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Loaded %d file ids from %s", entries.size(), file));
+            }
+            try {
+                Files.createDirectories(path.getParent());
+                if(lines > 2 * entries.size()) {
+                    this.compact(path);
+                }
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure opening %s to save file ids. %s", file, e.getMessage()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Rewrite file with current entries only
+     */
+    private void compact(final java.nio.file.Path path) throws IOException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Compact %s with %d entries", file, entries.size()));
+        }
+        final java.nio.file.Path temporary = path.resolveSibling(String.format("%s.tmp", path.getFileName()));
+        try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for(Map.Entry<String, String> entry : entries.entrySet()) {
+                out.write("P" + DELIMITER + entry.getValue() + DELIMITER + entry.getKey() + '\n');
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String host(final Host host) {
+        return new HostUrlProvider().withUsername(true).withPath(false).get(host);
+    }
+
+    private static String key(final Host host, final Path file) {
+        return host(host) + DELIMITER + file.getAbsolute() + DELIMITER
+            + (file.isDirectory() ? Path.Type.directory.name() : Path.Type.file.name());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("FileidStore{");
+        sb.append("file=").append(file);
+        sb.append(", persist=").append(persist);
+        sb.append(", limit=").append(limit);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -55,7 +55,16 @@ public class LRUCache<Key, Value> {
     }
 
     public static <Key, Value> LRUCache<Key, Value> build(final long maximumSize, final long expireDuration) {
-        return new LRUCache<>(null, new NullListener<>(), maximumSize, expireDuration);
+        return build(new NullListener<>(), maximumSize, expireDuration);
+    }
+
+    public static <Key, Value> LRUCache<Key, Value> build(final RemovalListener<Key, Value> listener, final long maximumSize) {
+        return build(listener, maximumSize, -1L);
+    }
+
+    public static <Key, Value> LRUCache<Key, Value> build(final RemovalListener<Key, Value> listener,
+                                                          final long maximumSize, final long expireDuration) {
+        return new LRUCache<>(null, listener, maximumSize, expireDuration);
     }
 
     private final Cache<Key, Value> delegate;
@@ -76,6 +76,11 @@ public class HttpConnectionPoolBuilder {
     private final ConnectionSocketFactory sslSocketFactory;
     private final Host host;
 
+    /**
+     * Maximum number of connections per route
+     */
+    private int connections;
+
     public HttpConnectionPoolBuilder(final Host host,
                                      final ThreadLocalHostnameDelegatingTrustManager trust,
                                      final X509KeyManager key,
@@ -155,6 +160,19 @@ public class HttpConnectionPoolBuilder {
         this.host = host;
         this.socketFactory = socketFactory;
         this.sslSocketFactory = sslSocketFactory;
+        this.connections = preferences.getInteger("http.connections.route");
+    }
+
+    /**
+     * Allow more concurrent requests to a single host for protocols where many small requests are sent in parallel.
+     * Requests are sent with HTTP/1.1 and each concurrent request requires its own connection from the pool.
+     *
+     * @param connections Maximum number of connections per route
+     * @return This
+     */
+    public HttpConnectionPoolBuilder withConnectionsPerRoute(final int connections) {
+        this.connections = connections;
+        return this;
     }
 
     /**
@@ -244,7 +262,7 @@ public class HttpConnectionPoolBuilder {
         }
         final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry);
         manager.setMaxTotal(preferences.getInteger("http.connections.total"));
-        manager.setDefaultMaxPerRoute(preferences.getInteger("http.connections.route"));
+        manager.setDefaultMaxPerRoute(connections);
         manager.setValidateAfterInactivity(5000);
         return manager;
     }
@@ -31,6 +31,7 @@ import org.apache.commons.io.input.BoundedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -54,8 +55,9 @@ public abstract class AbstractChecksumCompute implements ChecksumCompute {
         catch(NoSuchAlgorithmException e) {
             throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
         }
+        final ByteBuffer pooled = BufferPool.get().borrow(16384);
         try {
-            byte[] buffer = new byte[16384];
+            final byte[] buffer = pooled.array();
             int bytesRead;
             while((bytesRead = in.read(buffer, 0, buffer.length)) != -1) {
                 md.update(buffer, 0, bytesRead);
@@ -66,6 +68,7 @@ public abstract class AbstractChecksumCompute implements ChecksumCompute {
         }
         finally {
             IOUtils.closeQuietly(in);
+            BufferPool.get().release(pooled);
         }
         return md.digest();
     }
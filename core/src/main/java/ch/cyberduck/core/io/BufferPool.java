@@ -0,0 +1,193 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of buffers reused for transfers and checksum computation. Buffers are kept in size classes of powers of two. The
+ * total size of buffers retained is bounded and buffers released when the limit is reached are left to garbage
+ * collection.
+ */
+public final class BufferPool {
+    private static final Logger log = Logger.getLogger(BufferPool.class);
+
+    private static final BufferPool instance = new BufferPool(false,
+        PreferencesFactory.get().getLong("connection.buffer.pool.limit"));
+
+    /**
+     * @return Pool of heap buffers with array accessible
+     */
+    public static BufferPool get() {
+        return instance;
+    }
+
+    public enum Metric {
+        /**
+         * Buffer requested
+         */
+        borrow,
+        /**
+         * Buffer reused from pool
+         */
+        hit,
+        /**
+         * Buffer allocated
+         */
+        miss,
+        /**
+         * Buffer returned to pool
+         */
+        release,
+        /**
+         * Buffer returned not retained because of size or limit
+         */
+        discard
+    }
+
+    /**
+     * Smallest size class
+     */
+    private static final int MINIMUM = 4096;
+    /**
+     * Largest size class. Larger buffers are not pooled
+     */
+    private static final int MAXIMUM = 16 * 1024 * 1024;
+
+    private final boolean direct;
+    private final long limit;
+
+    /**
+     * Free buffers by size class
+     */
+    private final List<Deque<ByteBuffer>> classes = new ArrayList<>();
+    /**
+     * Total capacity of free buffers
+     */
+    private final AtomicLong retained = new AtomicLong();
+
+    private final Metrics metrics = new CountingMetrics();
+
+    /**
+     * @param direct Allocate direct buffers
+     * @param limit  Maximum total capacity of buffers retained
+     */
+    public BufferPool(final boolean direct, final long limit) {
+        this.direct = direct;
+        this.limit = limit;
+        for(int i = 0; i <= index(MAXIMUM); i++) {
+            classes.add(new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    /**
+     * @param size Minimum capacity
+     * @return Cleared buffer with capacity rounded up to size class. Must be returned with {@link #release(ByteBuffer)}
+     */
+    public ByteBuffer borrow(final int size) {
+        metrics.increment(Metric.borrow);
+        final int index = index(size);
+        if(index < classes.size()) {
+            final ByteBuffer buffer = classes.get(index).pollFirst();
+            if(buffer != null) {
+                retained.addAndGet(-buffer.capacity());
+                metrics.increment(Metric.hit);
+                buffer.clear();
+                return buffer;
+            }
+        }
+        metrics.increment(Metric.miss);
+        final int capacity = index < classes.size() ? MINIMUM << index : size;
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * @param buffer Buffer no longer referenced by caller
+     */
+    public void release(final ByteBuffer buffer) {
+        metrics.increment(Metric.release);
+        final int capacity = buffer.capacity();
+        final int index = index(capacity);
+        if(index >= classes.size() || MINIMUM << index != capacity || buffer.isDirect() != direct) {
+            metrics.increment(Metric.discard);
+            return;
+        }
+        if(retained.addAndGet(capacity) > limit) {
+            retained.addAndGet(-capacity);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Discard buffer with capacity %d exceeding limit of pool %s", capacity, this));
+            }
+            metrics.increment(Metric.discard);
+            return;
+        }
+        buffer.clear();
+        classes.get(index).offerFirst(buffer);
+    }
+
+    /**
+     * @return Usage counters by {@link Metric}
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return Total capacity of buffers retained for reuse
+     */
+    public long getRetained() {
+        return retained.get();
+    }
+
+    /**
+     * @param size Minimum capacity
+     * @return Capacity of buffer borrowed for size
+     */
+    public static int capacity(final int size) {
+        final int index = index(size);
+        return index <= index(MAXIMUM) ? MINIMUM << index : size;
+    }
+
+    /**
+     * @return Index of smallest size class with capacity of at least size
+     */
+    private static int index(final int size) {
+        if(size <= MINIMUM) {
+            return 0;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(MINIMUM);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BufferPool{");
+        sb.append("direct=").append(direct);
+        sb.append(", limit=").append(limit);
+        sb.append(", retained=").append(retained);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 
 public class CRC32ChecksumCompute extends AbstractChecksumCompute {
@@ -31,8 +32,9 @@ public class CRC32ChecksumCompute extends AbstractChecksumCompute {
     public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
         final InputStream normalized = this.normalize(in, status);
         final CRC32 crc32 = new CRC32();
+        final ByteBuffer pooled = BufferPool.get().borrow(16384);
         try {
-            byte[] buffer = new byte[16384];
+            final byte[] buffer = pooled.array();
             int bytesRead;
             while((bytesRead = normalized.read(buffer, 0, buffer.length)) != -1) {
                 crc32.update(buffer, 0, bytesRead);
@@ -43,6 +45,7 @@ public class CRC32ChecksumCompute extends AbstractChecksumCompute {
         }
         finally {
             IOUtils.closeQuietly(normalized);
+            BufferPool.get().release(pooled);
         }
         return new Checksum(HashAlgorithm.crc32, Long.toHexString(crc32.getValue()));
     }
@@ -24,6 +24,7 @@ import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import com.twmacinta.util.MD5;
 
@@ -43,8 +44,9 @@ public class MD5FastChecksumCompute extends AbstractChecksumCompute {
     protected byte[] digest(final String algorithm, final InputStream in) throws ChecksumException {
         final MD5 md = new MD5();
 
+        final ByteBuffer pooled = BufferPool.get().borrow(16384);
         try {
-            byte[] buffer = new byte[16384];
+            final byte[] buffer = pooled.array();
             int bytesRead;
             while((bytesRead = in.read(buffer, 0, buffer.length)) != -1) {
                 md.Update(buffer, 0, bytesRead);
@@ -55,6 +57,7 @@ public class MD5FastChecksumCompute extends AbstractChecksumCompute {
         }
         finally {
             IOUtils.closeQuietly(in);
+            BufferPool.get().release(pooled);
         }
         return md.Final();
     }
@@ -15,28 +15,32 @@ package ch.cyberduck.core.io;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
 import org.apache.log4j.Logger;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MemorySegementingOutputStream extends SegmentingOutputStream {
     private static final Logger log = Logger.getLogger(MemorySegementingOutputStream.class);
 
     private final OutputStream proxy;
-    private final ByteArrayOutputStream buffer;
+    private final SegmentBuffer buffer;
     private final Integer threshold;
 
     private final AtomicBoolean close = new AtomicBoolean();
 
     public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold) {
-        this(proxy, threshold, new ByteArrayOutputStream(threshold));
+        // Leave room for a write exceeding threshold before flushing
+        this(proxy, threshold, new SegmentBuffer(BufferPool.get().borrow(
+            threshold + PreferencesFactory.get().getInteger("connection.chunksize"))));
     }
 
-    public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold, final ByteArrayOutputStream buffer) {
+    private MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold, final SegmentBuffer buffer) {
         super(proxy, (long) threshold, buffer);
         this.proxy = proxy;
         this.buffer = buffer;
@@ -45,20 +49,20 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
 
     @Override
     public void flush() throws IOException {
-        // Copy from memory file to output
-        final byte[] content = buffer.toByteArray();
+        // Write from memory to output without copying
+        final byte[] content = buffer.array();
+        final int size = buffer.size();
         // Re-use buffer
         buffer.reset();
-        for(int offset = 0; offset < content.length; offset += threshold) {
-            int len = Math.min(threshold, content.length - offset);
-            final byte[] bytes = Arrays.copyOfRange(content, offset, offset + len);
+        for(int offset = 0; offset < size; offset += threshold) {
+            int len = Math.min(threshold, size - offset);
             if(len < threshold) {
-                // Write to start of buffer
-                this.write(bytes);
+                // Move to start of buffer
+                this.write(content, offset, len);
             }
             else {
                 // Write out
-                proxy.write(bytes);
+                proxy.write(content, offset, len);
             }
         }
     }
@@ -71,7 +75,7 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
         }
         try {
             if(buffer.size() > 0) {
-                proxy.write(buffer.toByteArray());
+                proxy.write(buffer.array(), 0, buffer.size());
             }
             // Re-use buffer
             buffer.reset();
@@ -79,6 +83,38 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
         }
         finally {
             close.set(true);
+            buffer.release();
+        }
+    }
+
+    /**
+     * Memory buffer backed by array borrowed from pool
+     */
+    private static final class SegmentBuffer extends ByteArrayOutputStream {
+        private final ByteBuffer pooled;
+
+        public SegmentBuffer(final ByteBuffer pooled) {
+            super(0);
+            this.pooled = pooled;
+            this.buf = pooled.array();
+        }
+
+        /**
+         * @return Backing array with content up to size
+         */
+        public synchronized byte[] array() {
+            return buf;
+        }
+
+        /**
+         * Return array to pool unless replaced when growing
+         */
+        public synchronized void release() {
+            if(buf == pooled.array()) {
+                BufferPool.get().release(pooled);
+            }
+            buf = new byte[0];
+            count = 0;
         }
     }
 }
@@ -25,9 +25,15 @@ import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.log4j.Logger;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Set;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -90,39 +96,15 @@ public final class StreamCopier {
                 if(offset > 0) {
                     skip(in, offset);
                 }
-                final byte[] buffer = new byte[chunksize];
-                long total = 0;
-                int len = chunksize;
-                if(limit > 0 && limit < chunksize) {
-                    // Cast will work because chunk size is int
-                    len = limit.intValue();
+                final Set<BandwidthThrottle> throttles = new HashSet<>();
+                final FileChannel source = channel(in, throttles);
+                final FileChannel target = channel(out, throttles);
+                if(null == source || null == target) {
+                    this.copy(in, out);
                 }
-                while(len > 0 && !cancel.isCanceled()) {
-                    final int read = in.read(buffer, 0, len);
-                    if(-1 == read) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
-                        }
-                        progress.setComplete();
-                        break;
-                    }
-                    else {
-                        listener.recv(read);
-                        out.write(buffer, 0, read);
-                        progress.progress(read);
-                        listener.sent(read);
-                        total += read;
-                    }
-                    if(limit > 0) {
-                        // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
-                        len = (int) Math.min(limit - total, chunksize);
-                    }
-                    if(limit == total) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Limit %d reached reading from stream", limit));
-                        }
-                        progress.setComplete();
-                    }
+                else {
+                    // Copy between files without transferring bytes through the heap
+                    this.copy(source, target, throttles);
                 }
                 final StreamCloser c = new DefaultStreamCloser();
                 c.close(out);
@@ -149,6 +131,137 @@ public final class StreamCopier {
         }
     }
 
+    private void copy(final InputStream in, final OutputStream out) throws IOException {
+        final ByteBuffer pooled = BufferPool.get().borrow(chunksize);
+        try {
+            final byte[] buffer = pooled.array();
+            long total = 0;
+            int len = chunksize;
+            if(limit > 0 && limit < chunksize) {
+                // Cast will work because chunk size is int
+                len = limit.intValue();
+            }
+            while(len > 0 && !cancel.isCanceled()) {
+                final int read = in.read(buffer, 0, len);
+                if(-1 == read) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                    }
+                    progress.setComplete();
+                    break;
+                }
+                else {
+                    listener.recv(read);
+                    out.write(buffer, 0, read);
+                    progress.progress(read);
+                    listener.sent(read);
+                    total += read;
+                }
+                if(limit > 0) {
+                    // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
+                    len = (int) Math.min(limit - total, chunksize);
+                }
+                if(limit == total) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Limit %d reached reading from stream", limit));
+                    }
+                    progress.setComplete();
+                }
+            }
+        }
+        finally {
+            BufferPool.get().release(pooled);
+        }
+    }
+
+    private void copy(final FileChannel source, final FileChannel target, final Set<BandwidthThrottle> throttles) throws IOException {
+        long total = 0;
+        long len = chunksize;
+        if(limit > 0 && limit < chunksize) {
+            len = limit;
+        }
+        while(len > 0 && !cancel.isCanceled()) {
+            for(BandwidthThrottle throttle : throttles) {
+                // Cast will work because chunk size is int
+                len = throttle.request((int) len);
+            }
+            final long position = source.position();
+            // Writes at the current position of the target channel
+            final long transferred = source.transferTo(position, len, target);
+            if(0 == transferred) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            else {
+                source.position(position + transferred);
+                listener.recv(transferred);
+                progress.progress(transferred);
+                listener.sent(transferred);
+                total += transferred;
+            }
+            len = chunksize;
+            if(limit > 0) {
+                // Only adjust if not reading to the end of the file
+                len = Math.min(limit - total, chunksize);
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from channel", limit));
+                }
+                progress.setComplete();
+            }
+        }
+    }
+
+    /**
+     * @param in        Stream
+     * @param throttles Adds bandwidth throttle of wrapping streams
+     * @return Channel of file read from or null if stream is not reading from a file
+     */
+    private static FileChannel channel(InputStream in, final Set<BandwidthThrottle> throttles) {
+        while(in instanceof ThrottledInputStream) {
+            throttles.add(((ThrottledInputStream) in).getThrottle());
+            in = ((ThrottledInputStream) in).getDelegate();
+        }
+        if(in instanceof FileChannelInputStream) {
+            return ((FileChannelInputStream) in).getChannel();
+        }
+        if(in.getClass() == FileInputStream.class) {
+            return ((FileInputStream) in).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * @param out       Stream
+     * @param throttles Adds bandwidth throttle of wrapping streams
+     * @return Channel of file written to or null if stream is not writing to a file
+     */
+    private static FileChannel channel(OutputStream out, final Set<BandwidthThrottle> throttles) {
+        while(true) {
+            if(out instanceof ThrottledOutputStream) {
+                throttles.add(((ThrottledOutputStream) out).getThrottle());
+                out = ((ThrottledOutputStream) out).getDelegate();
+            }
+            else if(out.getClass() == VoidStatusOutputStream.class) {
+                out = ((VoidStatusOutputStream) out).getProxy();
+            }
+            else {
+                break;
+            }
+        }
+        if(out instanceof FileChannelOutputStream) {
+            return ((FileChannelOutputStream) out).getChannel();
+        }
+        if(out.getClass() == FileOutputStream.class) {
+            return ((FileOutputStream) out).getChannel();
+        }
+        return null;
+    }
+
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
         try {
             long skipped = in.skip(offset);
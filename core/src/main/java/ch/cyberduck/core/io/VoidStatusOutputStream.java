@@ -26,4 +26,8 @@ public class VoidStatusOutputStream extends StatusOutputStream<Void> {
     public Void getStatus() {
         return null;
     }
+
+    OutputStream getProxy() {
+        return out;
+    }
 }
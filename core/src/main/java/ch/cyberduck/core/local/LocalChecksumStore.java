@@ -0,0 +1,355 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent cache of checksums computed for local files. A checksum is only returned when size, modification date,
+ * change date and file key of the file are unchanged since it was computed. Entries are removed when the file is
+ * replaced by a download. Entries are appended to a file in the application support directory that is compacted when loaded.
+ */
+public final class LocalChecksumStore {
+    private static final Logger log = Logger.getLogger(LocalChecksumStore.class);
+
+    private static final LocalChecksumStore instance = new LocalChecksumStore(
+        LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Checksums.txt"),
+        PreferencesFactory.get().getBoolean("local.checksum.cache.enable"),
+        PreferencesFactory.get().getInteger("local.checksum.cache.size"));
+
+    public static LocalChecksumStore get() {
+        return instance;
+    }
+
+    private static final char DELIMITER = '\t';
+    /**
+     * Validator of line recording removal of entry
+     */
+    private static final String REMOVED = "-";
+
+    private final Local file;
+    private final boolean enabled;
+    private final int limit;
+
+    /**
+     * Entries by path and algorithm in access order. Guarded by this.
+     */
+    private Map<String, Entry> entries;
+    /**
+     * Appends entries to file. Guarded by this.
+     */
+    private Writer writer;
+
+    /**
+     * @param file    File to persist entries
+     * @param enabled Persist checksums computed
+     * @param limit   Maximum number of entries
+     */
+    public LocalChecksumStore(final Local file, final boolean enabled, final int limit) {
+        this.file = file;
+        this.enabled = enabled;
+        this.limit = limit;
+    }
+
+    /**
+     * Return checksum from cache if file is unchanged or compute from file contents otherwise
+     *
+     * @param local     File
+     * @param algorithm Hash algorithm
+     * @return Checksum of file contents
+     */
+    public Checksum compute(final Local local, final HashAlgorithm algorithm) throws BackgroundException {
+        final String validator = enabled ? validator(local) : null;
+        if(validator != null) {
+            final Checksum cached = this.find(local, algorithm, validator);
+            if(cached != null) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Return cached checksum %s for %s", cached, local));
+                }
+                return cached;
+            }
+        }
+        final Checksum checksum = ChecksumComputeFactory.get(algorithm).compute(local.getInputStream(), new TransferStatus());
+        // Discard if modified while reading
+        if(validator != null && validator.equals(validator(local))) {
+            this.put(local, checksum, validator);
+        }
+        return checksum;
+    }
+
+    /**
+     * Save checksum computed for the current contents of file
+     *
+     * @param local    File
+     * @param checksum Checksum of file contents
+     */
+    public void put(final Local local, final Checksum checksum) {
+        if(!enabled) {
+            return;
+        }
+        if(Checksum.NONE == checksum) {
+            return;
+        }
+        final String validator = validator(local);
+        if(validator != null) {
+            this.put(local, checksum, validator);
+        }
+    }
+
+    /**
+     * Remove checksums saved for file
+     *
+     * @param local File with contents modified
+     */
+    public synchronized void remove(final Local local) {
+        if(!enabled) {
+            return;
+        }
+        if(null == entries) {
+            // Not loaded. Entries read later are rejected for modified contents by their validator
+            return;
+        }
+        final String path = local.getAbsolute();
+        if(StringUtils.containsAny(path, '\n', '\r')) {
+            return;
+        }
+        for(HashAlgorithm algorithm : HashAlgorithm.values()) {
+            if(null == entries.remove(key(path, algorithm))) {
+                continue;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Remove %s checksum for %s", algorithm, local));
+            }
+            if(null == writer) {
+                continue;
+            }
+            try {
+                writer.write(algorithm.name() + DELIMITER + REMOVED + DELIMITER + REMOVED + DELIMITER + path + '\n');
+                writer.flush();
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure removing checksum for %s from %s. %s", local, file, e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Close file with entries. Checksums saved afterwards are kept in memory only.
+     */
+    public synchronized void shutdown() {
+        if(null == writer) {
+            return;
+        }
+        try {
+            writer.close();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure closing %s. %s", file, e.getMessage()));
+        }
+        finally {
+            writer = null;
+        }
+    }
+
+    private synchronized Checksum find(final Local local, final HashAlgorithm algorithm, final String validator) {
+        final Entry entry = this.load().get(key(local.getAbsolute(), algorithm));
+        if(null == entry) {
+            return null;
+        }
+        if(entry.validator.equals(validator)) {
+            return entry.checksum;
+        }
+        return null;
+    }
+
+    private synchronized void put(final Local local, final Checksum checksum, final String validator) {
+        final String path = local.getAbsolute();
+        if(StringUtils.containsAny(path, '\n', '\r')) {
+            return;
+        }
+        this.load().put(key(path, checksum.algorithm), new Entry(validator, checksum));
+        if(null == writer) {
+            return;
+        }
+        try {
+            writer.write(line(path, validator, checksum));
+            writer.flush();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving checksum for %s to %s. %s", local, file, e.getMessage()));
+        }
+    }
+
+    private Map<String, Entry> load() {
+        if(null == entries) {
+            entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                    return this.size() > limit;
+                }
+            };
+            final Path path = Paths.get(file.getAbsolute());
+            int lines = 0;
+            if(Files.exists(path)) {
+                try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    String line;
+                    while((line = reader.readLine()) != null) {
+                        lines++;
+                        final String[] fields = StringUtils.split(line, DELIMITER);
+                        if(fields.length < 4) {
+                            continue;
+                        }
+                        try {
+                            final HashAlgorithm algorithm = HashAlgorithm.valueOf(fields[0]);
+                            // Path is last field and may contain delimiter
+                            final String absolute = line.substring(StringUtils.ordinalIndexOf(line, String.valueOf(DELIMITER), 3) + 1);
+                            if(REMOVED.equals(fields[2])) {
+                                entries.remove(key(absolute, algorithm));
+                            }
+                            else {
+                                entries.put(key(absolute, algorithm), new Entry(fields[2], new Checksum(algorithm, fields[1])));
+                            }
+                        }
+                        catch(IllegalArgumentException e) {
+                            log.warn(String.format("Ignore invalid entry %s in %s", line, file));
+                        }
+                    }
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure reading checksums from %s. %s", file, e.getMessage()));
+                }
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Loaded %d checksums from %s", entries.size(), file));
+            }
+            try {
+                Files.createDirectories(path.getParent());
+                if(lines > 2 * entries.size()) {
+                    this.compact(path);
+                }
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure opening %s to save checksums. %s", file, e.getMessage()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Rewrite file with current entries only
+     */
+    private void compact(final Path path) throws IOException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Compact %s with %d entries", file, entries.size()));
+        }
+        final Path temporary = path.resolveSibling(String.format("%s.tmp", path.getFileName()));
+        try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for(Map.Entry<String, Entry> entry : entries.entrySet()) {
+                final String absolute = entry.getKey().substring(entry.getKey().indexOf(DELIMITER) + 1);
+                out.write(line(absolute, entry.getValue().validator, entry.getValue().checksum));
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String key(final String path, final HashAlgorithm algorithm) {
+        return algorithm.name() + DELIMITER + path;
+    }
+
+    private static String line(final String path, final String validator, final Checksum checksum) {
+        return checksum.algorithm.name() + DELIMITER + checksum.hash + DELIMITER + validator + DELIMITER + path + '\n';
+    }
+
+    /**
+     * @return Size, modification date, change date and file key or null if attributes cannot be read
+     */
+    private static String validator(final Local local) {
+        try {
+            final Path path = Paths.get(local.getAbsolute());
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if(!attributes.isRegularFile()) {
+                return null;
+            }
+            final StringBuilder validator = new StringBuilder();
+            validator.append(attributes.size());
+            validator.append(':').append(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+            try {
+                // Modified when contents are written even if modification date is restored afterwards
+                final FileTime ctime = (FileTime) Files.getAttribute(path, "unix:ctime", LinkOption.NOFOLLOW_LINKS);
+                validator.append(':').append(ctime.to(TimeUnit.NANOSECONDS));
+            }
+            catch(UnsupportedOperationException | IllegalArgumentException e) {
+                // Not supported on this platform
+            }
+            if(attributes.fileKey() != null) {
+                validator.append(':').append(StringUtils.remove(attributes.fileKey().toString(), DELIMITER));
+            }
+            return validator.toString();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading attributes of %s. %s", local, e.getMessage()));
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        private final String validator;
+        private final Checksum checksum;
+
+        public Entry(final String validator, final Checksum checksum) {
+            this.validator = validator;
+            this.checksum = checksum;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LocalChecksumStore{");
+        sb.append("file=").append(file);
+        sb.append(", limit=").append(limit);
+        sb.append('}');
+        return sb.toString();
+    }
+}
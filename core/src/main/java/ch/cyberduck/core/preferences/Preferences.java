@@ -325,6 +325,19 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("browser.list.limit.directory", String.valueOf(5000));
         this.setDefault("browser.list.limit.container", String.valueOf(100));
+        /*
+          Concurrent connections to list directories recursively
+         */
+        this.setDefault("browser.list.concurrency", String.valueOf(5));
+        /*
+          Maximum number of directory listings retrieved in advance and not yet processed
+         */
+        this.setDefault("browser.list.lookahead", String.valueOf(100));
+        /*
+          Number of files deleted in a batch while still listing directories with stateless protocols. Set to 0 to
+          delete after the complete tree is listed
+         */
+        this.setDefault("delete.pipeline.size", String.valueOf(1000));
 
         this.setDefault("info.toolbar.selected", String.valueOf(0));
         this.setDefault("preferences.toolbar.selected", String.valueOf(0));
@@ -560,6 +573,24 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("queue.download.bandwidth.bytes", String.valueOf(-1));
 
+        /*
+         * Transfer files while still listing directories instead of preparing the complete tree in advance
+         */
+        this.setDefault("queue.pipeline.enable", String.valueOf(false));
+        /*
+         * Maximum number of files prepared but not yet transferred
+         */
+        this.setDefault("queue.pipeline.limit", String.valueOf(1000));
+        /*
+         * Maximum number of segments of large file uploads transferred concurrently for all transfers and per host
+         */
+        this.setDefault("queue.segments.limit", String.valueOf(32));
+        this.setDefault("queue.segments.limit.host", String.valueOf(16));
+        /*
+         * Number of files compared concurrently when synchronizing and maximum number of comparison results kept
+         */
+        this.setDefault("queue.sync.compare.concurrency", String.valueOf(Math.max(2, Runtime.getRuntime().availableProcessors())));
+        this.setDefault("queue.sync.compare.cache.size", String.valueOf(100000));
         /*
          * Concurrent connections for single transfer and maximum number of concurrent transfers in transfer list
          */
@@ -623,6 +654,10 @@ public abstract class Preferences implements Locales {
         this.setDefault("ftp.parser.multiline.strict", String.valueOf(false));
         this.setDefault("ftp.parser.reply.strict", String.valueOf(false));
         this.setDefault("ftp.parser.mlsd.perm.enable", String.valueOf(false));
+        /*
+          Number of lines parsed from directory listing before notifying listener
+         */
+        this.setDefault("ftp.listing.chunksize", String.valueOf(1000));
 
         /*
           Send LIST -a
@@ -680,11 +715,25 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("s3.url.expire.seconds", String.valueOf(24 * 60 * 60));
 
+        /*
+          Maximum number of connections per host. Allows concurrent listing, delete and upload requests to share the pool
+         */
+        this.setDefault("s3.connections.route", String.valueOf(25));
+
         this.setDefault("s3.listing.chunksize", String.valueOf(1000));
         this.setDefault("s3.listing.concurrency", String.valueOf(25));
+        /*
+          List all keys of directory trees for recursive operations with common prefixes listed concurrently
+         */
+        this.setDefault("s3.listing.recursive", String.valueOf(false));
 
         this.setDefault("s3.upload.multipart", String.valueOf(true));
         this.setDefault("s3.upload.multipart.concurrency", String.valueOf(10));
+        /*
+          Maximum total size in bytes of part buffers borrowed concurrently from the shared buffer pool to read parts only
+          once when computing the payload checksum. Parts are read twice from the file when the limit is reached
+         */
+        this.setDefault("s3.upload.multipart.buffer.limit", String.valueOf(128L * 1024L * 1024L));
         this.setDefault("s3.upload.multipart.partsize.minimum", String.valueOf(5L * 1024L * 1024L));
         /*
           Threshold in bytes. Only use multipart uploads for files more than 100MB
@@ -728,6 +777,10 @@ public abstract class Preferences implements Locales {
         this.setDefault("s3.lifecycle.delete.options", "1 7 10 30 60 180 360 720");
 
         this.setDefault("s3.delete.multiple.partition", String.valueOf(1000));
+        /*
+          Number of multiple object delete requests sent concurrently
+         */
+        this.setDefault("s3.delete.multiple.concurrency", String.valueOf(10));
 
         this.setDefault("azure.metadata.default", StringUtils.EMPTY);
         this.setDefault("azure.listing.chunksize", String.valueOf(1000));
@@ -756,14 +809,28 @@ public abstract class Preferences implements Locales {
         this.setDefault("openstack.upload.largeobject.cleanup", String.valueOf(true));
 
         this.setDefault("openstack.delete.multiple.partition", String.valueOf(10000));
+        this.setDefault("openstack.delete.multiple.concurrency", String.valueOf(4));
 
         this.setDefault("googledrive.list.limit", String.valueOf(1000));
         this.setDefault("googledrive.teamdrive.enable", String.valueOf(true));
         this.setDefault("googledrive.delete.trash", String.valueOf(true));
+        /*
+          Maximum number of requests in a single batch allowed by API
+         */
+        this.setDefault("googledrive.batch.size", String.valueOf(100));
+        this.setDefault("googledrive.batch.concurrency", String.valueOf(4));
+        /*
+          Number of retries for requests in batch exceeding rate limit
+         */
+        this.setDefault("googledrive.batch.retry", String.valueOf(5));
 
         this.setDefault("b2.bucket.acl.default", "allPrivate");
         this.setDefault("b2.listing.chunksize", String.valueOf(1000));
         this.setDefault("b2.upload.checksum.verify", String.valueOf(true));
+        /*
+          Number of file versions deleted concurrently
+         */
+        this.setDefault("b2.delete.concurrency", String.valueOf(10));
 
         this.setDefault("b2.upload.largeobject", String.valueOf(true));
         this.setDefault("b2.upload.largeobject.concurrency", String.valueOf(5));
@@ -813,6 +880,14 @@ public abstract class Preferences implements Locales {
         this.setDefault("webdav.redirect.PROPFIND.follow", String.valueOf(true));
 
         this.setDefault("webdav.metadata.default", StringUtils.EMPTY);
+        /*
+          Number of resources read from PROPFIND response before notifying listener
+         */
+        this.setDefault("webdav.listing.chunksize", String.valueOf(1000));
+        /*
+          List directory trees with PROPFIND depth infinity for recursive operations
+         */
+        this.setDefault("webdav.listing.recursive", String.valueOf(false));
 
         this.setDefault("analytics.provider.qloudstat.setup", "https://qloudstat.com/configuration/add");
         this.setDefault("analytics.provider.qloudstat.iam.policy",
@@ -961,6 +1036,20 @@ public abstract class Preferences implements Locales {
           Buffer size for wrapped buffered streams
          */
         this.setDefault("connection.buffer", String.valueOf(8192));
+        /*
+          Total size of transfer buffers retained for reuse
+         */
+        this.setDefault("connection.buffer.pool.limit", String.valueOf(64L * 1024L * 1024L));
+        /*
+          Persist checksums of local files to skip reading unchanged files
+         */
+        this.setDefault("local.checksum.cache.enable", String.valueOf(true));
+        this.setDefault("local.checksum.cache.size", String.valueOf(100000));
+        /*
+          Remember file ids of protocols addressing files by id. Save to disk to reuse in new sessions
+         */
+        this.setDefault("fileid.cache.size", String.valueOf(100000));
+        this.setDefault("fileid.cache.persist", String.valueOf(false));
         /*
           SO_SNDBUF
          */
@@ -1009,8 +1098,15 @@ public abstract class Preferences implements Locales {
         this.setDefault("ssh.algorithm.kex.blacklist", StringUtils.EMPTY);
         this.setDefault("ssh.algorithm.signature.blacklist", StringUtils.EMPTY);
 
+        /*
+          Initial number of unconfirmed requests adapted to measured bandwidth delay product within bounds
+         */
         this.setDefault("sftp.read.maxunconfirmed", String.valueOf(64));
+        this.setDefault("sftp.read.maxunconfirmed.minimum", String.valueOf(8));
+        this.setDefault("sftp.read.maxunconfirmed.maximum", String.valueOf(512));
         this.setDefault("sftp.write.maxunconfirmed", String.valueOf(64));
+        this.setDefault("sftp.write.maxunconfirmed.minimum", String.valueOf(8));
+        this.setDefault("sftp.write.maxunconfirmed.maximum", String.valueOf(512));
 
         this.setDefault("archive.default", "tar.gz");
 
@@ -1054,6 +1150,14 @@ public abstract class Preferences implements Locales {
 
         this.setDefault("cryptomator.enable", String.valueOf(true));
         this.setDefault("cryptomator.vault.autodetect", String.valueOf(true));
+        /*
+          Number of threads to encrypt and decrypt file content chunks in vaults. Run on caller thread if 1
+         */
+        this.setDefault("cryptomator.chunk.concurrency", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        /*
+          Number of concurrent requests to read metadata files when listing vaults with stateless protocols
+         */
+        this.setDefault("cryptomator.metadata.concurrency", String.valueOf(8));
     }
 
     protected void setLogging() {
@@ -18,20 +18,25 @@ package ch.cyberduck.core.synchronization;
  * feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.CaseInsensitivePathPredicate;
+import ch.cyberduck.core.DefaultPathPredicate;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.transfer.TransferItem;
 
 import org.apache.log4j.Logger;
 
-import java.util.Collections;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 public class CachingComparisonServiceFilter implements ComparePathFilter {
     private static final Logger log = Logger.getLogger(CachingComparisonServiceFilter.class);
 
-    private Map<TransferItem, Comparison> cache = Collections.emptyMap();
+    private ComparisonCache cache = new ComparisonCache();
 
     private final ComparisonServiceFilter delegate;
 
@@ -41,31 +46,69 @@ public class CachingComparisonServiceFilter implements ComparePathFilter {
 
     @Override
     public Comparison compare(final Path file, final Local local) throws BackgroundException {
-        if(!cache.containsKey(new TransferItem(file, local))) {
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Compare file %s", file));
+        final Comparison comparison = cache.compute(new TransferItem(file, local), new Callable<Comparison>() {
+            @Override
+            public Comparison call() throws BackgroundException {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Compare file %s", file));
+                }
+                return delegate.compare(file, local);
             }
-            cache.put(new TransferItem(file, local), delegate.compare(file, local));
-        }
-        final Comparison comparison = cache.get(new TransferItem(file, local));
+        });
         if(log.isDebugEnabled()) {
             log.debug(String.format("Return comparison %s for file %s", comparison, file));
         }
         return comparison;
     }
 
-    public Comparison get(final TransferItem item) {
-        if(cache.containsKey(item)) {
-            return cache.get(item);
+    /**
+     * Compare files of a directory in background. Remote attributes are taken from the directory listing and the
+     * server is never accessed from the background threads. Files that cannot be decided with the attributes in the
+     * listing are compared when requested with the connection of the caller.
+     *
+     * @param session  Connection to server
+     * @param list     Listing of remote directory or empty if missing on server
+     * @param children Files in directory
+     */
+    public void compare(final Session<?> session, final AttributedList<Path> list, final List<TransferItem> children) {
+        for(TransferItem item : children) {
+            Path found = list.find(new DefaultPathPredicate(item.remote));
+            if(null == found) {
+                // Match path only as the version might have changed in the meantime
+                found = list.find(session.getCase() == Session.Case.insensitive ?
+                    new CaseInsensitivePathPredicate(item.remote) : new SimplePathPredicate(item.remote));
+            }
+            final Path remote = found;
+            if(null != remote && !delegate.isListed(remote, item.local, remote.attributes())) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Missing attributes in listing to compare file %s", item.remote));
+                }
+                continue;
+            }
+            cache.submit(item, new Callable<Comparison>() {
+                @Override
+                public Comparison call() throws BackgroundException {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Compare file %s with remote %s", item.remote, remote));
+                    }
+                    if(null == remote) {
+                        return delegate.compare(item.remote, item.local, null);
+                    }
+                    return delegate.compare(item.remote, item.local, remote.attributes());
+                }
+            });
         }
-        return Comparison.unknown;
+    }
+
+    public Comparison get(final TransferItem item) {
+        return cache.get(item);
     }
 
     public void reset() {
         cache.clear();
     }
 
-    public CachingComparisonServiceFilter withCache(final Map<TransferItem, Comparison> cache) {
+    public CachingComparisonServiceFilter withCache(final ComparisonCache cache) {
         this.cache = cache;
         return this;
     }
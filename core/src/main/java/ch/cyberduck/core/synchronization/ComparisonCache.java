@@ -0,0 +1,221 @@
+package ch.cyberduck.core.synchronization;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Comparison results of a synchronization shared by concurrent prepare and transfer callables. Each file is only
+ * compared once. Comparisons submitted in advance run on a bounded pool. Results are discarded in insertion order
+ * when exceeding the maximum number of entries.
+ */
+public class ComparisonCache {
+    private static final Logger log = Logger.getLogger(ComparisonCache.class);
+
+    private final int size;
+    private final int concurrency;
+
+    private final Map<TransferItem, Comparison> results = new ConcurrentHashMap<>();
+    /**
+     * Keys of results in insertion order
+     */
+    private final Queue<TransferItem> order = new ConcurrentLinkedQueue<>();
+    /**
+     * Comparisons submitted or running
+     */
+    private final Map<TransferItem, FutureTask<Comparison>> running = new ConcurrentHashMap<>();
+
+    /**
+     * Guarded by this
+     */
+    private ThreadPool pool;
+
+    public ComparisonCache() {
+        this(PreferencesFactory.get().getInteger("queue.sync.compare.cache.size"),
+            PreferencesFactory.get().getInteger("queue.sync.compare.concurrency"));
+    }
+
+    /**
+     * @param size        Maximum number of results
+     * @param concurrency Number of comparisons running concurrently
+     */
+    public ComparisonCache(final int size, final int concurrency) {
+        this.size = size;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return Result or unknown if not compared yet
+     */
+    public Comparison get(final TransferItem item) {
+        final Comparison comparison = results.get(item);
+        if(null == comparison) {
+            return Comparison.unknown;
+        }
+        return comparison;
+    }
+
+    /**
+     * Return result or run comparison in calling thread. Waits for result if comparison is already running.
+     *
+     * @param item     File
+     * @param callable Comparison to run if no result is available
+     * @return Result of comparison
+     */
+    public Comparison compute(final TransferItem item, final Callable<Comparison> callable) throws BackgroundException {
+        final Comparison cached = results.get(item);
+        if(cached != null) {
+            return cached;
+        }
+        final FutureTask<Comparison> task = new ComparisonTask(item, callable);
+        final FutureTask<Comparison> existing = running.putIfAbsent(item, task);
+        if(null == existing) {
+            task.run();
+            return this.await(task);
+        }
+        // Run in calling thread if not yet started by pool. No operation when already running
+        existing.run();
+        return this.await(existing);
+    }
+
+    /**
+     * Submit comparison to run in background
+     *
+     * @param item     File
+     * @param callable Comparison to run if no result is available
+     */
+    public void submit(final TransferItem item, final Callable<Comparison> callable) {
+        if(results.containsKey(item)) {
+            return;
+        }
+        final FutureTask<Comparison> task = new ComparisonTask(item, callable);
+        if(null == running.putIfAbsent(item, task)) {
+            try {
+                this.pool().executor().execute(task);
+            }
+            catch(RejectedExecutionException e) {
+                log.warn(String.format("Failure submitting comparison for %s. %s", item, e.getMessage()));
+                running.remove(item, task);
+            }
+        }
+    }
+
+    /**
+     * Cancel pending comparisons and remove all results
+     */
+    public void clear() {
+        synchronized(this) {
+            if(pool != null) {
+                pool.shutdown(false);
+                pool = null;
+            }
+        }
+        for(Future<Comparison> task : running.values()) {
+            task.cancel(true);
+        }
+        running.clear();
+        results.clear();
+        order.clear();
+    }
+
+    private synchronized ThreadPool pool() {
+        if(null == pool) {
+            pool = ThreadPoolFactory.get("compare", concurrency);
+        }
+        return pool;
+    }
+
+    private Comparison await(final Future<Comparison> task) throws BackgroundException {
+        try {
+            return task.get();
+        }
+        catch(InterruptedException | CancellationException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+    }
+
+    private void put(final TransferItem item, final Comparison comparison) {
+        if(null == results.put(item, comparison)) {
+            order.add(item);
+            while(results.size() > size) {
+                final TransferItem eldest = order.poll();
+                if(null == eldest) {
+                    break;
+                }
+                results.remove(eldest);
+            }
+        }
+    }
+
+    private final class ComparisonTask extends FutureTask<Comparison> {
+        private final TransferItem item;
+
+        public ComparisonTask(final TransferItem item, final Callable<Comparison> callable) {
+            super(new Callable<Comparison>() {
+                @Override
+                public Comparison call() throws Exception {
+                    final Comparison comparison = callable.call();
+                    // Save result before removing from running comparisons
+                    put(item, comparison);
+                    return comparison;
+                }
+            });
+            this.item = item;
+        }
+
+        @Override
+        protected void done() {
+            running.remove(item, this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ComparisonCache{");
+        sb.append("size=").append(size);
+        sb.append(", concurrency=").append(concurrency);
+        sb.append(", results=").append(results.size());
+        sb.append(", running=").append(running.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -30,10 +30,9 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.local.LocalChecksumStore;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
-import ch.cyberduck.core.transfer.TransferStatus;
 
 import java.text.MessageFormat;
 import java.util.TimeZone;
@@ -82,42 +81,7 @@ public class ComparisonServiceFilter implements ComparePathFilter {
                     // Do not compare directories
                     return Comparison.equal;
                 }
-                final PathAttributes attributes = attribute.withCache(cache).find(file);
-                // We must always compare the size because the download filter will have already created a temporary 0 byte file
-                switch(size.compare(attributes, local.attributes())) {
-                    case remote:
-                        return Comparison.remote;
-                    case local:
-                        return Comparison.local;
-                }
-                if(Checksum.NONE != attributes.getChecksum()) {
-                    // MD5/ETag Checksum is supported
-                    progress.message(MessageFormat.format(LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
-                    local.attributes().setChecksum(ChecksumComputeFactory.get(attributes.getChecksum().algorithm)
-                        .compute(local.getInputStream(), new TransferStatus()));
-                    switch(checksum.compare(attributes, local.attributes())) {
-                        case equal:
-                            // Decision is available
-                            return Comparison.equal;
-                    }
-                }
-                // Continue to decide with timestamp when both files exist and are not zero bytes
-                // Default comparison is using timestamp of file.
-                final Comparison compare = timestamp.compare(attributes, local.attributes());
-                switch(compare) {
-                    case unknown:
-                        switch(size.compare(attributes, local.attributes())) {
-                            case local:
-                            case notequal:
-                                return Comparison.local;
-                            case remote:
-                                return Comparison.remote;
-                            default:
-                                return Comparison.equal;
-                        }
-                    default:
-                        return compare;
-                }
+                return this.compare(file, local, attribute.withCache(cache).find(file));
             }
             else {
                 // Only the local file exists
@@ -132,4 +96,86 @@ public class ComparisonServiceFilter implements ComparePathFilter {
             return Comparison.equal;
         }
     }
+
+    /**
+     * Protocols such as WebDAV or FTP do not return a checksum in directory listings and files of same size must then
+     * be compared with attributes looked up on the server.
+     *
+     * @param attributes Attributes of remote file from directory listing
+     * @return True if comparison can be decided with attributes from directory listing only
+     */
+    public boolean isListed(final Path file, final Local local, final PathAttributes attributes) {
+        if(file.isDirectory()) {
+            return true;
+        }
+        if(!local.exists()) {
+            return true;
+        }
+        switch(size.compare(attributes, local.attributes())) {
+            case remote:
+            case local:
+                // Decision is available
+                return true;
+        }
+        return Checksum.NONE != attributes.getChecksum() && -1L != attributes.getModificationDate();
+    }
+
+    /**
+     * Compare with attributes of remote file already retrieved. Does not access the server.
+     *
+     * @param attributes Attributes of remote file or null if missing on server
+     */
+    public Comparison compare(final Path file, final Local local, final PathAttributes attributes) throws BackgroundException {
+        if(local.exists()) {
+            if(null == attributes) {
+                // Only the local file exists
+                return Comparison.local;
+            }
+            if(file.isDirectory()) {
+                // Do not compare directories
+                return Comparison.equal;
+            }
+            // We must always compare the size because the download filter will have already created a temporary 0 byte file
+            switch(size.compare(attributes, local.attributes())) {
+                case remote:
+                    return Comparison.remote;
+                case local:
+                    return Comparison.local;
+            }
+            if(Checksum.NONE != attributes.getChecksum()) {
+                // MD5/ETag Checksum is supported
+                progress.message(MessageFormat.format(LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
+                local.attributes().setChecksum(LocalChecksumStore.get().compute(local, attributes.getChecksum().algorithm));
+                switch(checksum.compare(attributes, local.attributes())) {
+                    case equal:
+                        // Decision is available
+                        return Comparison.equal;
+                }
+            }
+            // Continue to decide with timestamp when both files exist and are not zero bytes
+            // Default comparison is using timestamp of file.
+            final Comparison compare = timestamp.compare(attributes, local.attributes());
+            switch(compare) {
+                case unknown:
+                    switch(size.compare(attributes, local.attributes())) {
+                        case local:
+                        case notequal:
+                            return Comparison.local;
+                        case remote:
+                            return Comparison.remote;
+                        default:
+                            return Comparison.equal;
+                    }
+                default:
+                    return compare;
+            }
+        }
+        else {
+            if(null == attributes) {
+                return Comparison.equal;
+            }
+            // Only the remote file exists
+            return Comparison.remote;
+        }
+    }
 }
@@ -0,0 +1,191 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.StringAppender;
+import ch.cyberduck.core.collections.Partition;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.apache.log4j.Logger;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Run partitions of a bulk request concurrently. A failed batch does not cancel other batches. Failures are reported
+ * for every item when all batches have completed. The failure thrown includes all other failures in its detail.
+ */
+public final class BatchExecutor {
+    private static final Logger log = Logger.getLogger(BatchExecutor.class);
+
+    /**
+     * Maximum number of failures listed in detail of failure thrown
+     */
+    private static final int MAXIMUM_REPORTED_FAILURES = 10;
+
+    private final String prefix;
+    private final int concurrency;
+
+    /**
+     * @param prefix      Thread name prefix
+     * @param concurrency Maximum number of batches running concurrently
+     */
+    public BatchExecutor(final String prefix, final int concurrency) {
+        this.prefix = prefix;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param items Items to process
+     * @param size  Maximum number of items in a batch
+     * @param batch Request for a single batch
+     * @throws BackgroundException Failure for first item in list that failed or first failure reported for an item
+     *                             not in list with all other failures in detail
+     */
+    public <T> void execute(final List<T> items, final int size, final Batch<T> batch) throws BackgroundException {
+        final Partition<T> partitions = new Partition<T>(items, size);
+        final Map<T, BackgroundException> failures = new LinkedHashMap<T, BackgroundException>();
+        if(concurrency <= 1 || partitions.size() <= 1) {
+            for(List<T> partition : partitions) {
+                failures.putAll(this.run(batch, partition));
+            }
+        }
+        else {
+            final ThreadPool pool = ThreadPoolFactory.get(prefix, concurrency);
+            boolean success = false;
+            try {
+                final List<Future<Map<T, BackgroundException>>> futures = new ArrayList<Future<Map<T, BackgroundException>>>();
+                for(final List<T> partition : partitions) {
+                    futures.add(pool.execute(new BackgroundExceptionCallable<Map<T, BackgroundException>>() {
+                        @Override
+                        public Map<T, BackgroundException> call() throws BackgroundException {
+                            return BatchExecutor.this.run(batch, partition);
+                        }
+                    }));
+                }
+                for(Future<Map<T, BackgroundException>> future : futures) {
+                    try {
+                        failures.putAll(future.get());
+                    }
+                    catch(InterruptedException e) {
+                        log.error("Batch failed with interrupt failure");
+                        throw new ConnectionCanceledException(e);
+                    }
+                    catch(ExecutionException e) {
+                        log.warn(String.format("Batch failed with execution failure %s", e.getMessage()));
+                        if(e.getCause() instanceof BackgroundException) {
+                            throw (BackgroundException) e.getCause();
+                        }
+                        throw new BackgroundException(e.getCause());
+                    }
+                }
+                success = true;
+            }
+            finally {
+                // Cancel pending batches on interrupt
+                pool.shutdown(success);
+            }
+        }
+        if(failures.isEmpty()) {
+            return;
+        }
+        for(Map.Entry<T, BackgroundException> failure : failures.entrySet()) {
+            log.warn(String.format("Failure %s for %s", failure.getValue(), failure.getKey()));
+        }
+        log.error(String.format("Failure for %d of %d items", failures.size(), items.size()));
+        BackgroundException first = null;
+        for(T item : items) {
+            if(failures.containsKey(item)) {
+                first = failures.get(item);
+                break;
+            }
+        }
+        if(null == first) {
+            // Failure reported for item not in list
+            first = failures.values().iterator().next();
+        }
+        // Failures reported for multiple items in batch are the same instance
+        final Set<BackgroundException> distinct = Collections.newSetFromMap(new IdentityHashMap<BackgroundException, Boolean>());
+        final List<BackgroundException> others = new ArrayList<BackgroundException>();
+        distinct.add(first);
+        for(BackgroundException failure : failures.values()) {
+            if(distinct.add(failure)) {
+                others.add(failure);
+            }
+        }
+        if(!others.isEmpty()) {
+            // Report all other failures with failure thrown
+            final StringAppender appender = new StringAppender();
+            appender.append(first.getDetail(false));
+            appender.append(MessageFormat.format(LocaleFactory.localizedString("{0} of {1} items failed", "Error"),
+                failures.size(), items.size()));
+            for(BackgroundException failure : others.subList(0, Math.min(others.size(), MAXIMUM_REPORTED_FAILURES))) {
+                appender.append(failure.getMessage());
+                appender.append(failure.getDetail(false));
+            }
+            if(others.size() > MAXIMUM_REPORTED_FAILURES) {
+                appender.append(MessageFormat.format(LocaleFactory.localizedString("{0} more failures", "Error"),
+                    others.size() - MAXIMUM_REPORTED_FAILURES));
+            }
+            first.setDetail(appender.toString());
+        }
+        throw first;
+    }
+
+    private <T> Map<T, BackgroundException> run(final Batch<T> batch, final List<T> partition) throws BackgroundException {
+        try {
+            return batch.run(partition);
+        }
+        catch(ConnectionCanceledException e) {
+            throw e;
+        }
+        catch(BackgroundException e) {
+            // Report failure for all items in batch
+            final Map<T, BackgroundException> failures = new LinkedHashMap<T, BackgroundException>();
+            for(T item : partition) {
+                failures.put(item, e);
+            }
+            return failures;
+        }
+    }
+
+    public interface Batch<T> {
+        /**
+         * @param items Items in batch
+         * @return Failures for items in batch. Empty if all items succeeded.
+         */
+        Map<T, BackgroundException> run(List<T> items) throws BackgroundException;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchExecutor{");
+        sb.append("prefix='").append(prefix).append('\'');
+        sb.append(", concurrency=").append(concurrency);
+        sb.append('}');
+        return sb.toString();
+    }
+}
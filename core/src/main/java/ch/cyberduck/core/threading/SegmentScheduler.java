@@ -0,0 +1,315 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide scheduler for segments of multipart uploads. Limits the number of segments transferred concurrently in
+ * total and per host. Segments of the file with the fewest segments running are scheduled first, and of these the
+ * segments of the smallest file.
+ */
+public final class SegmentScheduler {
+    private static final Logger log = Logger.getLogger(SegmentScheduler.class);
+
+    private static final SegmentScheduler instance = new SegmentScheduler(
+        PreferencesFactory.get().getInteger("queue.segments.limit"),
+        PreferencesFactory.get().getInteger("queue.segments.limit.host"));
+
+    public static SegmentScheduler get() {
+        return instance;
+    }
+
+    private final int limit;
+    private final int host;
+
+    /**
+     * Pools with segments pending. Guarded by this.
+     */
+    private final List<SegmentThreadPool> pending = new ArrayList<>();
+    /**
+     * Number of segments running per host. Guarded by this.
+     */
+    private final Map<String, Integer> hosts = new HashMap<>();
+    /**
+     * Number of segments running. Guarded by this.
+     */
+    private int running;
+
+    private Executor executor;
+
+    /**
+     * @param limit Maximum number of segments running
+     * @param host  Maximum number of segments running for a single host
+     */
+    public SegmentScheduler(final int limit, final int host) {
+        this.limit = limit;
+        this.host = host;
+    }
+
+    /**
+     * @param bookmark    Host segments are transferred to
+     * @param length      Size of file used to prioritize smaller files
+     * @param concurrency Maximum number of segments running for this file
+     * @return Pool to submit segments of a single file to
+     */
+    public ThreadPool pool(final Host bookmark, final long length, final int concurrency) {
+        return new SegmentThreadPool(bookmark.getHostname(), length, concurrency);
+    }
+
+    private synchronized void enqueue(final SegmentThreadPool pool, final Runnable command) {
+        if(pool.queue.isEmpty()) {
+            pending.add(pool);
+        }
+        pool.queue.add(command);
+        this.dispatch();
+    }
+
+    private synchronized void dequeue(final SegmentThreadPool pool, final List<Runnable> commands) {
+        commands.addAll(pool.queue);
+        pool.queue.clear();
+        pending.remove(pool);
+    }
+
+    private synchronized void complete(final SegmentThreadPool pool) {
+        running--;
+        pool.running--;
+        hosts.put(pool.host, hosts.get(pool.host) - 1);
+        this.dispatch();
+    }
+
+    /**
+     * Start pending segments until limit is reached
+     */
+    private void dispatch() {
+        while(running < limit) {
+            SegmentThreadPool next = null;
+            for(SegmentThreadPool pool : pending) {
+                if(pool.running >= pool.concurrency) {
+                    continue;
+                }
+                if(hosts.getOrDefault(pool.host, 0) >= host) {
+                    continue;
+                }
+                if(null == next
+                    || pool.running < next.running
+                    || pool.running == next.running && pool.length < next.length) {
+                    next = pool;
+                }
+            }
+            if(null == next) {
+                return;
+            }
+            final Runnable command = next.queue.poll();
+            if(next.queue.isEmpty()) {
+                pending.remove(next);
+            }
+            running++;
+            next.running++;
+            hosts.put(next.host, hosts.getOrDefault(next.host, 0) + 1);
+            this.executor().execute(next.wrap(command));
+        }
+    }
+
+    private Executor executor() {
+        if(null == executor) {
+            final AbstractExecutorService service = ThreadPoolFactory.get("segment", limit).executor();
+            if(service instanceof ThreadPoolExecutor) {
+                final ThreadPoolExecutor pool = (ThreadPoolExecutor) service;
+                if(pool.getKeepAliveTime(TimeUnit.SECONDS) > 0) {
+                    // Release idle threads when no transfers are running
+                    pool.allowCoreThreadTimeOut(true);
+                }
+            }
+            executor = service;
+        }
+        return executor;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentScheduler{");
+        sb.append("limit=").append(limit);
+        sb.append(", host=").append(host);
+        sb.append(", running=").append(running);
+        sb.append(", pending=").append(pending.size());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Segments of a single file
+     */
+    private final class SegmentThreadPool extends AbstractExecutorService implements ThreadPool {
+        private final String host;
+        private final long length;
+        private final int concurrency;
+
+        /**
+         * Segments not yet started. Guarded by scheduler.
+         */
+        private final Deque<Runnable> queue = new ArrayDeque<>();
+        /**
+         * Number of segments started and not yet completed. Guarded by scheduler.
+         */
+        private int running;
+
+        /**
+         * Threads running segments of this file. Guarded by this.
+         */
+        private final Set<Thread> threads = new HashSet<>();
+        private volatile boolean shutdown;
+
+        public SegmentThreadPool(final String host, final long length, final int concurrency) {
+            this.host = host;
+            this.length = length;
+            this.concurrency = concurrency;
+        }
+
+        private Runnable wrap(final Runnable command) {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    synchronized(SegmentThreadPool.this) {
+                        threads.add(Thread.currentThread());
+                    }
+                    try {
+                        command.run();
+                    }
+                    finally {
+                        synchronized(SegmentThreadPool.this) {
+                            threads.remove(Thread.currentThread());
+                            // Clear interrupt from shutdown before thread is reused for another file
+                            Thread.interrupted();
+                            SegmentThreadPool.this.notifyAll();
+                        }
+                        complete(SegmentThreadPool.this);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if(shutdown) {
+                throw new RejectedExecutionException(String.format("Pool %s is shutdown", this));
+            }
+            enqueue(this, command);
+        }
+
+        @Override
+        public <T> Future<T> execute(final Callable<T> command) {
+            return this.submit(command);
+        }
+
+        @Override
+        public void shutdown(final boolean gracefully) {
+            if(gracefully) {
+                this.shutdown();
+                try {
+                    while(!this.awaitTermination(1L, TimeUnit.SECONDS)) {
+                        log.warn(String.format("Await termination for pool %s", this));
+                    }
+                }
+                catch(InterruptedException e) {
+                    log.error(String.format("Failure awaiting pool termination. %s", e.getMessage()));
+                }
+            }
+            else {
+                this.shutdownNow();
+            }
+        }
+
+        @Override
+        public AbstractExecutorService executor() {
+            return this;
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            final List<Runnable> commands = new ArrayList<>();
+            dequeue(this, commands);
+            synchronized(this) {
+                for(Thread thread : threads) {
+                    thread.interrupt();
+                }
+            }
+            return commands;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            synchronized(SegmentScheduler.this) {
+                return shutdown && queue.isEmpty() && running == 0;
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while(!this.isTerminated()) {
+                final long remaining = deadline - System.nanoTime();
+                if(remaining <= 0) {
+                    return false;
+                }
+                synchronized(this) {
+                    TimeUnit.NANOSECONDS.timedWait(this, Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100L)));
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("SegmentThreadPool{");
+            sb.append("host='").append(host).append('\'');
+            sb.append(", length=").append(length);
+            sb.append(", concurrency=").append(concurrency);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -30,8 +30,11 @@ import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.ProgressListener;
+import ch.cyberduck.core.RecursiveListService;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.filter.DownloadDuplicateFilter;
@@ -51,6 +54,7 @@ import ch.cyberduck.core.transfer.download.OverwriteFilter;
 import ch.cyberduck.core.transfer.download.RenameExistingFilter;
 import ch.cyberduck.core.transfer.download.RenameFilter;
 import ch.cyberduck.core.transfer.download.ResumeFilter;
+import ch.cyberduck.core.transfer.download.SegmentJournal;
 import ch.cyberduck.core.transfer.download.SkipFilter;
 import ch.cyberduck.core.transfer.download.TrashFilter;
 import ch.cyberduck.core.transfer.normalizer.DownloadRootPathsNormalizer;
@@ -62,8 +66,11 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DownloadTransfer extends Transfer {
     private static final Logger log = Logger.getLogger(DownloadTransfer.class);
@@ -77,6 +84,15 @@ public class DownloadTransfer extends Transfer {
 
     private final DownloadSymlinkResolver symlinkResolver;
 
+    /**
+     * Roots of directory trees listed with a single request. Guarded by this.
+     */
+    private final Set<Path> trees = new HashSet<Path>();
+    /**
+     * List directory trees with single request if supported by session
+     */
+    private volatile boolean recursive = true;
+
     private DownloadFilterOptions options;
 
     public DownloadTransfer(final Host host, final Path root, final Local local) {
@@ -134,12 +150,15 @@ public class DownloadTransfer extends Transfer {
             return Collections.emptyList();
         }
         else {
-            final AttributedList<Path> list;
+            AttributedList<Path> list;
             if(cache.isCached(directory)) {
                 list = cache.get(directory);
             }
             else {
-                list = session.getFeature(ListService.class).list(directory, listener);
+                list = this.walk(session, directory, listener);
+                if(null == list) {
+                    list = session.getFeature(ListService.class).list(directory, listener);
+                }
                 cache.put(directory, list);
             }
             final List<TransferItem> children = new ArrayList<TransferItem>();
@@ -151,6 +170,51 @@ public class DownloadTransfer extends Transfer {
         }
     }
 
+    /**
+     * List directory tree with a single request and add listings of all descendants to the cache. Listings evicted
+     * from the cache before they are requested are listed again.
+     *
+     * @return Listing of directory or null if not supported or directory is within a tree listed before
+     */
+    private AttributedList<Path> walk(final Session<?> session, final Path directory, final ListProgressListener listener) throws BackgroundException {
+        if(!recursive) {
+            return null;
+        }
+        final RecursiveListService feature = session.getFeature(RecursiveListService.class);
+        if(null == feature) {
+            recursive = false;
+            return null;
+        }
+        synchronized(this) {
+            for(Path tree : trees) {
+                if(directory.equals(tree) || directory.isChild(tree)) {
+                    // Already listed before
+                    return null;
+                }
+            }
+            trees.add(directory);
+        }
+        final AtomicReference<AttributedList<Path>> root = new AtomicReference<AttributedList<Path>>();
+        try {
+            feature.walk(directory, filter, listener, new RecursiveListService.Callback() {
+                @Override
+                public void complete(final Path folder, final AttributedList<Path> children) {
+                    if(folder.equals(directory)) {
+                        root.set(children);
+                    }
+                    else {
+                        cache.put(folder, children);
+                    }
+                }
+            });
+        }
+        catch(UnsupportedException e) {
+            log.warn(String.format("Failure %s listing tree %s. Fallback to list directories", e, directory));
+            recursive = false;
+        }
+        return root.get();
+    }
+
     @Override
     public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
         final DownloadFilterOptions o = (null == options ? new DownloadFilterOptions() : options);
@@ -228,6 +292,9 @@ public class DownloadTransfer extends Transfer {
     @Override
     public void stop() {
         cache.clear();
+        synchronized(this) {
+            trees.clear();
+        }
         super.stop();
     }
 
@@ -277,13 +344,26 @@ public class DownloadTransfer extends Transfer {
             }
             // Transfer
             final Download download = source.getFeature(Download.class);
-            download.download(file, local, bandwidth, new IconUpdateSreamListener(streamListener, status, local) {
-                @Override
-                public void recv(final long bytes) {
-                    addTransferred(bytes);
-                    super.recv(bytes);
+            try {
+                download.download(file, local, bandwidth, new IconUpdateSreamListener(streamListener, status, local) {
+                    @Override
+                    public void recv(final long bytes) {
+                        addTransferred(bytes);
+                        super.recv(bytes);
+                    }
+                }, status, connectionCallback);
+            }
+            finally {
+                if(status.isSegment() && !status.isComplete()) {
+                    try {
+                        // Record offset written to resume interrupted segment
+                        new SegmentJournal(local).add(status.getPart(), status.getOffset());
+                    }
+                    catch(AccessDeniedException e) {
+                        log.warn(String.format("Failure recording progress of segment %s. %s", status, e.getMessage()));
+                    }
                 }
-            }, status, connectionCallback);
+            }
         }
         else if(file.isDirectory()) {
             if(!status.isExists()) {
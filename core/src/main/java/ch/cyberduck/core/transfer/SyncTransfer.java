@@ -37,10 +37,10 @@ import ch.cyberduck.core.serializer.Serializer;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.synchronization.CachingComparisonServiceFilter;
 import ch.cyberduck.core.synchronization.Comparison;
+import ch.cyberduck.core.synchronization.ComparisonCache;
 import ch.cyberduck.core.synchronization.ComparisonServiceFilter;
 import ch.cyberduck.core.transfer.synchronisation.SynchronizationPathFilter;
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
@@ -64,7 +64,7 @@ public class SyncTransfer extends Transfer {
      */
     private Transfer download;
 
-    private CachingComparisonServiceFilter comparison;
+    private volatile CachingComparisonServiceFilter comparison;
 
     private TransferAction action;
 
@@ -73,8 +73,7 @@ public class SyncTransfer extends Transfer {
     private Cache<Path> cache
         = new PathCache(PreferencesFactory.get().getInteger("transfer.cache.size"));
 
-    private final Map<TransferItem, Comparison> comparisons = Collections.synchronizedMap(new LRUMap<TransferItem, Comparison>(
-        PreferencesFactory.get().getInteger("transfer.cache.size")));
+    private final ComparisonCache comparisons = new ComparisonCache();
 
     public SyncTransfer(final Host host, final TransferItem item) {
         this(host, item, TransferAction.callback);
@@ -192,13 +191,24 @@ public class SyncTransfer extends Transfer {
         }
         final Set<TransferItem> children = new HashSet<TransferItem>();
         final Find finder = session.getFeature(Find.class, new DefaultFindFeature(session)).withCache(cache);
+        final AttributedList<Path> list;
         if(finder.find(directory)) {
             children.addAll(download.list(session, directory, local, listener));
+            list = cache.isCached(directory) ? cache.get(directory) : null;
+        }
+        else {
+            list = AttributedList.emptyList();
         }
         if(local.exists()) {
             children.addAll(upload.list(session, directory, local, listener));
         }
-        return new ArrayList<TransferItem>(children);
+        final List<TransferItem> result = new ArrayList<TransferItem>(children);
+        final CachingComparisonServiceFilter comparison = this.comparison;
+        if(null != comparison && null != list) {
+            // Compare children in background with remote attributes from directory listing
+            comparison.compare(session, list, result);
+        }
+        return result;
     }
 
     @Override
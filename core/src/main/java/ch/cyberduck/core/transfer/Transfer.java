@@ -68,6 +68,10 @@ public abstract class Transfer implements Serializable {
     private AtomicLong transferred;
 
     private final Map<Local, Object> locks = new HashMap<>();
+    /**
+     * Number of calls to pre-processing not yet followed by post-processing. Guarded by locks.
+     */
+    private int pending;
 
     public abstract Type getType();
 
@@ -316,15 +320,23 @@ public abstract class Transfer implements Serializable {
      * @param callback    Prompt
      */
     public void pre(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
-        for(TransferItem item : roots) {
-            switch(this.getType()) {
-                case download:
-                    final Local directory = item.local.getParent();
-                    locks.put(directory, directory.lock(true));
-                    break;
-                case upload:
-                    locks.put(item.local, item.local.lock(true));
-                    break;
+        synchronized(locks) {
+            pending++;
+            for(TransferItem item : roots) {
+                switch(this.getType()) {
+                    case download:
+                        final Local directory = item.local.getParent();
+                        // May be called multiple times when files are transferred while preparing
+                        if(!locks.containsKey(directory)) {
+                            locks.put(directory, directory.lock(true));
+                        }
+                        break;
+                    case upload:
+                        if(!locks.containsKey(item.local)) {
+                            locks.put(item.local, item.local.lock(true));
+                        }
+                        break;
+                }
             }
         }
     }
@@ -336,18 +348,24 @@ public abstract class Transfer implements Serializable {
      * @param callback    Prompt
      */
     public void post(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
-        for(Iterator<Map.Entry<Local, Object>> iter = locks.entrySet().iterator(); iter.hasNext(); ) {
-            final Map.Entry<Local, Object> entry = iter.next();
-            switch(this.getType()) {
-                case download:
-                    final Local directory = entry.getKey().getParent();
-                    directory.release(entry.getValue());
-                    break;
-                case upload:
-                    entry.getKey().release(entry.getValue());
-                    break;
+        synchronized(locks) {
+            if(pending > 0 && --pending > 0) {
+                // Files of other batches still in progress when transferred while preparing
+                return;
+            }
+            for(Iterator<Map.Entry<Local, Object>> iter = locks.entrySet().iterator(); iter.hasNext(); ) {
+                final Map.Entry<Local, Object> entry = iter.next();
+                switch(this.getType()) {
+                    case download:
+                        final Local directory = entry.getKey().getParent();
+                        directory.release(entry.getValue());
+                        break;
+                    case upload:
+                        entry.getKey().release(entry.getValue());
+                        break;
+                }
+                iter.remove();
             }
-            iter.remove();
         }
     }
 
@@ -399,6 +417,10 @@ public abstract class Transfer implements Serializable {
         transferred = null;
         size = null;
         reset = true;
+        synchronized(locks) {
+            // Previous run not completed with post-processing
+            pending = 0;
+        }
     }
 
     /**
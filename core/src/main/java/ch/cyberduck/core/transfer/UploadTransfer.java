@@ -17,6 +17,7 @@ package ch.cyberduck.core.transfer;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Filter;
@@ -131,8 +132,13 @@ public class UploadTransfer extends Transfer {
                 return Collections.emptyList();
             }
         }
+        final AttributedList<Local> list = directory.list();
+        for(Local local : list) {
+            // Read attributes once for filter and transfer status
+            local.refresh();
+        }
         final List<TransferItem> children = new ArrayList<TransferItem>();
-        for(Local local : directory.list().filter(comparator, filter)) {
+        for(Local local : list.filter(comparator, filter)) {
             children.add(new TransferItem(new Path(remote, local.getName(),
                     local.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file)), local));
         }
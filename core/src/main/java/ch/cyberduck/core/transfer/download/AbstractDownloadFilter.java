@@ -37,12 +37,12 @@ import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.ChecksumCompute;
-import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.local.ApplicationLauncher;
 import ch.cyberduck.core.local.ApplicationLauncherFactory;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
 import ch.cyberduck.core.local.IconService;
 import ch.cyberduck.core.local.IconServiceFactory;
+import ch.cyberduck.core.local.LocalChecksumStore;
 import ch.cyberduck.core.local.QuarantineService;
 import ch.cyberduck.core.local.QuarantineServiceFactory;
 import ch.cyberduck.core.preferences.Preferences;
@@ -59,7 +59,6 @@ import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 public abstract class AbstractDownloadFilter implements TransferPathFilter {
@@ -212,21 +211,18 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                             status.getLength() / preferences.getInteger("queue.connections.limit"));
                         // Sorted list
                         final List<TransferStatus> segments = new ArrayList<TransferStatus>();
-                        final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
                         for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
-                                segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
-                            boolean skip = false;
                             // Last part can be less than 5 MB. Adjust part size.
                             Long length = Math.min(partsize, remaining);
+                            // Segment is written to target file at offset
                             final TransferStatus segmentStatus = new TransferStatus()
                                 .segment(true)
                                 .append(true)
                                 .skip(offset)
-                                .length(length)
-                                .rename(segmentFile);
+                                .length(length);
+                            segmentStatus.setPart(segmentNumber);
                             if(log.isDebugEnabled()) {
-                                log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                log.debug(String.format("Adding status %s for segment %d", segmentStatus, segmentNumber));
                             }
                             segments.add(segmentStatus);
                             remaining -= length;
@@ -246,7 +242,31 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(file.isFile() && !status.isSegment()) {
+            // Checksum saved for previous contents
+            LocalChecksumStore.get().remove(local);
+        }
+        if(status.isSegmented()) {
+            final List<TransferStatus> segments = status.getSegments();
+            final TransferStatus last = segments.get(segments.size() - 1);
+            final long length = last.getOffset() + last.getLength();
+            final Local folder = local.getParent();
+            if(!folder.exists()) {
+                new DefaultLocalDirectoryFeature().mkdir(folder);
+            }
+            for(TransferStatus segment : segments) {
+                // Write segment to resolved target which may differ from the original file when renamed
+                segment.rename(local);
+            }
+            if(!status.isAppend()) {
+                // Start new journal for download unless resuming segments written before
+                new SegmentJournal(local).create(length, segments.get(0).getLength());
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Allocate %d bytes for segmented download to %s", length, local));
+            }
+            local.allocate(length);
+        }
     }
 
     /**
@@ -260,42 +280,21 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             log.debug(String.format("Complete %s with status %s", file.getAbsolute(), status));
         }
         if(status.isSegment()) {
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Skip completion for single segment %s", status));
+            if(status.isComplete()) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Record completion of segment %s", status));
+                }
+                new SegmentJournal(local).add(status.getPart(), status.getOffset());
             }
             return;
         }
         else {
             if(status.isComplete()) {//todo check if else
                 if(status.isSegmented()) {
-                    // Obtain ordered list of segments to reassemble
-                    final List<TransferStatus> segments = status.getSegments();
                     if(log.isInfoEnabled()) {
-                        log.info(String.format("Compile %d segments to file %s", segments.size(), local));
-                    }
-                    if(local.exists()) {
-                        local.delete();
-                    }
-                    for(Iterator<TransferStatus> iterator = segments.iterator(); iterator.hasNext(); ) {
-                        final TransferStatus segmentStatus = iterator.next();
-                        // Segment
-                        final Local segmentFile = segmentStatus.getRename().local;
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Append segment %s to %s", segmentFile, local));
-                        }
-                        segmentFile.copy(local, new Local.CopyOptions().append(true));
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Delete segment %s", segmentFile));
-                        }
-                        segmentFile.delete();
-                        if(!iterator.hasNext()) {
-                            final Local folder = segmentFile.getParent();
-                            if(log.isInfoEnabled()) {
-                                log.info(String.format("Remove segment folder %s", folder));
-                            }
-                            folder.delete();
-                        }
+                        log.info(String.format("Completed %d segments of file %s", status.getSegments().size(), local));
                     }
+                    new SegmentJournal(local).delete();
                 }
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Run completion for file %s with status %s", local, status));
@@ -366,10 +365,9 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                         else {
                             final Checksum checksum = status.getChecksum();
                             if(Checksum.NONE != checksum) {
-                                final ChecksumCompute compute = ChecksumComputeFactory.get(checksum.algorithm);
                                 listener.message(MessageFormat.format(LocaleFactory.localizedString("Calculate checksum for {0}", "Status"),
                                     file.getName()));
-                                final Checksum download = compute.compute(local.getInputStream(), new TransferStatus());
+                                final Checksum download = LocalChecksumStore.get().compute(local, checksum.algorithm);
                                 if(!checksum.equals(download)) {
                                     throw new ChecksumException(
                                         MessageFormat.format(LocaleFactory.localizedString("Download {0} failed", "Error"), file.getName()),
@@ -386,6 +384,10 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                             log.info(String.format("Rename file %s to %s", file, status.getDisplayname().local));
                         }
                         local.rename(status.getDisplayname().local);
+                        if(this.options.checksum && !file.getType().contains(Path.Type.decrypted) && Checksum.NONE != status.getChecksum()) {
+                            // Verified checksum of renamed file
+                            LocalChecksumStore.get().put(status.getDisplayname().local, status.getChecksum());
+                        }
                     }
                     if(options.open) {
                         launcher.open(local);
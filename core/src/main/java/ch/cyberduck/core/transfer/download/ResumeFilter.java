@@ -25,13 +25,15 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.ChecksumCompute;
-import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.local.LocalChecksumStore;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.util.List;
+import java.util.Map;
+
 public class ResumeFilter extends AbstractDownloadFilter {
     private static final Logger log = Logger.getLogger(ResumeFilter.class);
 
@@ -55,13 +57,16 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(local.isFile()) {
+            if(new SegmentJournal(local).exists()) {
+                // Segmented download not completed
+                return super.accept(file, local, parent);
+            }
             if(local.exists()) {
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
                 if(local.attributes().getSize() == attributes.getSize()) {
                     if(Checksum.NONE != attributes.getChecksum()) {
-                        final ChecksumCompute compute = ChecksumComputeFactory.get(attributes.getChecksum().algorithm);
-                        if(compute.compute(local.getInputStream(), parent).equals(attributes.getChecksum())) {
+                        if(LocalChecksumStore.get().compute(local, attributes.getChecksum().algorithm).equals(attributes.getChecksum())) {
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Skip file %s with checksum %s", file, local.attributes().getChecksum()));
                             }
@@ -88,22 +93,33 @@ public class ResumeFilter extends AbstractDownloadFilter {
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
         if(status.isSegmented()) {
-            for(TransferStatus segmentStatus : status.getSegments()) {
-                final Local segmentFile = segmentStatus.getRename().local;
-                if(segmentFile.exists()) {
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Determine if part %s can be skipped", segmentStatus));
+            final List<TransferStatus> segments = status.getSegments();
+            final TransferStatus last = segments.get(segments.size() - 1);
+            final Map<Integer, Long> written = new SegmentJournal(local).read(
+                last.getOffset() + last.getLength(), segments.get(0).getLength());
+            if(local.isFile()) {
+                for(TransferStatus segmentStatus : segments) {
+                    final Long offset = written.get(segmentStatus.getPart());
+                    if(null == offset || offset <= segmentStatus.getOffset()) {
+                        continue;
                     }
-                    if(segmentFile.attributes().getSize() > 0) {
-                        segmentStatus.setAppend(true);
-                        segmentStatus.setLength(segmentStatus.getLength() - segmentFile.attributes().getSize());
-                        segmentStatus.setOffset(segmentStatus.getOffset() + segmentFile.attributes().getSize());
-                        if(segmentStatus.getLength() == 0L) {
-                            segmentStatus.setComplete();
+                    final long end = segmentStatus.getOffset() + segmentStatus.getLength();
+                    // Recalculate transfer length
+                    status.setAppend(true);
+                    if(offset >= end) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Skip completed part %s", segmentStatus));
+                        }
+                        segmentStatus.setComplete();
+                        status.setLength(status.getLength() - segmentStatus.getLength());
+                    }
+                    else {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Resume part %s at offset %d", segmentStatus, offset));
                         }
-                        // Recalculate transfer length
-                        status.setAppend(true);
-                        status.setLength(status.getLength() - segmentFile.attributes().getSize());
+                        status.setLength(status.getLength() - (offset - segmentStatus.getOffset()));
+                        segmentStatus.setLength(end - offset);
+                        segmentStatus.setOffset(offset);
                     }
                 }
             }
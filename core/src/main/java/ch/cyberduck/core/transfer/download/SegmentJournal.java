@@ -0,0 +1,159 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the progress of segments of a download written in place to the target file. The first line holds the
+ * length of the file and the size of segments, followed by the number of a segment and the offset in the file up to
+ * which it is written.
+ */
+public final class SegmentJournal {
+    private static final Logger log = Logger.getLogger(SegmentJournal.class);
+
+    private static final Object lock = new Object();
+
+    private final Local file;
+    /**
+     * Folder with segment files written by previous versions
+     */
+    private final Local legacy;
+
+    /**
+     * @param local Download target
+     */
+    public SegmentJournal(final Local local) {
+        this.file = LocalFactory.get(local.getParent(), String.format("%s.cyberduckjournal", local.getName()));
+        this.legacy = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
+    }
+
+    public boolean exists() {
+        return file.isFile();
+    }
+
+    /**
+     * Start journal discarding any previous records and segments left by previous versions
+     *
+     * @param length   Size of file
+     * @param partsize Size of segments
+     */
+    public void create(final long length, final long partsize) throws AccessDeniedException {
+        if(legacy.isDirectory()) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Delete segments folder %s of previous version", legacy));
+            }
+            try {
+                for(Local segment : legacy.list()) {
+                    segment.delete();
+                }
+                legacy.delete();
+            }
+            catch(NotfoundException e) {
+                log.warn(String.format("Segments folder %s already deleted", legacy));
+            }
+        }
+        this.write(String.format("%d\t%d", length, partsize), false);
+    }
+
+    /**
+     * @param part   Number of segment
+     * @param offset Offset in file up to which segment is written
+     */
+    public void add(final int part, final long offset) throws AccessDeniedException {
+        this.write(String.format("%d\t%d", part, offset), true);
+    }
+
+    /**
+     * @param length   Size of file
+     * @param partsize Size of segments
+     * @return Offset in file up to which each segment is written by number of segment. Empty if there is no journal or
+     * it was written for a different file length or segment size.
+     */
+    public Map<Integer, Long> read(final long length, final long partsize) {
+        final Map<Integer, Long> parts = new HashMap<>();
+        if(!this.exists()) {
+            return parts;
+        }
+        try (InputStream in = file.getInputStream()) {
+            final List<String> lines = IOUtils.readLines(in, StandardCharsets.UTF_8);
+            if(lines.isEmpty() || !String.format("%d\t%d", length, partsize).equals(lines.get(0))) {
+                log.warn(String.format("Ignore journal %s not matching length %d and segment size %d", file, length, partsize));
+                return parts;
+            }
+            for(String line : lines.subList(1, lines.size())) {
+                final String part = StringUtils.substringBefore(line, "\t");
+                final String offset = StringUtils.substringAfter(line, "\t");
+                if(StringUtils.isNumeric(part) && StringUtils.isNumeric(offset)) {
+                    final Long previous = parts.get(Integer.valueOf(part));
+                    if(null == previous || previous < Long.valueOf(offset)) {
+                        parts.put(Integer.valueOf(part), Long.valueOf(offset));
+                    }
+                }
+            }
+        }
+        catch(AccessDeniedException | IOException | NumberFormatException e) {
+            log.warn(String.format("Failure reading journal %s. %s", file, e.getMessage()));
+        }
+        return parts;
+    }
+    public void delete() throws AccessDeniedException {
+        if(this.exists()) {
+            try {
+                file.delete();
+            }
+            catch(NotfoundException e) {
+                log.warn(String.format("Journal %s already deleted", file));
+            }
+        }
+    }
+
+    private void write(final String line, final boolean append) throws AccessDeniedException {
+        // Segments complete concurrently
+        synchronized(lock) {
+            try (OutputStream out = file.getOutputStream(append)) {
+                out.write(String.format("%s%n", line).getBytes(StandardCharsets.UTF_8));
+            }
+            catch(IOException e) {
+                throw new LocalAccessDeniedException(e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentJournal{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -48,7 +48,9 @@ import ch.cyberduck.core.features.Redundancy;
 import ch.cyberduck.core.features.Timestamp;
 import ch.cyberduck.core.features.UnixPermission;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumCompute;
+import ch.cyberduck.core.local.LocalChecksumStore;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
@@ -351,6 +353,13 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
                 }
             }
             if(file.isFile()) {
+                if(this.options.checksum && Checksum.NONE != status.getChecksum()) {
+                    // Skip checksum of partial contents or computed for encrypted contents with client side encryption
+                    if(0L == status.getOffset() && status.getLength() == local.attributes().getSize() && null == status.getHeader()) {
+                        // Checksum of uploaded file verified by server
+                        LocalChecksumStore.get().put(local, status.getChecksum());
+                    }
+                }
                 if(this.options.temporary) {
                     final Move move = session.getFeature(Move.class);
                     if(log.isInfoEnabled()) {
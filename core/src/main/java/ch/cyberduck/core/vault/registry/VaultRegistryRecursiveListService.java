@@ -0,0 +1,81 @@
+package ch.cyberduck.core.vault.registry;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.UnsupportedException;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+import ch.cyberduck.core.vault.VaultRegistry;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Decline listing of trees containing a vault as contents must be decrypted
+ */
+public class VaultRegistryRecursiveListService implements RecursiveListService {
+    private static final Logger log = Logger.getLogger(VaultRegistryRecursiveListService.class);
+
+    private final Session<?> session;
+    private final RecursiveListService proxy;
+    private final VaultRegistry registry;
+
+    public VaultRegistryRecursiveListService(final Session<?> session, final RecursiveListService proxy, final VaultRegistry registry) {
+        this.session = session;
+        this.proxy = proxy;
+        this.registry = registry;
+    }
+
+    /**
+     * Listings passed before a vault is found in the tree are not decrypted. Contents of vaults are listed again with
+     * paths decrypted.
+     */
+    @Override
+    public void walk(final Path directory, final Filter<Path> filter, final ListProgressListener listener, final Callback callback) throws BackgroundException {
+        if(registry.find(session, directory).contains(directory)) {
+            throw new UnsupportedException(String.format("Directory %s is in vault", directory.getAbsolute()));
+        }
+        proxy.walk(directory, filter, listener, new Callback() {
+            @Override
+            public void complete(final Path folder, final AttributedList<Path> children) throws BackgroundException {
+                if(registry.contains(folder)) {
+                    throw new UnsupportedException(String.format("Found vault %s", folder.getAbsolute()));
+                }
+                for(Path file : children) {
+                    if(DefaultVaultRegistry.DEFAULT_MASTERKEY_FILE_NAME.equals(file.getName())) {
+                        log.warn(String.format("Discard listing of %s with vault in %s", directory, folder));
+                        throw new UnsupportedException(String.format("Found vault %s", folder.getAbsolute()));
+                    }
+                }
+                callback.complete(folder, children);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("VaultRegistryRecursiveListService{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
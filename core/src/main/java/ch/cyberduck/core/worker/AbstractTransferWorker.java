@@ -37,6 +37,7 @@ import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.TransferCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
@@ -54,10 +55,19 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private static final Logger log = Logger.getLogger(AbstractTransferWorker.class);
@@ -78,7 +88,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private final TransferOptions options;
     private final TransferSpeedometer meter;
     /**
-     * Transfer status determined by filters
+     * Transfer status determined by filters. Only files not yet transferred are retained when transferring while
+     * preparing.
      */
     private final Map<TransferItem, TransferStatus> table;
     /**
@@ -87,6 +98,14 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private final Cache<TransferItem> cache;
     private final ProgressListener progress;
     private final StreamListener stream;
+    /**
+     * Number of files with transfer status determined
+     */
+    private final AtomicLong prepared = new AtomicLong();
+    /**
+     * Walk of transfer tree when transferring files while preparing. Null if all files are prepared in advance.
+     */
+    private Pipeline pipeline;
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
@@ -215,19 +234,30 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"), transfer.getName(), action.getTitle()));
             transfer.normalize();
 
-            // Calculate information about the files in advance to give progress information
-            for(TransferItem next : transfer.getRoots()) {
-                this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+            if(PreferencesFactory.get().getBoolean("queue.pipeline.enable")) {
+                meter.reset();
+                pipeline = new Pipeline(action, PreferencesFactory.get().getInteger("queue.pipeline.limit"));
+                // Prepare and transfer files while walking the tree
+                pipeline.push(transfer.getRoots(), new TransferStatus().exists(true));
+                pipeline.fill();
+                this.await();
+                // Post-processing done for each batch
             }
-            this.await();
-            meter.reset();
-            transfer.pre(source, destination, table, connectionCallback);
-            // Transfer all files sequentially
-            for(TransferItem next : transfer.getRoots()) {
-                this.transfer(next, action);
+            else {
+                // Calculate information about the files in advance to give progress information
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+                }
+                this.await();
+                meter.reset();
+                transfer.pre(source, destination, table, connectionCallback);
+                // Transfer all files sequentially
+                for(TransferItem next : transfer.getRoots()) {
+                    this.transfer(next, action);
+                }
+                this.await();
+                transfer.post(source, destination, table, connectionCallback);
             }
-            this.await();
-            transfer.post(source, destination, table, connectionCallback);
         }
         finally {
             this.release(source, Connection.source, null);
@@ -240,6 +270,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             sleep.release(lock);
             table.clear();
             cache.clear();
+            prepared.set(0L);
         }
         return true;
     }
@@ -274,6 +305,9 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Skip file %s by filter %s for transfer %s", file, filter, this));
                             }
+                            if(null != pipeline) {
+                                pipeline.prepared(new TransferItem(file, local), null, source, destination);
+                            }
                             return null;
                         }
                         else {
@@ -286,6 +320,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             // Determine transfer status
                             final TransferStatus status = filter.prepare(file, local, parent, progress);
                             table.put(new TransferItem(file, local), status);
+                            prepared.incrementAndGet();
                             final TransferItem item = new TransferItem(
                                 status.getRename().remote != null ? status.getRename().remote : file,
                                 status.getRename().local != null ? status.getRename().local : local
@@ -303,15 +338,21 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 children = transfer.list(source, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
                                 // Put into cache for later reference when transferring
                                 cache.put(item, new AttributedList<TransferItem>(children));
-                                // Call recursively
-                                for(TransferItem f : children) {
-                                    // Change download path relative to parent local folder
-                                    prepare(f.remote, f.local, status, action);
+                                if(null == pipeline) {
+                                    // Call recursively
+                                    for(TransferItem f : children) {
+                                        // Change download path relative to parent local folder
+                                        prepare(f.remote, f.local, status, action);
+                                    }
                                 }
                             }
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Determined transfer status %s of %s for transfer %s", status, file, this));
                             }
+                            if(null != pipeline) {
+                                // Transfer without waiting for files not in the same batch to be prepared
+                                pipeline.prepared(new TransferItem(file, local), status, source, destination);
+                            }
                             return status;
                         }
                     }
@@ -323,7 +364,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             // Retry immediately
                             return call();
                         }
-                        if(table.size() == 0) {
+                        if(prepared.get() == 0) {
                             // Fail fast when first item in queue fails preparing
                             throw e;
                         }
@@ -331,6 +372,9 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         else if(error.prompt(new TransferItem(file, local), parent, e)) {
                             // Continue
                             log.warn(String.format("Ignore transfer failure %s", e));
+                            if(null != pipeline) {
+                                pipeline.prepared(new TransferItem(file, local), null, source, destination);
+                            }
                             return null;
                         }
                         else {
@@ -355,6 +399,17 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         }
         else {
             log.info(String.format("Skip unchecked file %s for transfer %s", file, this));
+            if(null != pipeline) {
+                final Session<?> source = this.borrow(Connection.source);
+                final Session<?> destination = this.borrow(Connection.destination);
+                try {
+                    pipeline.prepared(new TransferItem(file, local), null, source, destination);
+                }
+                finally {
+                    this.release(source, Connection.source, null);
+                    this.release(destination, Connection.destination, null);
+                }
+            }
         }
         return null;
     }
@@ -372,10 +427,13 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             final TransferStatus status = table.get(item);
             // Handle submit of one or more segments
             final List<TransferStatus> segments = status.getSegments();
+            // Number of callables pending for this item including the final one
+            final AtomicInteger pending = new AtomicInteger(1);
             for(final TransferStatus segment : segments) {
                 if(segment.isComplete()) {
                     continue;
                 }
+                pending.incrementAndGet();
                 this.submit(new RetryTransferCallable() {
                     @Override
                     public TransferStatus call() throws BackgroundException {
@@ -390,9 +448,15 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             if(!cache.isCached(item)) {
                                 log.warn(String.format("Missing entry for %s in cache", item));
                             }
-                            for(TransferItem f : cache.get(item)) {
-                                // Recursive
-                                transfer(f, action);
+                            if(null == pipeline) {
+                                for(TransferItem f : cache.get(item)) {
+                                    // Recursive
+                                    transfer(f, action);
+                                }
+                            }
+                            else {
+                                // Children can be prepared now that the directory is created
+                                pipeline.push(cache.get(item), status);
                             }
                             cache.remove(item);
                         }
@@ -411,6 +475,11 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             release(source, Connection.source, null);
                             release(destination, Connection.destination, null);
                         }
+                        if(null != pipeline) {
+                            if(pending.decrementAndGet() == 0) {
+                                pipeline.done(item);
+                            }
+                        }
                         return segment;
                     }
 
@@ -463,7 +532,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 log.debug(String.format("Cancel retry for %s", item));
                             }
                             segment.setFailure();
-                            if(table.size() == 1) {
+                            if(prepared.get() == 1 && (null == pipeline || pipeline.isExhausted())) {
                                 // Fail fast when transferring single file
                                 throw e;
                             }
@@ -529,6 +598,11 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             status.setFailure();
                         }
                     }
+                    if(null != pipeline) {
+                        if(pending.decrementAndGet() == 0) {
+                            pipeline.done(item);
+                        }
+                    }
                     return status;
                 }
 
@@ -544,6 +618,9 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         }
         else {
             log.warn(String.format("Skip file %s with unknown transfer status", item));
+            if(null != pipeline) {
+                pipeline.done(item);
+            }
         }
         return ConcurrentUtils.constantFuture(null);
     }
@@ -568,4 +645,227 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         sb.append('}');
         return sb.toString();
     }
+
+    /**
+     * Depth first walk of the transfer tree submitting files to prepare and transfer. Limits the number of files
+     * prepared but not yet transferred and only retains the listings of directories not walked completely. Files are
+     * submitted in batches. Pre-processing runs once for all files of a batch and post-processing once all files of the
+     * batch are transferred. The transfer status of files is then removed from the table.
+     */
+    private final class Pipeline {
+        private final TransferAction action;
+        private final int limit;
+        /**
+         * Remaining children of directories with parent status. Guarded by this.
+         */
+        private final Deque<Map.Entry<Iterator<TransferItem>, TransferStatus>> listings = new ArrayDeque<>();
+        /**
+         * Batch of files submitted to prepare. Guarded by this.
+         */
+        private final Map<TransferItem, Batch> batches = new HashMap<>();
+        /**
+         * Batch of files submitted to transfer. Guarded by this.
+         */
+        private final Map<TransferItem, Batch> transfers = new HashMap<>();
+        /**
+         * Number of files submitted and not yet done. Guarded by this.
+         */
+        private int inflight;
+        /**
+         * Requests to fill. Only one thread drains at a time to not recurse when callables are run inline.
+         */
+        private final AtomicInteger requests = new AtomicInteger();
+
+        public Pipeline(final TransferAction action, final int limit) {
+            this.action = action;
+            this.limit = limit;
+        }
+
+        /**
+         * @param children Files to walk before remaining siblings of parent
+         * @param parent   Transfer status of parent directory
+         */
+        public void push(final Iterable<TransferItem> children, final TransferStatus parent) {
+            synchronized(this) {
+                listings.push(new AbstractMap.SimpleImmutableEntry<>(children.iterator(), parent));
+            }
+        }
+
+        /**
+         * Submit next batch of files to prepare when at most half of limit is in flight
+         */
+        public void fill() throws BackgroundException {
+            if(requests.getAndIncrement() != 0) {
+                // Already draining
+                return;
+            }
+            int missed = 1;
+            try {
+                do {
+                    while(true) {
+                        final List<Map.Entry<TransferItem, TransferStatus>> next = new ArrayList<>();
+                        synchronized(this) {
+                            if(inflight > limit / 2) {
+                                break;
+                            }
+                            final Batch batch = new Batch();
+                            while(inflight + next.size() < limit && !this.isExhausted()) {
+                                final Map.Entry<Iterator<TransferItem>, TransferStatus> listing = listings.peek();
+                                final TransferItem item = listing.getKey().next();
+                                next.add(new AbstractMap.SimpleImmutableEntry<>(item, listing.getValue()));
+                                batches.put(item, batch);
+                            }
+                            batch.pending = batch.size = next.size();
+                            inflight += next.size();
+                        }
+                        if(next.isEmpty()) {
+                            break;
+                        }
+                        int submitted = 0;
+                        try {
+                            for(Map.Entry<TransferItem, TransferStatus> entry : next) {
+                                prepare(entry.getKey().remote, entry.getKey().local, entry.getValue(), action);
+                                submitted++;
+                            }
+                        }
+                        finally {
+                            if(submitted < next.size()) {
+                                // Failure submitting remaining files of batch
+                                synchronized(this) {
+                                    inflight -= next.size() - submitted;
+                                    for(Map.Entry<TransferItem, TransferStatus> entry : next.subList(submitted, next.size())) {
+                                        batches.remove(entry.getKey());
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    missed = requests.addAndGet(-missed);
+                }
+                while(missed != 0);
+            }
+            finally {
+                if(missed != 0) {
+                    // Allow to drain again after failure
+                    requests.set(0);
+                }
+            }
+        }
+
+        /**
+         * Run pre-processing and submit transfers when all files of the batch are prepared
+         *
+         * @param item   File prepared
+         * @param status Transfer status or null if skipped
+         */
+        public void prepared(final TransferItem item, final TransferStatus status, final Session<?> source, final Session<?> destination) throws BackgroundException {
+            final Batch batch;
+            synchronized(this) {
+                batch = batches.remove(item);
+            }
+            if(null == batch) {
+                log.warn(String.format("Missing batch for %s", item));
+                return;
+            }
+            final Map<TransferItem, TransferStatus> ready;
+            synchronized(batch) {
+                if(null != status) {
+                    batch.files.put(item, status);
+                }
+                if(--batch.pending > 0) {
+                    return;
+                }
+                ready = batch.files;
+            }
+            int submitted = 0;
+            try {
+                if(!ready.isEmpty()) {
+                    synchronized(batch) {
+                        batch.pending = ready.size();
+                    }
+                    synchronized(this) {
+                        for(TransferItem key : ready.keySet()) {
+                            transfers.put(key, batch);
+                        }
+                    }
+                    transfer.pre(source, destination, ready, connectionCallback);
+                    for(TransferItem key : ready.keySet()) {
+                        transfer(key, action);
+                        submitted++;
+                    }
+                }
+            }
+            finally {
+                // Files skipped or not submitted to transfer
+                synchronized(this) {
+                    inflight -= batch.size - submitted;
+                    if(submitted < ready.size()) {
+                        transfers.keySet().removeAll(ready.keySet());
+                    }
+                }
+            }
+            this.fill();
+        }
+
+        /**
+         * Run post-processing when all files of the batch are transferred
+         *
+         * @param item File transferred
+         */
+        public void done(final TransferItem item) throws BackgroundException {
+            final Batch batch;
+            synchronized(this) {
+                inflight--;
+                batch = transfers.remove(item);
+            }
+            if(null != batch) {
+                final boolean complete;
+                synchronized(batch) {
+                    complete = --batch.pending == 0;
+                }
+                if(complete) {
+                    final Session<?> source = borrow(Connection.source);
+                    final Session<?> destination = borrow(Connection.destination);
+                    try {
+                        transfer.post(source, destination, batch.files, connectionCallback);
+                    }
+                    finally {
+                        release(source, Connection.source, null);
+                        release(destination, Connection.destination, null);
+                        // Parent status of children not yet prepared is retained with listing
+                        table.keySet().removeAll(batch.files.keySet());
+                    }
+                }
+            }
+            this.fill();
+        }
+
+        /**
+         * @return True if no more files to submit
+         */
+        public synchronized boolean isExhausted() {
+            while(!listings.isEmpty()) {
+                if(listings.peek().getKey().hasNext()) {
+                    return false;
+                }
+                listings.pop();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Files submitted together to prepare
+     */
+    private static final class Batch {
+        /**
+         * Files accepted with transfer status. Guarded by this.
+         */
+        private final Map<TransferItem, TransferStatus> files = new LinkedHashMap<>();
+        private int size;
+        /**
+         * Number of files not yet prepared or when all are prepared not yet transferred. Guarded by this.
+         */
+        private int pending;
+    }
 }
@@ -21,13 +21,16 @@ package ch.cyberduck.core.worker;
 
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.pool.SessionPool;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -39,22 +42,56 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
     private final List<Path> files;
 
     private final ProgressListener listener;
+    /**
+     * Connections to list directories concurrently. Null to list with session of worker.
+     */
+    private final SessionPool pool;
 
     public CalculateSizeWorker(final List<Path> files, final ProgressListener listener) {
+        this(files, listener, null);
+    }
+
+    public CalculateSizeWorker(final List<Path> files, final ProgressListener listener, final SessionPool pool) {
         this.files = files;
         this.listener = listener;
+        this.pool = pool;
     }
 
     private Long total = 0L;
 
     @Override
     public Long run(final Session<?> session) throws BackgroundException {
-        for(Path next : files) {
-            next.attributes().setSize(this.calculateSize(session, next));
+        final ConcurrentListService walker = this.walk();
+        final ListService list = null == walker ? session.getFeature(ListService.class) : walker;
+        try {
+            for(Path next : files) {
+                next.attributes().setSize(this.calculateSize(list, next));
+            }
+        }
+        finally {
+            if(null != walker) {
+                walker.shutdown();
+            }
         }
         return total;
     }
 
+    /**
+     * @return Directories listed in advance if pool is available or null
+     */
+    private ConcurrentListService walk() {
+        if(null == pool) {
+            return null;
+        }
+        final List<Path> directories = new ArrayList<Path>();
+        for(Path file : files) {
+            if(file.isDirectory()) {
+                directories.add(file);
+            }
+        }
+        return new ConcurrentListService(pool, this).walk(directories, new NullFilter<Path>(), new WorkerListProgressListener(this, listener));
+    }
+
     /**
      * Calculates recursively the size of this path if a directory
      * Potentially lengthy operation
@@ -62,7 +99,7 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
      * @param p Directory or file
      * @return The size of the file or the sum of all containing files if a directory
      */
-    private long calculateSize(final Session<?> session, final Path p) throws BackgroundException {
+    private long calculateSize(final ListService list, final Path p) throws BackgroundException {
         long size = 0;
         if(this.isCanceled()) {
             throw new ConnectionCanceledException();
@@ -70,8 +107,8 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
         listener.message(MessageFormat.format(LocaleFactory.localizedString("Getting size of {0}", "Status"),
                 p.getName()));
         if(p.isDirectory()) {
-            for(Path next : session.getFeature(ListService.class).list(p, new WorkerListProgressListener(this, listener))) {
-                size += this.calculateSize(session, next);
+            for(Path next : list.list(p, new WorkerListProgressListener(this, listener))) {
+                size += this.calculateSize(list, next);
             }
         }
         else if(p.isFile()) {
@@ -0,0 +1,380 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.UnsupportedException;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lists directory trees ahead of the caller with concurrent connections borrowed from the pool. The walk continues in
+ * the background and each listing is handed to the caller as soon as it is complete. At most a fixed number of
+ * listings not yet retrieved is held in memory. Directories requested that are not listed in advance are listed on
+ * the caller thread.
+ */
+public class ConcurrentListService implements ListService {
+    private static final Logger log = Logger.getLogger(ConcurrentListService.class);
+
+    private final SessionPool pool;
+    private final Worker<?> worker;
+    private final int concurrency;
+    /**
+     * Maximum number of listings not yet retrieved
+     */
+    private final int lookahead;
+
+    private ThreadPool executor;
+    private Filter<Path> filter;
+    private ListProgressListener listener;
+
+    /**
+     * List tree with a single request if supported by session
+     */
+    private volatile boolean recursive = true;
+
+    /**
+     * Directories found and not yet submitted. Taken last in first to follow the depth first order of the caller.
+     * Guarded by this.
+     */
+    private final Deque<Path> pending = new ArrayDeque<>();
+    /**
+     * Directories currently listed. Guarded by this.
+     */
+    private final Set<Path> running = new HashSet<>();
+    /**
+     * Roots of trees currently listed with a single request. Guarded by this.
+     */
+    private final Set<Path> trees = new HashSet<>();
+    /**
+     * Directories in trees currently listed that were listed on the caller thread instead. Guarded by this.
+     */
+    private final Set<Path> skipped = new HashSet<>();
+    /**
+     * Listings not yet retrieved. Guarded by this.
+     */
+    private final Map<Path, AttributedList<Path>> listings = new HashMap<>();
+    /**
+     * Failures listing directories not yet retrieved. Guarded by this.
+     */
+    private final Map<Path, BackgroundException> failures = new HashMap<>();
+
+    public ConcurrentListService(final SessionPool pool, final Worker<?> worker) {
+        this(pool, worker, PreferencesFactory.get().getInteger("browser.list.concurrency"),
+            PreferencesFactory.get().getInteger("browser.list.lookahead"));
+    }
+
+    public ConcurrentListService(final SessionPool pool, final Worker<?> worker, final int concurrency, final int lookahead) {
+        this.pool = pool;
+        this.worker = worker;
+        this.concurrency = concurrency;
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Start listing directories recursively in the background. Returns immediately. Must be followed by {@link
+     * #shutdown()} when done.
+     *
+     * @param directories Directories to list
+     * @param filter      Only descend into child directories accepted
+     * @param listener    Listener for listing progress
+     * @return This
+     */
+    public ConcurrentListService walk(final Collection<Path> directories, final Filter<Path> filter, final ListProgressListener listener) {
+        this.filter = filter;
+        this.listener = listener;
+        this.executor = ThreadPoolFactory.get("list", concurrency);
+        synchronized(this) {
+            final List<Path> reversed = new ArrayList<>(directories);
+            for(int i = reversed.size() - 1; i >= 0; i--) {
+                pending.push(reversed.get(i));
+            }
+            this.schedule();
+        }
+        return this;
+    }
+
+    /**
+     * Interrupt pending listings
+     */
+    public void shutdown() {
+        synchronized(this) {
+            pending.clear();
+            listings.clear();
+            failures.clear();
+            this.notifyAll();
+        }
+        if(null != executor) {
+            executor.shutdown(false);
+        }
+    }
+
+    /**
+     * Submit pending directories while below limit of listings not yet retrieved
+     */
+    private synchronized void schedule() {
+        while(!pending.isEmpty() && running.size() < concurrency && running.size() + listings.size() < lookahead) {
+            final Path directory = pending.pop();
+            running.add(directory);
+            executor.execute(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    try {
+                        prefetch(directory);
+                    }
+                    catch(BackgroundException e) {
+                        synchronized(ConcurrentListService.this) {
+                            failures.put(directory, e);
+                        }
+                    }
+                    finally {
+                        synchronized(ConcurrentListService.this) {
+                            running.remove(directory);
+                            schedule();
+                            ConcurrentListService.this.notifyAll();
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    /**
+     * List directory in background
+     */
+    private void prefetch(final Path directory) throws BackgroundException {
+        if(worker.isCanceled()) {
+            throw new ConnectionCanceledException();
+        }
+        final Session<?> session = this.borrow();
+        BackgroundException failure = null;
+        try {
+            if(recursive) {
+                final RecursiveListService feature = session.getFeature(RecursiveListService.class);
+                if(null != feature) {
+                    synchronized(this) {
+                        trees.add(directory);
+                    }
+                    // Number of listings passed from tree
+                    final AtomicInteger count = new AtomicInteger();
+                    try {
+                        feature.walk(directory, filter, listener, new RecursiveListService.Callback() {
+                            @Override
+                            public void complete(final Path folder, final AttributedList<Path> children) throws BackgroundException {
+                                add(folder, children, true);
+                                count.incrementAndGet();
+                            }
+                        });
+                        return;
+                    }
+                    catch(UnsupportedException e) {
+                        log.warn(String.format("Failure %s listing tree %s. Fallback to list directories", e, directory));
+                        recursive = false;
+                        if(count.get() > 0) {
+                            // Directories not yet passed are listed when requested
+                            return;
+                        }
+                    }
+                    finally {
+                        synchronized(this) {
+                            trees.remove(directory);
+                            this.notifyAll();
+                        }
+                    }
+                }
+            }
+            this.add(directory, session.getFeature(ListService.class).list(directory, listener), false);
+        }
+        catch(BackgroundException e) {
+            failure = e;
+            throw e;
+        }
+        finally {
+            pool.release(session, failure);
+        }
+    }
+
+    /**
+     * Add listing to be retrieved. Waits for listings to be retrieved if limit is reached for listings of trees.
+     *
+     * @param walked Listing is part of tree listed with single request
+     */
+    private synchronized void add(final Path directory, final AttributedList<Path> children, final boolean walked) throws ConnectionCanceledException {
+        if(walked) {
+            if(skipped.remove(directory)) {
+                // Already listed on caller thread
+                return;
+            }
+            while(listings.size() >= lookahead) {
+                if(worker.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                try {
+                    this.wait();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+            }
+        }
+        listings.put(directory, children);
+        if(!walked) {
+            this.found(children);
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Add child directories to pending directories to list
+     */
+    private void found(final AttributedList<Path> children) {
+        for(int i = children.size() - 1; i >= 0; i--) {
+            final Path child = children.get(i);
+            if(child.isDirectory() && filter.accept(child)) {
+                if(listings.containsKey(child) || running.contains(child) || this.isWalked(child)) {
+                    continue;
+                }
+                pending.push(child);
+            }
+        }
+    }
+
+    /**
+     * @return True if directory is within tree currently listed with single request
+     */
+    private boolean isWalked(final Path directory) {
+        for(Path tree : trees) {
+            if(directory.isChild(tree)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        synchronized(this) {
+            while(true) {
+                final AttributedList<Path> list = listings.remove(directory);
+                if(null != list) {
+                    // Each directory is only retrieved once
+                    this.schedule();
+                    this.notifyAll();
+                    return list;
+                }
+                final BackgroundException failure = failures.remove(directory);
+                if(null != failure) {
+                    throw failure;
+                }
+                if(running.contains(directory) || (this.isWalked(directory) && listings.size() < lookahead)) {
+                    // Wait for listing in progress
+                    try {
+                        this.wait();
+                    }
+                    catch(InterruptedException e) {
+                        throw new ConnectionCanceledException(e);
+                    }
+                    continue;
+                }
+                pending.remove(directory);
+                if(this.isWalked(directory)) {
+                    // Discard listing when found in tree later
+                    skipped.add(directory);
+                }
+                break;
+            }
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Missing listing for %s", directory));
+        }
+        final Session<?> session = this.borrow();
+        BackgroundException failure = null;
+        try {
+            final AttributedList<Path> list = session.getFeature(ListService.class).list(directory, listener);
+            synchronized(this) {
+                if(!this.isWalked(directory)) {
+                    // Continue listing children in advance
+                    this.found(list);
+                    this.schedule();
+                }
+            }
+            return list;
+        }
+        catch(BackgroundException e) {
+            failure = e;
+            throw e;
+        }
+        finally {
+            pool.release(session, failure);
+        }
+    }
+
+    @Override
+    public ListService withCache(final Cache<Path> cache) {
+        return this;
+    }
+
+    private Session<?> borrow() throws BackgroundException {
+        return pool.borrow(new BackgroundActionState() {
+            @Override
+            public boolean isCanceled() {
+                return worker.isCanceled();
+            }
+
+            @Override
+            public boolean isRunning() {
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrentListService{");
+        sb.append("pool=").append(pool);
+        sb.append(", concurrency=").append(concurrency);
+        sb.append(", lookahead=").append(lookahead);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -32,6 +32,11 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.ui.browser.PathReloadFinder;
 
 import org.apache.log4j.Logger;
@@ -39,10 +44,13 @@ import org.apache.log4j.Logger;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class DeleteWorker extends Worker<List<Path>> {
 
@@ -56,38 +64,99 @@ public class DeleteWorker extends Worker<List<Path>> {
     private final Cache<Path> cache;
     private final ProgressListener listener;
     private final Filter<Path> filter;
+    /**
+     * Connections to list directories concurrently. Null to list with session of worker.
+     */
+    private final SessionPool pool;
+    /**
+     * Batches of files deleted while compiling list of files. Null if disabled.
+     */
+    private Pipeline pipeline;
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final ProgressListener listener) {
         this(prompt, files, cache, new NullFilter<Path>(), listener);
     }
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener) {
+        this(prompt, files, cache, filter, listener, null);
+    }
+
+    public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener,
+                        final SessionPool pool) {
         this.files = files;
         this.prompt = prompt;
         this.cache = cache;
         this.listener = listener;
         this.filter = filter;
+        this.pool = pool;
     }
 
     @Override
     public List<Path> run(final Session<?> session) throws BackgroundException {
         final Delete delete = session.getFeature(Delete.class);
-        final ListService list = session.getFeature(ListService.class);
-        final List<Path> recursive = new ArrayList<Path>();
-        for(Path file : files) {
-            if(this.isCanceled()) {
-                throw new ConnectionCanceledException();
-            }
-            recursive.addAll(this.compile(session.getHost(), delete, list, new WorkerListProgressListener(this, listener), file));
-        }
-        delete.delete(recursive, prompt, new Delete.Callback() {
+        final ConcurrentListService walker = this.walk(delete);
+        final ListService list = null == walker ? session.getFeature(ListService.class) : walker;
+        final Delete.Callback callback = new Delete.Callback() {
             @Override
             public void delete(final Path file) {
                 listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
                     file.getName()));
             }
-        });
-        return recursive;
+        };
+        // Files reached more than once are only deleted once
+        final Set<Path> recursive = new LinkedHashSet<Path>();
+        final int size = PreferencesFactory.get().getInteger("delete.pipeline.size");
+        if(size > 0 && !delete.isRecursive() && (null != walker || !session.getHost().getProtocol().isStateful())) {
+            // Delete files in batches while still listing directories. Session is not used for listing with pool.
+            pipeline = new Pipeline(delete, callback, size);
+        }
+        boolean success = false;
+        try {
+            for(Path file : files) {
+                if(this.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                recursive.addAll(this.compile(session.getHost(), delete, list, new WorkerListProgressListener(this, listener), file));
+            }
+            final List<Path> remaining = new ArrayList<Path>();
+            for(Path file : recursive) {
+                if(null == pipeline || !pipeline.submitted.contains(file)) {
+                    remaining.add(file);
+                }
+            }
+            if(null != pipeline) {
+                pipeline.await();
+            }
+            // Delete remaining files and all directories after children
+            delete.delete(remaining, prompt, callback);
+            success = true;
+        }
+        finally {
+            if(null != walker) {
+                walker.shutdown();
+            }
+            if(null != pipeline) {
+                pipeline.shutdown(success);
+                pipeline = null;
+            }
+        }
+        return new ArrayList<Path>(recursive);
+    }
+
+    /**
+     * @return Directories listed in advance if pool is available or null
+     */
+    private ConcurrentListService walk(final Delete delete) {
+        if(null == pool || delete.isRecursive()) {
+            return null;
+        }
+        final List<Path> directories = new ArrayList<Path>();
+        for(Path file : files) {
+            if(file.isDirectory()) {
+                directories.add(file);
+            }
+        }
+        return new ConcurrentListService(pool, this).walk(directories, filter, new WorkerListProgressListener(this, listener));
     }
 
     protected Set<Path> compile(final Host host, final Delete delete, final ListService list, final ListProgressListener listener, final Path file) throws BackgroundException {
@@ -106,6 +175,9 @@ public class DeleteWorker extends Worker<List<Path>> {
                     }
             }
             recursive.add(copy);
+            if(null != pipeline) {
+                pipeline.add(copy);
+            }
         }
         else if(file.isDirectory()) {
             if(!delete.isRecursive()) {
@@ -122,6 +194,94 @@ public class DeleteWorker extends Worker<List<Path>> {
         return recursive;
     }
 
+    /**
+     * Delete batches of files in background while directories are still listed. Directories are not added and
+     * deleted after all their children.
+     */
+    private final class Pipeline {
+        private final Delete delete;
+        private final Delete.Callback callback;
+        private final int size;
+
+        private final ThreadPool executor = ThreadPoolFactory.get("delete", 1);
+        private final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        /**
+         * Files submitted for deletion
+         */
+        private final Set<Path> submitted = new HashSet<Path>();
+        /**
+         * Files in batch not yet submitted
+         */
+        private final Set<Path> batched = new HashSet<Path>();
+
+        private List<Path> batch = new ArrayList<Path>();
+
+        public Pipeline(final Delete delete, final Delete.Callback callback, final int size) {
+            this.delete = delete;
+            this.callback = callback;
+            this.size = size;
+        }
+
+        public void add(final Path file) throws BackgroundException {
+            if(submitted.contains(file) || !batched.add(file)) {
+                // Already added when reached before
+                return;
+            }
+            batch.add(file);
+            if(batch.size() < size) {
+                return;
+            }
+            for(Future<Void> future : futures) {
+                if(future.isDone()) {
+                    // Fail early
+                    this.get(future);
+                }
+            }
+            final List<Path> files = batch;
+            batch = new ArrayList<Path>();
+            batched.clear();
+            submitted.addAll(files);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Submit deletion of %d files", files.size()));
+            }
+            futures.add(executor.execute(new BackgroundExceptionCallable<Void>() {
+                @Override
+                public Void call() throws BackgroundException {
+                    delete.delete(files, prompt, callback);
+                    return null;
+                }
+            }));
+        }
+
+        /**
+         * Wait for all batches submitted to complete
+         */
+        public void await() throws BackgroundException {
+            for(Future<Void> future : futures) {
+                this.get(future);
+            }
+        }
+
+        private void get(final Future<Void> future) throws BackgroundException {
+            try {
+                future.get();
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+        }
+
+        public void shutdown(final boolean gracefully) {
+            executor.shutdown(gracefully);
+        }
+    }
+
     @Override
     public void cleanup(final List<Path> deleted) {
         for(Path folder : new PathReloadFinder().find(deleted)) {
@@ -23,6 +23,7 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.MappingMimeTypeService;
+import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
@@ -41,9 +42,11 @@ import ch.cyberduck.ui.comparator.TimestampComparator;
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
@@ -52,13 +55,22 @@ public class MoveWorker extends Worker<Map<Path, Path>> {
     private static final Logger log = Logger.getLogger(MoveWorker.class);
 
     private final Map<Path, Path> files;
+    /**
+     * Connections to list source directories concurrently. Null to list with session of worker.
+     */
+    private final SessionPool source;
     private final SessionPool target;
     private final ProgressListener listener;
     private final Cache<Path> cache;
     private final ConnectionCallback callback;
 
     public MoveWorker(final Map<Path, Path> files, final SessionPool target, final Cache<Path> cache, final ProgressListener listener, final ConnectionCallback callback) {
+        this(files, null, target, cache, listener, callback);
+    }
+
+    public MoveWorker(final Map<Path, Path> files, final SessionPool source, final SessionPool target, final Cache<Path> cache, final ProgressListener listener, final ConnectionCallback callback) {
         this.files = files;
+        this.source = source;
         this.target = target;
         this.listener = listener;
         this.cache = cache;
@@ -78,12 +90,14 @@ public class MoveWorker extends Worker<Map<Path, Path>> {
                 return true;
             }
         });
+        ConcurrentListService walker = null;
         try {
             final Move feature = session.getFeature(Move.class).withTarget(destination);
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Run with feature %s", feature));
             }
-            final ListService list = session.getFeature(ListService.class);
+            walker = this.walk(feature);
+            final ListService list = null == walker ? session.getFeature(ListService.class) : walker;
             // sort ascending by timestamp to move older versions first
             final Map<Path, Path> sorted = new TreeMap<>(new TimestampComparator(true));
             sorted.putAll(files);
@@ -128,10 +142,29 @@ public class MoveWorker extends Worker<Map<Path, Path>> {
             return result;
         }
         finally {
+            if(null != walker) {
+                walker.shutdown();
+            }
             target.release(destination, null);
         }
     }
 
+    /**
+     * @return Source directories listed in advance if pool is available or null
+     */
+    private ConcurrentListService walk(final Move feature) {
+        if(null == source) {
+            return null;
+        }
+        final List<Path> directories = new ArrayList<Path>();
+        for(Map.Entry<Path, Path> entry : files.entrySet()) {
+            if(entry.getKey().isDirectory() && !feature.isRecursive(entry.getKey(), entry.getValue())) {
+                directories.add(entry.getKey());
+            }
+        }
+        return new ConcurrentListService(source, this).walk(directories, new NullFilter<Path>(), new WorkerListProgressListener(this, listener));
+    }
+
     protected Map<Path, Path> compile(final Move move, final ListService list, final Path source, final Path target) throws BackgroundException {
         // Compile recursive list
         final Map<Path, Path> recursive = new LinkedHashMap<>();
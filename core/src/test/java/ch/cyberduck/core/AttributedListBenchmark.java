@@ -0,0 +1,107 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build and lookup of large directory listings. Run using main method with test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AttributedListBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private Path[] files;
+    private AttributedList<Path> list;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Path directory = new Path("/container/directory", EnumSet.of(Path.Type.directory));
+        files = new Path[size];
+        for(int i = 0; i < size; i++) {
+            files[i] = new Path(directory, String.format("f-%d", i), EnumSet.of(Path.Type.file));
+        }
+        list = new AttributedList<>();
+        for(Path file : files) {
+            list.add(file);
+        }
+        // Build index
+        list.contains(files[0]);
+        list.find(new DefaultPathPredicate(files[0]), DefaultPathPredicate::new);
+    }
+
+    @Benchmark
+    public AttributedList<Path> build() {
+        final AttributedList<Path> children = new AttributedList<>();
+        for(Path file : files) {
+            children.add(file);
+        }
+        return children;
+    }
+
+    @Benchmark
+    public void get(final Blackhole blackhole) {
+        for(int i = 0; i < 1000; i++) {
+            blackhole.consume(list.get(files[ThreadLocalRandom.current().nextInt(size)]));
+        }
+    }
+
+    @Benchmark
+    public void find(final Blackhole blackhole) {
+        for(int i = 0; i < 1000; i++) {
+            blackhole.consume(list.find(new DefaultPathPredicate(files[ThreadLocalRandom.current().nextInt(size)]), DefaultPathPredicate::new));
+        }
+    }
+
+    @Benchmark
+    public void iterate(final Blackhole blackhole) {
+        for(Path file : list) {
+            blackhole.consume(file);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AttributedListBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -80,4 +80,79 @@ public class AttributedListTest {
         assertNotSame(list, list.filter(new NullFilter<>()));
         assertEquals(list, list.filter(new NullFilter<>()));
     }
+
+    @Test
+    public void testIndex() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(a));
+        assertEquals(0, list.indexOf(a));
+        assertEquals(-1, list.indexOf(b));
+        assertTrue(list.add(b));
+        assertEquals(1, list.indexOf(b));
+        assertSame(b, list.get(new Path("/b", EnumSet.of(Path.Type.file))));
+        assertNull(list.get(new Path("/b", EnumSet.of(Path.Type.directory))));
+        assertSame(b, list.find(new SimplePathPredicate(b), SimplePathPredicate::new));
+        assertSame(b, list.find(new DefaultPathPredicate(b), DefaultPathPredicate::new));
+        list.remove(a);
+        assertEquals(0, list.indexOf(b));
+        assertFalse(list.contains(a));
+        list.add(0, a);
+        assertEquals(0, list.indexOf(a));
+        assertEquals(1, list.indexOf(b));
+        list.set(1, a);
+        assertEquals(-1, list.indexOf(b));
+        assertNull(list.find(new SimplePathPredicate(b), SimplePathPredicate::new));
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    public void testIndexModified() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        list.add(a);
+        list.add(b);
+        assertEquals(1, list.indexOf(b));
+        // Modify hash code of entry after indexing
+        b.attributes().setVersionId("1");
+        assertEquals(1, list.indexOf(b));
+        assertTrue(list.contains(b));
+        assertSame(b, list.get(new Path("/b", EnumSet.of(Path.Type.file), b.attributes())));
+        assertFalse(list.contains(new Path("/b", EnumSet.of(Path.Type.file))));
+        assertTrue(list.remove(b));
+        assertEquals(1, list.size());
+        assertFalse(list.contains(b));
+    }
+
+    @Test
+    public void testFindKey() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        list.add(a);
+        list.add(b);
+        assertSame(b, list.find(new SimplePathPredicate(b), SimplePathPredicate::new));
+        assertNull(list.find(new SimplePathPredicate(new Path("/b", EnumSet.of(Path.Type.directory))), SimplePathPredicate::new));
+        // Same type of reference with different key
+        assertSame(b, list.find(new SimplePathPredicate(new Path("/b", EnumSet.of(Path.Type.directory))),
+            f -> new SimplePathPredicate(new Path(f.getAbsolute(), EnumSet.of(Path.Type.directory)))));
+    }
+
+    @Test
+    public void testIterateSnapshot() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(int i = 0; i < 100; i++) {
+            list.add(new Path(String.format("/f-%d", i), EnumSet.of(Path.Type.file)));
+        }
+        int count = 0;
+        for(Path f : list) {
+            list.add(new Path(String.format("/%s-copy", f.getName()), EnumSet.of(Path.Type.file)));
+            count++;
+        }
+        assertEquals(100, count);
+        assertEquals(200, list.size());
+        assertEquals(200, list.toList().size());
+    }
 }
@@ -19,9 +19,17 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.UUID;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 
 public class LocalAttributesTest {
 
@@ -49,4 +57,49 @@ public class LocalAttributesTest {
         Assert.assertTrue(a.getModificationDate() > 0);
         f.delete();
     }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        final Local l = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        assertSame(LocalAttributesSnapshot.NONE, l.refresh());
+        assertFalse(l.exists());
+        assertEquals(-1L, l.attributes().getSize());
+        final File f = new File(l.getAbsolute());
+        f.createNewFile();
+        // Not found is cached
+        assertFalse(l.exists());
+        assertNotNull(l.refresh());
+        assertTrue(l.exists());
+        assertTrue(l.isFile());
+        assertFalse(l.isDirectory());
+        assertFalse(l.isSymbolicLink());
+        assertEquals(0L, l.attributes().getSize());
+        assertTrue(l.attributes().getModificationDate() > 0);
+        try (OutputStream out = new FileOutputStream(f)) {
+            out.write(1);
+        }
+        assertEquals(0L, l.attributes().getSize());
+        assertEquals(1L, l.refresh().getSize());
+        assertEquals(1L, l.attributes().getSize());
+        l.delete();
+        assertFalse(l.exists());
+    }
+
+    @Test
+    public void testSnapshotPermission() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        assumeFalse("root".equals(System.getProperty("user.name")));
+        final Local l = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        new File(l.getAbsolute()).createNewFile();
+        Files.setPosixFilePermissions(Paths.get(l.getAbsolute()), PosixFilePermissions.fromString("r--------"));
+        assertNotNull(l.refresh());
+        final Permission permission = l.attributes().getPermission();
+        assertTrue(permission.isReadable());
+        assertFalse(permission.isWritable());
+        assertFalse(permission.isExecutable());
+        // Derived from mode read in advance
+        Files.setPosixFilePermissions(Paths.get(l.getAbsolute()), PosixFilePermissions.fromString("rw-------"));
+        assertFalse(permission.isWritable());
+        l.delete();
+    }
 }
@@ -2,6 +2,7 @@ package ch.cyberduck.core;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
@@ -23,6 +24,44 @@ public class PathCacheTest {
         assertNotNull(cache.lookup(new DefaultPathPredicate(file2)));
     }
 
+    @Test
+    public void testLookupIndex() {
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/p", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path file1 = new Path(directory, "name1", EnumSet.of(Path.Type.file));
+        list.add(file1);
+        cache.put(directory, list);
+        assertSame(file1, cache.lookup(new DefaultPathPredicate(file1)));
+        final Path file2 = new Path(directory, "name2", EnumSet.of(Path.Type.file));
+        list.add(file2);
+        cache.put(directory, list);
+        assertSame(file2, cache.lookup(new DefaultPathPredicate(file2)));
+        cache.put(directory, new AttributedList<Path>(Collections.singletonList(file2)));
+        assertNull(cache.lookup(new DefaultPathPredicate(file1)));
+        assertSame(file2, cache.lookup(new DefaultPathPredicate(file2)));
+        cache.remove(directory);
+        assertNull(cache.lookup(new DefaultPathPredicate(file2)));
+        assertEquals(3L, cache.getHitCount());
+        assertEquals(2L, cache.getMissCount());
+    }
+
+    @Test
+    public void testLookupEviction() {
+        final PathCache cache = new PathCache(1);
+        final Path directory1 = new Path("/p1", EnumSet.of(Path.Type.directory));
+        final Path file1 = new Path(directory1, "name", EnumSet.of(Path.Type.file));
+        cache.put(directory1, new AttributedList<Path>(Collections.singletonList(file1)));
+        final Path directory2 = new Path("/p2", EnumSet.of(Path.Type.directory));
+        final Path file2 = new Path(directory2, "name", EnumSet.of(Path.Type.file));
+        cache.put(directory2, new AttributedList<Path>(Collections.singletonList(file2)));
+        assertEquals(1L, cache.getEvictionCount());
+        assertNull(cache.lookup(new DefaultPathPredicate(file1)));
+        assertSame(file2, cache.lookup(new DefaultPathPredicate(file2)));
+        cache.clear();
+        assertNull(cache.lookup(new DefaultPathPredicate(file2)));
+    }
+
     @Test
     public void testIsEmpty() {
         final PathCache cache = new PathCache(1);
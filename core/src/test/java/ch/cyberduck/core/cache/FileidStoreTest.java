@@ -0,0 +1,122 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class FileidStoreTest {
+
+    @Test
+    public void testPersist() {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Host host = new Host(new TestProtocol(), "h");
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path child = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        final Path other = new Path("/d2", EnumSet.of(Path.Type.directory));
+        try {
+            final FileidStore store = new FileidStore(file, true, 10);
+            store.put(host, directory, "1");
+            store.put(host, child, "2");
+            store.put(host, other, "3");
+            assertEquals("2", store.get(host, child));
+            assertNull(store.get(host, new Path("/d/f", EnumSet.of(Path.Type.directory))));
+            assertNull(store.get(new Host(new TestProtocol(), "o"), child));
+            // Read from file
+            assertEquals("2", new FileidStore(file, true, 10).get(host, child));
+            store.remove(host, directory);
+            assertNull(store.get(host, directory));
+            assertNull(store.get(host, child));
+            assertEquals("3", store.get(host, other));
+            final FileidStore reloaded = new FileidStore(file, true, 10);
+            assertNull(reloaded.get(host, directory));
+            assertNull(reloaded.get(host, child));
+            assertEquals("3", reloaded.get(host, other));
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLimit() {
+        final Host host = new Host(new TestProtocol(), "h");
+        final FileidStore store = new FileidStore(new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()), false, 2);
+        store.put(host, new Path("/a", EnumSet.of(Path.Type.file)), "a");
+        store.put(host, new Path("/b", EnumSet.of(Path.Type.file)), "b");
+        assertEquals("a", store.get(host, new Path("/a", EnumSet.of(Path.Type.file))));
+        store.put(host, new Path("/c", EnumSet.of(Path.Type.file)), "c");
+        assertNull(store.get(host, new Path("/b", EnumSet.of(Path.Type.file))));
+        assertEquals("a", store.get(host, new Path("/a", EnumSet.of(Path.Type.file))));
+        assertEquals("c", store.get(host, new Path("/c", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testRemoveDescendants() {
+        final Host host = new Host(new TestProtocol(), "h");
+        final FileidStore store = new FileidStore(new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()), false, 10);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path(a, "b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path(b, "c", EnumSet.of(Path.Type.file));
+        final Path sibling = new Path("/ab", EnumSet.of(Path.Type.file));
+        store.put(host, c, "c");
+        store.put(host, sibling, "s");
+        store.remove(host, a);
+        assertNull(store.get(host, c));
+        assertEquals("s", store.get(host, sibling));
+        store.put(host, c, "c2");
+        assertEquals("c2", store.get(host, c));
+    }
+
+    @Test
+    public void testValidate() {
+        final Host host = new Host(new TestProtocol(), "h");
+        final FileidStore store = new FileidStore(new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()), false, 10);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path found = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        found.attributes().setVersionId("1");
+        final Path changed = new Path(directory, "c", EnumSet.of(Path.Type.file));
+        final Path missing = new Path(directory, "m", EnumSet.of(Path.Type.directory));
+        final Path child = new Path(missing, "f", EnumSet.of(Path.Type.file));
+        store.put(host, found, "1");
+        store.put(host, changed, "2");
+        store.put(host, missing, "3");
+        store.put(host, child, "4");
+        // No id saved for intermediate directory
+        final Path deep = new Path(new Path(directory, "x", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file));
+        store.put(host, deep, "6");
+        final Path replaced = new Path(directory, "c", EnumSet.of(Path.Type.file));
+        replaced.attributes().setVersionId("5");
+        store.validate(host, directory, new AttributedList<Path>(Arrays.asList(found, replaced)));
+        assertEquals("1", store.get(host, found));
+        assertNull(store.get(host, changed));
+        assertNull(store.get(host, missing));
+        assertNull(store.get(host, child));
+        assertNull(store.get(host, deep));
+    }
+}
@@ -0,0 +1,47 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HttpConnectionPoolBuilderTest {
+
+    @Test
+    public void testConnectionsPerRoute() {
+        final HttpConnectionPoolBuilder builder = new HttpConnectionPoolBuilder(new Host(new TestProtocol()),
+            PlainConnectionSocketFactory.getSocketFactory(), SSLConnectionSocketFactory.getSocketFactory());
+        {
+            final PoolingHttpClientConnectionManager manager = builder.createConnectionManager(builder.createRegistry());
+            assertEquals(PreferencesFactory.get().getInteger("http.connections.route"), manager.getDefaultMaxPerRoute());
+            manager.shutdown();
+        }
+        {
+            final PoolingHttpClientConnectionManager manager = builder.withConnectionsPerRoute(3).createConnectionManager(builder.createRegistry());
+            assertEquals(3, manager.getDefaultMaxPerRoute());
+            manager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testBorrowSizeClass() {
+        final BufferPool pool = new BufferPool(false, Long.MAX_VALUE);
+        assertEquals(4096, pool.borrow(1).capacity());
+        assertEquals(4096, pool.borrow(4096).capacity());
+        assertEquals(8192, pool.borrow(4097).capacity());
+        assertEquals(32768, pool.borrow(32768).capacity());
+        assertTrue(pool.borrow(32768).hasArray());
+        assertTrue(new BufferPool(true, Long.MAX_VALUE).borrow(32768).isDirect());
+    }
+
+    @Test
+    public void testCapacity() {
+        final BufferPool pool = new BufferPool(false, Long.MAX_VALUE);
+        assertEquals(pool.borrow(1).capacity(), BufferPool.capacity(1));
+        assertEquals(pool.borrow(4097).capacity(), BufferPool.capacity(4097));
+        assertEquals(16 * 1024 * 1024, BufferPool.capacity(10 * 1024 * 1024));
+        assertEquals(20 * 1024 * 1024, BufferPool.capacity(20 * 1024 * 1024));
+        assertEquals(pool.borrow(20 * 1024 * 1024).capacity(), BufferPool.capacity(20 * 1024 * 1024));
+    }
+
+    @Test
+    public void testReuse() {
+        final BufferPool pool = new BufferPool(false, Long.MAX_VALUE);
+        final ByteBuffer buffer = pool.borrow(32768);
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        assertEquals(32768L, pool.getRetained());
+        final ByteBuffer reused = pool.borrow(20000);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(0L, pool.getRetained());
+        assertNotSame(reused, pool.borrow(20000));
+        assertEquals(3L, pool.getMetrics().get(BufferPool.Metric.borrow));
+        assertEquals(1L, pool.getMetrics().get(BufferPool.Metric.hit));
+        assertEquals(2L, pool.getMetrics().get(BufferPool.Metric.miss));
+    }
+
+    @Test
+    public void testLimit() {
+        final BufferPool pool = new BufferPool(false, 8192L);
+        pool.release(pool.borrow(8192));
+        pool.release(pool.borrow(8192));
+        pool.release(ByteBuffer.allocate(8192));
+        assertEquals(8192L, pool.getRetained());
+        assertEquals(1L, pool.getMetrics().get(BufferPool.Metric.discard));
+    }
+
+    @Test
+    public void testDiscardForeign() {
+        final BufferPool pool = new BufferPool(false, Long.MAX_VALUE);
+        pool.release(ByteBuffer.allocate(5000));
+        pool.release(ByteBuffer.allocateDirect(4096));
+        pool.release(ByteBuffer.allocate(64 * 1024 * 1024));
+        assertEquals(0L, pool.getRetained());
+        assertEquals(3L, pool.getMetrics().get(BufferPool.Metric.discard));
+    }
+}
@@ -0,0 +1,79 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import org.junit.Test;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class FileChannelInputStreamTest {
+
+    private java.nio.file.Path create(final byte[] content) throws Exception {
+        final java.nio.file.Path file = Files.createTempFile(null, null);
+        Files.write(file, content);
+        return file;
+    }
+
+    @Test
+    public void testReadUnsigned() throws Exception {
+        final byte[] content = new byte[0x80];
+        for(int i = 0; i < content.length; i++) {
+            content[i] = (byte) (0x80 + i);
+        }
+        final java.nio.file.Path file = this.create(content);
+        try (FileChannelInputStream in = new FileChannelInputStream(FileChannel.open(file, StandardOpenOption.READ))) {
+            for(int i = 0; i < content.length; i++) {
+                assertEquals(0x80 + i, in.read());
+            }
+            assertEquals(-1, in.read());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testReadZeroLength() throws Exception {
+        final java.nio.file.Path file = this.create(new byte[]{1});
+        try (FileChannelInputStream in = new FileChannelInputStream(FileChannel.open(file, StandardOpenOption.READ))) {
+            final byte[] buffer = new byte[2];
+            assertEquals(0, in.read(buffer, 0, 0));
+            assertEquals(1, in.read(buffer, 1, 1));
+            assertEquals(1, buffer[1]);
+            assertEquals(0, in.read(buffer, 0, 0));
+            assertEquals(-1, in.read(buffer, 0, 2));
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        final java.nio.file.Path file = this.create(new byte[]{1, 2, (byte) 0xff, 4});
+        try (FileChannelInputStream in = new FileChannelInputStream(FileChannel.open(file, StandardOpenOption.READ))) {
+            assertEquals(0L, in.skip(0L));
+            assertEquals(2L, in.skip(2L));
+            assertEquals(0xff, in.read());
+            // Clamped to end of file
+            assertEquals(1L, in.skip(10L));
+            assertEquals(0L, in.skip(1L));
+            assertEquals(-1, in.read());
+        }
+        Files.delete(file);
+    }
+}
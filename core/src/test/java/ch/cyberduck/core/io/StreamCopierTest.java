@@ -11,10 +11,16 @@ import org.apache.commons.text.RandomStringGenerator;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.*;
 
@@ -168,4 +174,33 @@ public class StreamCopierTest {
         assertTrue(status.isCanceled());
         assertEquals(32768L, status.getOffset());
     }
+
+    @Test
+    public void testTransferFileChannel() throws Exception {
+        final byte[] bytes = new RandomStringGenerator.Builder().build().generate(100000).getBytes();
+        final java.nio.file.Path source = Files.createTempFile(UUID.randomUUID().toString(), null);
+        final java.nio.file.Path target = Files.createTempFile(UUID.randomUUID().toString(), null);
+        try {
+            Files.write(source, bytes);
+            final TransferStatus status = new TransferStatus();
+            final AtomicLong sent = new AtomicLong();
+            new StreamCopier(status, status).withChunksize(32768).withOffset(1L).withLimit(99998L).withListener(new DisabledStreamListener() {
+                @Override
+                public void sent(final long bytes) {
+                    assertTrue(bytes <= 32768L);
+                    sent.addAndGet(bytes);
+                }
+            }).transfer(
+                new FileChannelInputStream(FileChannel.open(source, StandardOpenOption.READ)),
+                new ThrottledOutputStream(new VoidStatusOutputStream(new FileChannelOutputStream(FileChannel.open(target, StandardOpenOption.WRITE))), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)));
+            assertTrue(status.isComplete());
+            assertEquals(99998L, status.getOffset(), 0L);
+            assertEquals(99998L, sent.get());
+            assertArrayEquals(Arrays.copyOfRange(bytes, 1, 99999), Files.readAllBytes(target));
+        }
+        finally {
+            Files.delete(source);
+            Files.delete(target);
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class LocalChecksumStoreTest {
+
+    @Test
+    public void testCompute() throws Exception {
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        Files.write(Paths.get(file.getAbsolute()), "input".getBytes(StandardCharsets.UTF_8));
+        try {
+            assertEquals("a43c1b0aa53a0c908810c06ab1ff3967",
+                new LocalChecksumStore(store, true, 10).compute(file, HashAlgorithm.md5).hash);
+            final Checksum cached = new Checksum(HashAlgorithm.md5, "cached");
+            new LocalChecksumStore(store, true, 10).put(file, cached);
+            // Read from file
+            assertEquals(cached, new LocalChecksumStore(store, true, 10).compute(file, HashAlgorithm.md5));
+            assertEquals("c96c6d5be8d08a12e7b5cdc1b207fa6b2430974c86803d8891675e76fd992c20",
+                new LocalChecksumStore(store, true, 10).compute(file, HashAlgorithm.sha256).hash);
+            // Modified
+            Files.write(Paths.get(file.getAbsolute()), "modified".getBytes(StandardCharsets.UTF_8));
+            assertEquals("9ae73c65f418e6f79ceb4f0e4a4b98d5",
+                new LocalChecksumStore(store, true, 10).compute(file, HashAlgorithm.md5).hash);
+        }
+        finally {
+            file.delete();
+            store.delete();
+        }
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        Files.write(Paths.get(file.getAbsolute()), "input".getBytes(StandardCharsets.UTF_8));
+        try {
+            final Checksum cached = new Checksum(HashAlgorithm.md5, "cached");
+            final LocalChecksumStore checksums = new LocalChecksumStore(store, true, 10);
+            checksums.put(file, cached);
+            assertEquals(cached, checksums.compute(file, HashAlgorithm.md5));
+            checksums.remove(file);
+            checksums.shutdown();
+            // Removal read from file
+            final LocalChecksumStore reloaded = new LocalChecksumStore(store, true, 10);
+            assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", reloaded.compute(file, HashAlgorithm.md5).hash);
+            reloaded.shutdown();
+        }
+        finally {
+            file.delete();
+            store.delete();
+        }
+    }
+
+    @Test
+    public void testRemoveNotLoaded() throws Exception {
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        Files.write(Paths.get(file.getAbsolute()), "input".getBytes(StandardCharsets.UTF_8));
+        try {
+            new LocalChecksumStore(store, true, 10).remove(file);
+            assertFalse(store.exists());
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        Files.write(Paths.get(file.getAbsolute()), "input".getBytes(StandardCharsets.UTF_8));
+        try {
+            final LocalChecksumStore disabled = new LocalChecksumStore(store, false, 10);
+            disabled.put(file, new Checksum(HashAlgorithm.md5, "cached"));
+            assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", disabled.compute(file, HashAlgorithm.md5).hash);
+        }
+        finally {
+            file.delete();
+        }
+    }
+}
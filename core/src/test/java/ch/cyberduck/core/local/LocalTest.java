@@ -7,9 +7,11 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
+import java.io.OutputStream;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -201,6 +203,24 @@ public class LocalTest {
         l.delete();
     }
 
+    @Test
+    public void testWriteAtPosition() throws Exception {
+        final Local l = new TestLocal(String.format("%s/%s", System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random()));
+        l.allocate(4L);
+        assertEquals(4L, l.attributes().getSize());
+        try (OutputStream out = l.getOutputStream(2L)) {
+            out.write(new byte[]{3, 4});
+        }
+        try (OutputStream out = l.getOutputStream(0L)) {
+            out.write(new byte[]{1, 2});
+        }
+        assertEquals(4L, l.attributes().getSize());
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, IOUtils.toByteArray(l.getInputStream()));
+        l.allocate(2L);
+        assertEquals(2L, l.attributes().getSize());
+        l.delete();
+    }
+
     @Test
     public void testNormalize() {
         assertEquals(StringUtils.removeEnd(System.getProperty("java.io.tmpdir"),
@@ -0,0 +1,102 @@
+package ch.cyberduck.core.synchronization;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.LocalAttributes;
+import ch.cyberduck.core.NullLocal;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.transfer.TransferItem;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class CachingComparisonServiceFilterTest {
+
+    @Test
+    public void testMissingAttributesComparedByCaller() throws Exception {
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        final PathAttributes found = new PathAttributes();
+        found.setSize(1L);
+        found.setModificationDate(1L);
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        final ComparisonServiceFilter delegate = new ComparisonServiceFilter(session, TimeZone.getDefault(), new DisabledProgressListener())
+            .withFinder(new Find() {
+                @Override
+                public boolean find(final Path file) {
+                    return true;
+                }
+            })
+            .withAttributes(new AttributesFinder() {
+                @Override
+                public PathAttributes find(final Path file) {
+                    thread.set(Thread.currentThread());
+                    return found;
+                }
+            });
+        final NullLocal local = new NullLocal("t") {
+            @Override
+            public LocalAttributes attributes() {
+                return new LocalAttributes("t") {
+                    @Override
+                    public long getSize() {
+                        return 1L;
+                    }
+
+                    @Override
+                    public long getModificationDate() {
+                        return 1L;
+                    }
+                };
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final Path file = new Path("/t", EnumSet.of(Path.Type.file));
+        // No checksum in listing
+        file.attributes().setSize(1L);
+        file.attributes().setModificationDate(1L);
+        final CachingComparisonServiceFilter filter = new CachingComparisonServiceFilter(delegate);
+        try {
+            filter.compare(session, new AttributedList<Path>(Collections.singletonList(file)),
+                Collections.singletonList(new TransferItem(file, local)));
+            assertEquals(Comparison.unknown, filter.get(new TransferItem(file, local)));
+            assertEquals(Comparison.equal, filter.compare(file, local));
+            // Looked up with connection of caller
+            assertSame(Thread.currentThread(), thread.get());
+        }
+        finally {
+            filter.reset();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ch.cyberduck.core.synchronization;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.NullLocal;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.transfer.TransferItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ComparisonCacheTest {
+
+    private static TransferItem item(final String name) {
+        return new TransferItem(new Path("/" + name, EnumSet.of(Path.Type.file)), new NullLocal(name));
+    }
+
+    @Test
+    public void testComputeOnce() throws Exception {
+        final ComparisonCache cache = new ComparisonCache(10, 2);
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<Comparison>> futures = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            futures.add(executor.submit(new Callable<Comparison>() {
+                @Override
+                public Comparison call() throws Exception {
+                    return cache.compute(item("a"), new Callable<Comparison>() {
+                        @Override
+                        public Comparison call() throws Exception {
+                            count.incrementAndGet();
+                            latch.await();
+                            return Comparison.local;
+                        }
+                    });
+                }
+            }));
+        }
+        Thread.sleep(100L);
+        latch.countDown();
+        for(Future<Comparison> future : futures) {
+            assertEquals(Comparison.local, future.get());
+        }
+        assertEquals(1, count.get());
+        assertEquals(Comparison.local, cache.get(item("a")));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        final ComparisonCache cache = new ComparisonCache(10, 2);
+        final AtomicInteger count = new AtomicInteger();
+        cache.submit(item("a"), new Callable<Comparison>() {
+            @Override
+            public Comparison call() {
+                count.incrementAndGet();
+                return Comparison.remote;
+            }
+        });
+        assertEquals(Comparison.remote, cache.compute(item("a"), new Callable<Comparison>() {
+            @Override
+            public Comparison call() {
+                count.incrementAndGet();
+                return Comparison.local;
+            }
+        }));
+        assertEquals(1, count.get());
+        cache.clear();
+        assertEquals(Comparison.unknown, cache.get(item("a")));
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        final ComparisonCache cache = new ComparisonCache(2, 1);
+        for(String name : new String[]{"a", "b", "c"}) {
+            cache.compute(item(name), new Callable<Comparison>() {
+                @Override
+                public Comparison call() {
+                    return Comparison.equal;
+                }
+            });
+        }
+        assertEquals(Comparison.unknown, cache.get(item("a")));
+        assertEquals(Comparison.equal, cache.get(item("b")));
+        assertEquals(Comparison.equal, cache.get(item("c")));
+    }
+
+    @Test
+    public void testFailureNotCached() throws Exception {
+        final ComparisonCache cache = new ComparisonCache(10, 1);
+        try {
+            cache.compute(item("a"), new Callable<Comparison>() {
+                @Override
+                public Comparison call() throws Exception {
+                    throw new NotfoundException("a");
+                }
+            });
+            fail();
+        }
+        catch(NotfoundException e) {
+            //
+        }
+        assertEquals(Comparison.unknown, cache.get(item("a")));
+        assertEquals(Comparison.local, cache.compute(item("a"), new Callable<Comparison>() {
+            @Override
+            public Comparison call() {
+                return Comparison.local;
+            }
+        }));
+    }
+}
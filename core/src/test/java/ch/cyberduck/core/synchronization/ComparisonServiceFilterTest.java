@@ -22,7 +22,9 @@ import java.util.TimeZone;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class ComparisonServiceFilterTest {
 
@@ -204,4 +206,64 @@ public class ComparisonServiceFilterTest {
         assertTrue(found.get());
         assertTrue(attr.get());
     }
+
+    @Test
+    public void testCompareWithAttributes() throws Exception {
+        final Find find = new Find() {
+            @Override
+            public boolean find(final Path file) {
+                fail();
+                return false;
+            }
+        };
+        final ComparisonServiceFilter s = new ComparisonServiceFilter(new NullSession(new Host(new TestProtocol())) {
+        }, TimeZone.getDefault(), new DisabledProgressListener()).withFinder(find);
+        final NullLocal local = new NullLocal("t") {
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        assertEquals(Comparison.local, s.compare(new Path("t", EnumSet.of(Path.Type.file)), local, null));
+        assertEquals(Comparison.equal, s.compare(new Path("t", EnumSet.of(Path.Type.directory)), local, new PathAttributes()));
+        assertEquals(Comparison.remote, s.compare(new Path("t", EnumSet.of(Path.Type.file)), new NullLocal("t"), new PathAttributes()));
+        assertEquals(Comparison.equal, s.compare(new Path("t", EnumSet.of(Path.Type.file)), new NullLocal("t"), null));
+    }
+
+    @Test
+    public void testListedAttributes() throws Exception {
+        final ComparisonServiceFilter s = new ComparisonServiceFilter(new NullSession(new Host(new TestProtocol())) {
+        }, TimeZone.getDefault(), new DisabledProgressListener());
+        final NullLocal local = new NullLocal("t") {
+            @Override
+            public LocalAttributes attributes() {
+                return new LocalAttributes("t") {
+                    @Override
+                    public long getSize() {
+                        return 1L;
+                    }
+                };
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final Path file = new Path("t", EnumSet.of(Path.Type.file));
+        final PathAttributes listed = new PathAttributes();
+        listed.setSize(1L);
+        listed.setModificationDate(1L);
+        listed.setChecksum(new Checksum(HashAlgorithm.md5, "a"));
+        assertTrue(s.isListed(file, local, listed));
+        // Decision by size
+        final PathAttributes empty = new PathAttributes();
+        empty.setSize(0L);
+        assertTrue(s.isListed(file, local, empty));
+        // Missing checksum in listing
+        final PathAttributes missing = new PathAttributes();
+        missing.setSize(1L);
+        missing.setModificationDate(1L);
+        assertFalse(s.isListed(file, local, missing));
+    }
 }
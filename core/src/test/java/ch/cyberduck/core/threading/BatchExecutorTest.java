@@ -0,0 +1,111 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BatchExecutorTest {
+
+    @Test
+    public void testExecute() throws Exception {
+        new BatchExecutor("batch", 2).execute(Arrays.asList("a", "b", "c"), 2, new BatchExecutor.Batch<String>() {
+            @Override
+            public Map<String, BackgroundException> run(final List<String> items) {
+                assertTrue(items.size() <= 2);
+                return Collections.emptyMap();
+            }
+        });
+    }
+
+    @Test
+    public void testFailureFirstItem() throws Exception {
+        final AccessDeniedException b = new AccessDeniedException("b");
+        final AccessDeniedException c = new AccessDeniedException("c");
+        try {
+            new BatchExecutor("batch", 2).execute(Arrays.asList("a", "b", "c"), 1, new BatchExecutor.Batch<String>() {
+                @Override
+                public Map<String, BackgroundException> run(final List<String> items) throws BackgroundException {
+                    if(items.contains("c")) {
+                        throw c;
+                    }
+                    if(items.contains("b")) {
+                        return Collections.<String, BackgroundException>singletonMap("b", b);
+                    }
+                    return Collections.emptyMap();
+                }
+            });
+            fail();
+        }
+        catch(AccessDeniedException e) {
+            assertSame(b, e);
+        }
+    }
+
+    @Test
+    public void testFailureUnknownItem() throws Exception {
+        final AccessDeniedException failure = new AccessDeniedException("x");
+        try {
+            new BatchExecutor("batch", 1).execute(Collections.singletonList("a"), 1, new BatchExecutor.Batch<String>() {
+                @Override
+                public Map<String, BackgroundException> run(final List<String> items) {
+                    // Failure reported for item not requested
+                    return Collections.<String, BackgroundException>singletonMap("x", failure);
+                }
+            });
+            fail();
+        }
+        catch(AccessDeniedException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void testFailuresInDetail() throws Exception {
+        final AccessDeniedException a = new AccessDeniedException("Denied a");
+        final AccessDeniedException b = new AccessDeniedException("Denied b");
+        try {
+            new BatchExecutor("batch", 2).execute(Arrays.asList("a", "b", "c"), 1, new BatchExecutor.Batch<String>() {
+                @Override
+                public Map<String, BackgroundException> run(final List<String> items) throws BackgroundException {
+                    if(items.contains("a")) {
+                        throw a;
+                    }
+                    if(items.contains("b")) {
+                        return Collections.<String, BackgroundException>singletonMap("b", b);
+                    }
+                    return Collections.emptyMap();
+                }
+            });
+            fail();
+        }
+        catch(AccessDeniedException e) {
+            assertSame(a, e);
+            assertTrue(e.getDetail().contains("Denied a"));
+            assertTrue(e.getDetail().contains("Denied b"));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SegmentSchedulerTest {
+
+    @Test
+    public void testLimit() throws Exception {
+        final SegmentScheduler scheduler = new SegmentScheduler(4, 3);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maximum = new AtomicInteger();
+        final List<Future<Void>> futures = new ArrayList<>();
+        final List<ThreadPool> pools = new ArrayList<>();
+        for(int f = 0; f < 4; f++) {
+            final ThreadPool pool = scheduler.pool(new Host(new TestProtocol(), f % 2 == 0 ? "a" : "b"), f, 2);
+            pools.add(pool);
+            for(int i = 0; i < 10; i++) {
+                futures.add(pool.execute(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.sleep(5L);
+                        running.decrementAndGet();
+                        return null;
+                    }
+                }));
+            }
+        }
+        for(Future<Void> future : futures) {
+            future.get();
+        }
+        assertTrue(maximum.get() <= 4);
+        for(ThreadPool pool : pools) {
+            pool.shutdown(true);
+        }
+    }
+
+    @Test
+    public void testShutdownNow() throws Exception {
+        final SegmentScheduler scheduler = new SegmentScheduler(1, 1);
+        final ThreadPool pool = scheduler.pool(new Host(new TestProtocol(), "a"), 1L, 1);
+        final CountDownLatch started = new CountDownLatch(1);
+        pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                started.countDown();
+                Thread.sleep(10000L);
+                return null;
+            }
+        });
+        final Future<Void> pending = pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() {
+                fail();
+                return null;
+            }
+        });
+        started.await();
+        pool.shutdown(false);
+        assertFalse(pending.isDone());
+        // Slot is released for other files
+        final ThreadPool other = scheduler.pool(new Host(new TestProtocol(), "a"), 1L, 1);
+        assertNull(other.execute(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        }).get());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testShutdown() {
+        final ThreadPool pool = new SegmentScheduler(1, 1).pool(new Host(new TestProtocol(), "a"), 1L, 1);
+        pool.shutdown(true);
+        pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        });
+    }
+}
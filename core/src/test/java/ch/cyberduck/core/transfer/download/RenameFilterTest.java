@@ -3,6 +3,7 @@ package ch.cyberduck.core.transfer.download;
 import ch.cyberduck.core.AsciiRandomStringService;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
@@ -12,10 +13,14 @@ import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 
 import org.junit.Test;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.EnumSet;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 public class RenameFilterTest {
 
@@ -63,4 +68,35 @@ public class RenameFilterTest {
         final String s = System.getProperty("file.separator");
         assertEquals(String.format("%stmp%st-1%s%s", s, s, s, name), fileStatus.getRename().local.getAbsolute());
     }
+
+    @Test
+    public void testApplySegmented() throws Exception {
+        final RenameFilter f = new RenameFilter(new DisabledDownloadSymlinkResolver(), new NullSession(new Host(new TestProtocol())));
+        final String name = new AsciiRandomStringService().random();
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), name);
+        Files.write(Paths.get(local.getAbsolute()), "a".getBytes(StandardCharsets.UTF_8));
+        final Path file = new Path(name, EnumSet.of(Path.Type.file));
+        final TransferStatus status = f.prepare(file, local, new TransferStatus().exists(true), new DisabledProgressListener());
+        final Local renamed = status.getRename().local;
+        assertNotNull(renamed);
+        assertNotEquals(local, renamed);
+        status.withSegments(Arrays.asList(
+            new TransferStatus().segment(true).append(true).skip(0L).length(2L),
+            new TransferStatus().segment(true).append(true).skip(2L).length(2L)));
+        f.apply(file, renamed, status, new DisabledProgressListener());
+        for(TransferStatus segment : status.getSegments()) {
+            assertEquals(renamed, segment.getRename().local);
+            try (OutputStream out = segment.getRename().local.getOutputStream(segment.getOffset())) {
+                out.write(new byte[]{1, 2});
+            }
+        }
+        // Existing file is kept
+        assertArrayEquals("a".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(Paths.get(local.getAbsolute())));
+        assertEquals(4L, renamed.attributes().getSize());
+        assertTrue(new SegmentJournal(renamed).exists());
+        assertFalse(new SegmentJournal(local).exists());
+        new SegmentJournal(renamed).delete();
+        renamed.delete();
+        local.delete();
+    }
 }
@@ -1,13 +1,16 @@
 package ch.cyberduck.core.transfer.download;
 
 import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.AlphanumericRandomStringService;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultDownloadFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
@@ -15,6 +18,7 @@ import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -89,6 +93,49 @@ public class ResumeFilterTest {
         assertEquals(1L, status.getOffset(), 0L);
     }
 
+    @Test
+    public void testPrepareSegmented() throws Exception {
+        PreferencesFactory.get().setProperty("queue.download.segments.threshold", 1L);
+        PreferencesFactory.get().setProperty("queue.download.segments.size", 5L);
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        final DownloadFilterOptions options = new DownloadFilterOptions();
+        options.segments = true;
+        final ResumeFilter f = new ResumeFilter(new DisabledDownloadSymlinkResolver(), session,
+            options, new DefaultDownloadFeature(session.getFeature(Read.class)) {
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        });
+        final Path p = new Path("a", EnumSet.of(Path.Type.file));
+        p.attributes().setSize(10L);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        local.allocate(10L);
+        final SegmentJournal journal = new SegmentJournal(local);
+        try {
+            journal.create(10L, 5L);
+            journal.add(1, 5L);
+            // Interrupted after writing 2 bytes of second segment
+            journal.add(2, 7L);
+            final TransferStatus status = f.prepare(p, local, new TransferStatus().exists(true), new DisabledProgressListener());
+            assertTrue(status.isSegmented());
+            assertTrue(status.isAppend());
+            assertEquals(3L, status.getLength());
+            final List<TransferStatus> segments = status.getSegments();
+            assertEquals(2, segments.size());
+            assertTrue(segments.get(0).isComplete());
+            assertFalse(segments.get(1).isComplete());
+            assertEquals(7L, segments.get(1).getOffset());
+            assertEquals(3L, segments.get(1).getLength());
+        }
+        finally {
+            journal.delete();
+            local.delete();
+            PreferencesFactory.get().deleteProperty("queue.download.segments.threshold");
+            PreferencesFactory.get().deleteProperty("queue.download.segments.size");
+        }
+    }
+
     @Test
     public void testPrepareDirectoryExists() throws Exception {
         final NullSession session = new NullSession(new Host(new TestProtocol()));
@@ -0,0 +1,70 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.local.DefaultLocalTouchFeature;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SegmentJournalTest {
+
+    @Test
+    public void testRead() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final SegmentJournal journal = new SegmentJournal(local);
+        assertFalse(journal.exists());
+        assertTrue(journal.read(10L, 4L).isEmpty());
+        journal.create(10L, 4L);
+        assertTrue(journal.exists());
+        journal.add(1, 4L);
+        journal.add(2, 6L);
+        journal.add(3, 10L);
+        journal.add(2, 7L);
+        final Map<Integer, Long> expected = new HashMap<>();
+        expected.put(1, 4L);
+        expected.put(2, 7L);
+        expected.put(3, 10L);
+        assertEquals(expected, journal.read(10L, 4L));
+        // Different segmentation
+        assertEquals(Collections.emptyMap(), journal.read(10L, 5L));
+        journal.create(10L, 4L);
+        assertTrue(journal.read(10L, 4L).isEmpty());
+        journal.delete();
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    public void testCreateDeleteLegacySegments() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final Local folder = new Local(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
+        folder.mkdir();
+        new DefaultLocalTouchFeature().touch(new Local(folder, String.format("%s-1.cyberducksegment", local.getName())));
+        final SegmentJournal journal = new SegmentJournal(local);
+        assertFalse(journal.exists());
+        journal.create(10L, 4L);
+        assertTrue(journal.exists());
+        assertFalse(folder.exists());
+        journal.delete();
+    }
+}
@@ -1,18 +1,25 @@
 package ch.cyberduck.core.worker;
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.pool.SessionPool;
 
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class CalculateSizeWorkerTest {
 
@@ -46,4 +53,38 @@ public class CalculateSizeWorkerTest {
             }
         }.run(new NullSession(new Host(new TestProtocol()))), 0L);
     }
+
+    @Test
+    public void testRunConcurrentListing() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path subdirectory = new Path(directory, "s", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.file));
+        a.attributes().setSize(2L);
+        final Path b = new Path(subdirectory, "b", EnumSet.of(Path.Type.file));
+        b.attributes().setSize(5L);
+        final Set<Path> listed = Collections.synchronizedSet(new HashSet<Path>());
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                // Each directory is only listed once
+                assertTrue(listed.add(file));
+                if(file.equals(directory)) {
+                    return new AttributedList<Path>(Arrays.asList(a, subdirectory));
+                }
+                if(file.equals(subdirectory)) {
+                    return new AttributedList<Path>(Collections.singletonList(b));
+                }
+                fail();
+                return null;
+            }
+        };
+        assertEquals(7L, new CalculateSizeWorker(Collections.singletonList(directory),
+                new DisabledProgressListener(), new SessionPool.SingleSessionPool(session)) {
+            @Override
+            protected void update(final long size) {
+                //
+            }
+        }.run(session), 0L);
+        assertEquals(2, listed.size());
+    }
 }
@@ -0,0 +1,116 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.NullFilter;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.pool.SessionPool;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentListServiceTest {
+
+    @Test
+    public void testListBeforeTreeComplete() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path subdirectory = new Path(directory, "s", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(subdirectory, "f", EnumSet.of(Path.Type.file));
+        final CountDownLatch retrieved = new CountDownLatch(1);
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) throws ConnectionCanceledException {
+                if(folder.equals(directory)) {
+                    return new AttributedList<Path>(Collections.singletonList(subdirectory));
+                }
+                if(folder.equals(subdirectory)) {
+                    try {
+                        // Block until listing of parent is handed out
+                        retrieved.await();
+                    }
+                    catch(InterruptedException e) {
+                        throw new ConnectionCanceledException(e);
+                    }
+                    return new AttributedList<Path>(Collections.singletonList(file));
+                }
+                fail();
+                return null;
+            }
+        };
+        final ConcurrentListService service = new ConcurrentListService(new SessionPool.SingleSessionPool(session), new Worker<Void>() {
+        }, 2, 10).walk(Collections.singletonList(directory), new NullFilter<Path>(), new DisabledListProgressListener());
+        try {
+            assertEquals(Collections.singletonList(subdirectory), service.list(directory, new DisabledListProgressListener()).toList());
+            retrieved.countDown();
+            assertEquals(Collections.singletonList(file), service.list(subdirectory, new DisabledListProgressListener()).toList());
+        }
+        finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testLookahead() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final List<Path> subdirectories = new ArrayList<Path>();
+        for(int i = 0; i < 10; i++) {
+            subdirectories.add(new Path(directory, String.valueOf(i), EnumSet.of(Path.Type.directory)));
+        }
+        final Set<Path> listed = Collections.synchronizedSet(new HashSet<Path>());
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) {
+                // Each directory is only listed once
+                assertTrue(listed.add(folder));
+                if(folder.equals(directory)) {
+                    return new AttributedList<Path>(subdirectories);
+                }
+                return new AttributedList<Path>();
+            }
+        };
+        final ConcurrentListService service = new ConcurrentListService(new SessionPool.SingleSessionPool(session), new Worker<Void>() {
+        }, 1, 2).walk(Collections.singletonList(directory), new NullFilter<Path>(), new DisabledListProgressListener());
+        try {
+            assertEquals(subdirectories, service.list(directory, new DisabledListProgressListener()).toList());
+            Thread.sleep(500L);
+            // Stop listing when limit of listings not retrieved is reached
+            assertTrue(listed.size() <= 3);
+            for(Path subdirectory : subdirectories) {
+                assertTrue(service.list(subdirectory, new DisabledListProgressListener()).isEmpty());
+            }
+            assertEquals(11, listed.size());
+        }
+        finally {
+            service.shutdown();
+        }
+    }
+}
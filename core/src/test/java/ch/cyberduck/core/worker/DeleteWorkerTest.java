@@ -13,9 +13,11 @@ import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -74,6 +76,115 @@ public class DeleteWorkerTest {
         assertEquals(4, worker.run(session).size());
     }
 
+    @Test
+    public void testPipeline() throws Exception {
+        final List<Path> deleted = Collections.synchronizedList(new ArrayList<Path>());
+        final Session session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new Delete() {
+                        @Override
+                        public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) {
+                            if(files.contains(new Path("/t", EnumSet.of(Path.Type.directory)))) {
+                                // Directories last after files deleted in batches
+                                assertEquals(Arrays.asList(new Path("/t/a", EnumSet.of(Path.Type.file)), new Path("/t/d/b", EnumSet.of(Path.Type.file))), deleted);
+                                assertEquals(Arrays.asList(new Path("/t/d", EnumSet.of(Path.Type.directory)), new Path("/t", EnumSet.of(Path.Type.directory))), files);
+                            }
+                            else {
+                                assertEquals(1, files.size());
+                            }
+                            deleted.addAll(files);
+                        }
+
+                        @Override
+                        public boolean isRecursive() {
+                            return false;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                if(file.equals(new Path("/t", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Arrays.asList(
+                        new Path("/t/a", EnumSet.of(Path.Type.file)),
+                        new Path("/t/d", EnumSet.of(Path.Type.directory))
+                    ));
+                }
+                if(file.equals(new Path("/t/d", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Collections.singletonList(
+                        new Path("/t/d/b", EnumSet.of(Path.Type.file))
+                    ));
+                }
+                fail();
+                return null;
+            }
+        };
+        PreferencesFactory.get().setProperty("delete.pipeline.size", 1);
+        try {
+            final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(),
+                Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))), PathCache.empty(),
+                new DisabledProgressListener());
+            assertEquals(4, worker.run(session).size());
+            assertEquals(4, deleted.size());
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("delete.pipeline.size");
+        }
+    }
+
+    @Test
+    public void testPipelineDuplicate() throws Exception {
+        final List<Path> deleted = Collections.synchronizedList(new ArrayList<Path>());
+        final Session session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new Delete() {
+                        @Override
+                        public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) {
+                            deleted.addAll(files);
+                        }
+
+                        @Override
+                        public boolean isRecursive() {
+                            return false;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                if(file.equals(new Path("/t", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Collections.singletonList(
+                        new Path("/t/a", EnumSet.of(Path.Type.file))
+                    ));
+                }
+                fail();
+                return null;
+            }
+        };
+        PreferencesFactory.get().setProperty("delete.pipeline.size", 1);
+        try {
+            // File selected together with parent directory
+            final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(),
+                Arrays.asList(new Path("/t", EnumSet.of(Path.Type.directory)), new Path("/t/a", EnumSet.of(Path.Type.file))), PathCache.empty(),
+                new DisabledProgressListener());
+            assertEquals(2, worker.run(session).size());
+            assertEquals(Arrays.asList(new Path("/t/a", EnumSet.of(Path.Type.file)), new Path("/t", EnumSet.of(Path.Type.directory))), deleted);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("delete.pipeline.size");
+        }
+    }
+
     @Test
     public void testSymlink() throws Exception {
         final Session session = new NullSession(new Host(new TestProtocol())) {
@@ -7,6 +7,7 @@ import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.DisabledNotificationService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
 import ch.cyberduck.core.transfer.DisabledTransferPrompt;
 import ch.cyberduck.core.transfer.DownloadTransfer;
@@ -21,9 +22,15 @@ import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -242,6 +249,198 @@ public class SingleTransferWorkerTest {
         assertTrue(worker.getCache().isEmpty());
     }
 
+    @Test
+    public void testUploadPipeline() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public AttributedList<Local> list() {
+                AttributedList<Local> l = new AttributedList<Local>();
+                l.add(new NullLocal(this.getAbsolute(), "a"));
+                l.add(new NullLocal(this.getAbsolute(), "b"));
+                return l;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final List<Path> transferred = new ArrayList<Path>();
+        final Transfer t = new UploadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final ProgressListener listener, final StreamListener streamListener) {
+                transferred.add(file);
+                return file;
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return new AttributedList<Path>(Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))));
+            }
+        };
+        PreferencesFactory.get().setProperty("queue.pipeline.enable", true);
+        PreferencesFactory.get().setProperty("queue.pipeline.limit", 1);
+        try {
+            final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.overwrite;
+                }
+            }, new DisabledTransferErrorCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(), new DisabledNotificationService()) {
+                @Override
+                public Future<TransferStatus> prepare(final Path file, final Local local, final TransferStatus parent, final TransferAction action) throws BackgroundException {
+                    if(!file.equals(root)) {
+                        // Parent directory transferred before preparing children
+                        assertTrue(transferred.contains(root));
+                    }
+                    return super.prepare(file, local, parent, action);
+                }
+            };
+            worker.run();
+            assertEquals(3, transferred.size());
+            assertEquals(root, transferred.get(0));
+            assertEquals(new Path(root, "a", EnumSet.of(Path.Type.file)), transferred.get(1));
+            assertEquals(new Path(root, "b", EnumSet.of(Path.Type.file)), transferred.get(2));
+            assertTrue(worker.getCache().isEmpty());
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.pipeline.enable");
+            PreferencesFactory.get().deleteProperty("queue.pipeline.limit");
+        }
+    }
+
+    @Test
+    public void testUploadPipelinePrePost() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public AttributedList<Local> list() {
+                AttributedList<Local> l = new AttributedList<Local>();
+                l.add(new NullLocal(this.getAbsolute(), "a"));
+                l.add(new NullLocal(this.getAbsolute(), "b"));
+                return l;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final List<Integer> pre = new ArrayList<Integer>();
+        final List<Integer> post = new ArrayList<Integer>();
+        final Transfer t = new UploadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public void pre(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
+                pre.add(files.size());
+                super.pre(source, destination, files, callback);
+            }
+
+            @Override
+            public void post(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
+                post.add(files.size());
+                super.post(source, destination, files, callback);
+            }
+
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final ProgressListener listener, final StreamListener streamListener) {
+                return file;
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return new AttributedList<Path>(Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))));
+            }
+        };
+        PreferencesFactory.get().setProperty("queue.pipeline.enable", true);
+        try {
+            final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.overwrite;
+                }
+            }, new DisabledTransferErrorCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(), new DisabledNotificationService());
+            worker.run();
+            // Root directory and then both children in one batch
+            assertEquals(Arrays.asList(1, 2), pre);
+            // Post processing for each batch when transferred
+            assertEquals(Arrays.asList(1, 2), post);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.pipeline.enable");
+        }
+    }
+
+    @Test
+    public void testUploadPipelineStatusBounded() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public AttributedList<Local> list() {
+                AttributedList<Local> l = new AttributedList<Local>();
+                for(int i = 0; i < 100; i++) {
+                    l.add(new NullLocal(this.getAbsolute(), String.format("f-%d", i)));
+                }
+                return l;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final AtomicReference<SingleTransferWorker> reference = new AtomicReference<SingleTransferWorker>();
+        final AtomicInteger max = new AtomicInteger();
+        final AtomicInteger count = new AtomicInteger();
+        final Transfer t = new UploadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final ProgressListener listener, final StreamListener streamListener) {
+                count.incrementAndGet();
+                max.set(Math.max(max.get(), reference.get().getStatus().size()));
+                return file;
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return new AttributedList<Path>(Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))));
+            }
+        };
+        PreferencesFactory.get().setProperty("queue.pipeline.enable", true);
+        PreferencesFactory.get().setProperty("queue.pipeline.limit", 10);
+        try {
+            final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.overwrite;
+                }
+            }, new DisabledTransferErrorCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(), new DisabledNotificationService());
+            reference.set(worker);
+            worker.run();
+            assertEquals(101, count.get());
+            // Status of files transferred is removed for each batch
+            assertTrue(max.get() <= 10);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.pipeline.enable");
+            PreferencesFactory.get().deleteProperty("queue.pipeline.limit");
+        }
+    }
+
     @Test(expected = NotfoundException.class)
     public void testUploadFileNotFound() throws Exception {
         // #7791
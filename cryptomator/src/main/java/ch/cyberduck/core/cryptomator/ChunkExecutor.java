@@ -0,0 +1,121 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.cryptomator.cryptolib.api.CryptoException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared pool to encrypt and decrypt chunks of file content and filenames on multiple cores. Chunks are independent
+ * with their own nonce and chunk number and results are consumed in order of submission by the stream.
+ */
+final class ChunkExecutor {
+
+    private static final ChunkExecutor instance = new ChunkExecutor(
+        PreferencesFactory.get().getInteger("cryptomator.chunk.concurrency"));
+
+    public static ChunkExecutor get() {
+        return instance;
+    }
+
+    private final int concurrency;
+
+    private ThreadPool pool;
+
+    /**
+     * @param concurrency Number of threads. Run on caller thread if not greater than one
+     */
+    public ChunkExecutor(final int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return Maximum number of chunks pending per stream
+     */
+    public int window() {
+        return concurrency > 1 ? 2 * concurrency : 1;
+    }
+
+    public <T> Future<T> submit(final Callable<T> command) {
+        if(concurrency > 1) {
+            return this.pool().execute(command);
+        }
+        final FutureTask<T> task = new FutureTask<>(command);
+        task.run();
+        return task;
+    }
+
+    private synchronized ThreadPool pool() {
+        if(null == pool) {
+            pool = ThreadPoolFactory.get("crypto", concurrency);
+            final AbstractExecutorService service = pool.executor();
+            if(service instanceof ThreadPoolExecutor) {
+                final ThreadPoolExecutor executor = (ThreadPoolExecutor) service;
+                if(executor.getKeepAliveTime(TimeUnit.SECONDS) > 0) {
+                    // Release idle threads when no vault is accessed
+                    executor.allowCoreThreadTimeOut(true);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Wait for chunk
+     *
+     * @param future Result of {@link #submit(Callable)}
+     */
+    public static <T> T get(final Future<T> future) throws IOException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch(ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof CryptoException) {
+                throw new IOException(cause.getMessage(), new CryptoAuthenticationException(cause.getMessage(), cause));
+            }
+            if(cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ChunkExecutor{");
+        sb.append("concurrency=").append(concurrency);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -15,16 +15,24 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.BufferPool;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
-import org.cryptomator.cryptolib.api.CryptoException;
 import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
+/**
+ * Reads ahead ciphertext chunks to decrypt concurrently and returns cleartext in order of chunks
+ */
 public class CryptoInputStream extends ProxyInputStream {
 
     private final InputStream proxy;
@@ -39,6 +47,16 @@ public class CryptoInputStream extends ProxyInputStream {
     private long chunkIndexOffset;
     private final int chunkSize;
 
+    private final ChunkExecutor executor = ChunkExecutor.get();
+    /**
+     * Chunks read and submitted for decryption
+     */
+    private final Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+    /**
+     * End of ciphertext reached
+     */
+    private boolean eof;
+
     public CryptoInputStream(final InputStream proxy, final Cryptor cryptor, final FileHeader header, final long chunkIndexOffset) {
         super(proxy);
         this.proxy = proxy;
@@ -79,20 +97,49 @@ public class CryptoInputStream extends ProxyInputStream {
         return IOUtils.skip(this, len);
     }
 
-    private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
-        if(read == 0) {
-            return IOUtils.EOF;
+    @Override
+    public void close() throws IOException {
+        for(Future<ByteBuffer> future : pending) {
+            future.cancel(false);
         }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
-        try {
-            buffer = cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
+        pending.clear();
+        super.close();
+    }
+
+    /**
+     * @return Length of cleartext chunk or EOF
+     */
+    private int readNextChunk() throws IOException {
+        while(!eof && pending.size() < executor.window()) {
+            final ByteBuffer ciphertextBuf = BufferPool.get().borrow(chunkSize);
+            final int read = IOUtils.read(proxy, ciphertextBuf.array(), ciphertextBuf.arrayOffset(), chunkSize);
+            if(read < chunkSize) {
+                // Partial last chunk
+                eof = true;
+            }
+            if(read == 0) {
+                BufferPool.get().release(ciphertextBuf);
+                break;
+            }
+            ciphertextBuf.limit(read);
+            final long chunkIndex = chunkIndexOffset++;
+            pending.add(executor.submit(new Callable<ByteBuffer>() {
+                @Override
+                public ByteBuffer call() {
+                    try {
+                        return cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndex, header, true);
+                    }
+                    finally {
+                        BufferPool.get().release(ciphertextBuf);
+                    }
+                }
+            }));
         }
-        catch(CryptoException e) {
-            throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+        final Future<ByteBuffer> next = pending.poll();
+        if(null == next) {
+            return IOUtils.EOF;
         }
-        return read;
+        buffer = ChunkExecutor.get(next);
+        return buffer.remaining();
     }
 }
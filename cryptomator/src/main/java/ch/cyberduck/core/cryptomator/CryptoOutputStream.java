@@ -16,19 +16,22 @@ package ch.cyberduck.core.cryptomator;
  */
 
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.BufferPool;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.random.NonceGenerator;
 
 import org.apache.commons.io.output.ProxyOutputStream;
-import org.cryptomator.cryptolib.api.CryptoException;
 import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
@@ -56,6 +59,9 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         write(b, 0, b.length);
     }
 
+    /**
+     * Encrypts chunks concurrently and writes ciphertext in order of chunks
+     */
     private static final class EncryptingOutputStream extends ProxyOutputStream {
         private final Cryptor cryptor;
         private final FileHeader header;
@@ -63,6 +69,12 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         private final NonceGenerator nonces;
         private long chunkIndexOffset;
 
+        private final ChunkExecutor executor = ChunkExecutor.get();
+        /**
+         * Chunks submitted for encryption not yet written
+         */
+        private final Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+
         public EncryptingOutputStream(final OutputStream proxy, final Cryptor cryptor, final FileHeader header,
                                       final NonceGenerator nonces, final long chunkIndexOffset) {
             super(proxy);
@@ -80,17 +92,76 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
+            for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                final int chunkLen = Math.min(chunksize, off + len - chunkOffset);
+                // Copy as array is reused by caller
+                final ByteBuffer cleartext = BufferPool.get().borrow(chunkLen);
+                cleartext.put(b, chunkOffset, chunkLen);
+                cleartext.flip();
+                // Chunk number and nonce are assigned in order
+                final long chunkIndex = chunkIndexOffset++;
+                final byte[] nonce = nonces.next();
+                pending.add(executor.submit(new Callable<ByteBuffer>() {
+                    @Override
+                    public ByteBuffer call() {
+                        try {
+                            return cryptor.fileContentCryptor().encryptChunk(cleartext, chunkIndex, header, nonce);
+                        }
+                        finally {
+                            BufferPool.get().release(cleartext);
+                        }
+                    }
+                }));
+                while(pending.size() >= executor.window()) {
+                    this.next();
+                }
+            }
+        }
+
+        /**
+         * Write ciphertext of next chunk
+         */
+        private void next() throws IOException {
+            final ByteBuffer encryptedChunk;
             try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
-                    final ByteBuffer encryptedChunk = cryptor.fileContentCryptor().encryptChunk(
-                            ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
-                            chunkIndexOffset++, header, nonces.next());
-                    super.write(encryptedChunk.array());
+                encryptedChunk = ChunkExecutor.get(pending.peek());
+            }
+            catch(IOException e) {
+                this.cancel();
+                throw e;
+            }
+            pending.poll();
+            super.write(encryptedChunk.array(), encryptedChunk.arrayOffset() + encryptedChunk.position(), encryptedChunk.remaining());
+        }
+
+        private void cancel() {
+            for(Future<ByteBuffer> future : pending) {
+                future.cancel(false);
+            }
+            pending.clear();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            while(!pending.isEmpty()) {
+                this.next();
+            }
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                while(!pending.isEmpty()) {
+                    this.next();
                 }
             }
-            catch(CryptoException e) {
-                throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+            catch(IOException e) {
+                this.cancel();
+                throw e;
+            }
+            finally {
+                super.close();
             }
         }
     }
@@ -21,6 +21,7 @@ import ch.cyberduck.core.cryptomator.impl.CryptoDirectoryProvider;
 import ch.cyberduck.core.cryptomator.impl.CryptoFilenameProvider;
 import ch.cyberduck.core.cryptomator.random.FastSecureRandomProvider;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LoginCanceledException;
 import ch.cyberduck.core.features.*;
@@ -28,6 +29,8 @@ import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultTouchFeature;
 import ch.cyberduck.core.shared.DefaultUrlProvider;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.unicode.NFCNormalizer;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
@@ -45,8 +48,16 @@ import org.cryptomator.cryptolib.v1.Version1CryptorModule;
 
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -385,7 +396,106 @@ public class CryptoVault implements Vault {
             log.warn(String.format("Skip file %s because it is marked as an internal vault path", file));
             return file;
         }
-        final Path inflated = this.inflate(session, file);
+        return this.decrypt(file, this.inflate(session, file));
+    }
+
+    /**
+     * Decrypt files of directory listing. Long filenames are read concurrently for protocols allowing concurrent
+     * requests with a single connection. Filenames are decrypted concurrently. Directory ids of child folders are
+     * only read when required from the metadata file referenced as encrypted file.
+     *
+     * @param files Encrypted files in listing
+     * @return Decrypted file by encrypted file. Missing for files failing to decrypt
+     * @throws ConnectionCanceledException Interrupted
+     */
+    public Map<Path, Path> decrypt(final Session<?> session, final List<Path> files) throws ConnectionCanceledException {
+        final boolean concurrent = !session.getHost().getProtocol().isStateful();
+        final ThreadPool pool = concurrent ? ThreadPoolFactory.get("vault", preferences.getInteger("cryptomator.metadata.concurrency")) : null;
+        try {
+            // Read long filenames from metadata files
+            final Map<Path, Future<Path>> inflated = new IdentityHashMap<>();
+            final Map<Path, Path> result = new IdentityHashMap<>();
+            for(Path file : files) {
+                if(file.getType().contains(Path.Type.decrypted) || file.getType().contains(Path.Type.vault)) {
+                    result.put(file, file);
+                    continue;
+                }
+                inflated.put(file, this.submit(filenameProvider.isDeflated(file.getName()) ? pool : null, new Callable<Path>() {
+                    @Override
+                    public Path call() throws BackgroundException {
+                        return inflate(session, file);
+                    }
+                }));
+            }
+            // Decrypt filenames
+            final Map<Path, Future<Path>> decrypted = new IdentityHashMap<>();
+            for(Map.Entry<Path, Future<Path>> entry : inflated.entrySet()) {
+                final Path inflate = this.await(entry.getKey(), entry.getValue());
+                if(null == inflate) {
+                    continue;
+                }
+                decrypted.put(entry.getKey(), ChunkExecutor.get().submit(new Callable<Path>() {
+                    @Override
+                    public Path call() throws BackgroundException {
+                        return decrypt(entry.getKey(), inflate);
+                    }
+                }));
+            }
+            for(Map.Entry<Path, Future<Path>> entry : decrypted.entrySet()) {
+                final Path file = this.await(entry.getKey(), entry.getValue());
+                if(null == file) {
+                    continue;
+                }
+                result.put(entry.getKey(), file);
+            }
+            // Files missing in result failed to decrypt
+            return result;
+        }
+        finally {
+            if(pool != null) {
+                pool.shutdown(false);
+            }
+        }
+    }
+
+    /**
+     * @param pool Run on caller thread if null
+     */
+    private <T> Future<T> submit(final ThreadPool pool, final Callable<T> command) {
+        if(null == pool) {
+            final FutureTask<T> task = new FutureTask<>(command);
+            task.run();
+            return task;
+        }
+        return pool.execute(command);
+    }
+
+    /**
+     * @return Null on failure
+     */
+    private <T> T await(final Path file, final Future<T> future) throws ConnectionCanceledException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                log.error(String.format("Failure decrypting %s. %s", file, ((BackgroundException) e.getCause()).getDetail()));
+            }
+            else {
+                log.error(String.format("Failure decrypting %s. %s", file, e.getCause().getMessage()));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @param file     Encrypted file
+     * @param inflated File with long filename read from metadata
+     */
+    private Path decrypt(final Path file, final Path inflated) throws BackgroundException {
         final Matcher m = BASE32_PATTERN.matcher(inflated.getName());
         if(m.find()) {
             final String ciphertext = m.group(1);
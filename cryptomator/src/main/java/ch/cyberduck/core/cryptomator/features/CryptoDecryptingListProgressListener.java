@@ -0,0 +1,91 @@
+package ch.cyberduck.core.cryptomator.features;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.cryptomator.CryptoVault;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.vault.DecryptingListProgressListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decrypt all new files of a listing chunk at once to read metadata and decrypt filenames concurrently
+ */
+public class CryptoDecryptingListProgressListener extends DecryptingListProgressListener {
+
+    private final Session<?> session;
+    private final CryptoVault vault;
+
+    /**
+     * Decrypted files of current chunk by encrypted file
+     */
+    private Map<Path, Path> decrypted = Collections.emptyMap();
+    /**
+     * Number of files in list already decrypted
+     */
+    private int offset;
+
+    public CryptoDecryptingListProgressListener(final Session<?> session, final CryptoVault vault, final ListProgressListener delegate) {
+        super(session, vault, delegate);
+        this.session = session;
+        this.vault = vault;
+    }
+
+    @Override
+    public CryptoDecryptingListProgressListener reset() {
+        super.reset();
+        offset = 0;
+        return this;
+    }
+
+    @Override
+    public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
+        final List<Path> files = new ArrayList<>();
+        for(int i = offset; i < list.size(); i++) {
+            final Path f = list.get(i);
+            f.getType().add(Path.Type.encrypted);
+            files.add(f);
+        }
+        decrypted = vault.decrypt(session, files);
+        try {
+            super.chunk(folder, list);
+        }
+        finally {
+            decrypted = Collections.emptyMap();
+            offset = list.size();
+        }
+    }
+
+    @Override
+    public void visit(final AttributedList<Path> list, final int index, final Path f) {
+        final Path file = decrypted.get(f);
+        if(null == file) {
+            // Failure decrypting
+            list.remove(index);
+        }
+        else {
+            list.set(index, file);
+        }
+    }
+}
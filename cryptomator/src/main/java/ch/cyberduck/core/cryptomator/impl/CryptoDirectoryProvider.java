@@ -131,6 +131,19 @@ public class CryptoDirectoryProvider {
     }
 
     private String load(final Session<?> session, final Path directory) throws BackgroundException {
+        final Path encrypted = directory.attributes().getEncrypted();
+        if(encrypted != null && encrypted.isFile()) {
+            // Metadata file referenced from directory listing
+            try {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Read directory ID for folder %s from %s", directory, encrypted));
+                }
+                return new ContentReader(session).read(encrypted);
+            }
+            catch(NotfoundException e) {
+                log.warn(String.format("Missing metadata file %s for folder %s", encrypted, directory));
+            }
+        }
         final Path parent = this.toEncrypted(session, directory.getParent().attributes().getDirectoryId(), directory.getParent());
         final String cleartextName = directory.getName();
         final String ciphertextName = this.toEncrypted(session, parent.attributes().getDirectoryId(), cleartextName, EnumSet.of(Path.Type.directory));
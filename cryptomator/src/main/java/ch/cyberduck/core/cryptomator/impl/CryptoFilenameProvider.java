@@ -49,6 +49,12 @@ public class CryptoFilenameProvider {
     private final LRUCache<String, String> cache = LRUCache.build(
         PreferencesFactory.get().getLong("browser.cache.size"));
 
+    /**
+     * Long filenames by shortened name. Shortened name is derived from long filename and never changes
+     */
+    private final LRUCache<String, String> inflated = LRUCache.build(
+        PreferencesFactory.get().getLong("browser.cache.size"));
+
     public CryptoFilenameProvider(final Path vault) {
         this.metadataRoot = new Path(vault, METADATA_DIR_NAME, vault.getType());
     }
@@ -58,7 +64,12 @@ public class CryptoFilenameProvider {
     }
 
     public String inflate(final Session<?> session, final String shortName) throws BackgroundException {
-        return new ContentReader(session).read(this.resolve(shortName));
+        if(inflated.contains(shortName)) {
+            return inflated.get(shortName);
+        }
+        final String filename = new ContentReader(session).read(this.resolve(shortName));
+        inflated.put(shortName, filename);
+        return filename;
     }
 
     public String deflate(final Session<?> session, final String filename) throws BackgroundException {
@@ -92,6 +103,7 @@ public class CryptoFilenameProvider {
             log.info(String.format("Deflated %s to %s", filename, shortName));
         }
         cache.put(filename, shortName);
+        inflated.put(shortName, filename);
         return shortName;
     }
 
@@ -109,5 +121,6 @@ public class CryptoFilenameProvider {
 
     public void destroy() {
         cache.clear();
+        inflated.clear();
     }
 }
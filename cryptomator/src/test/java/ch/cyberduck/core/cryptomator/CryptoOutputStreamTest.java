@@ -144,4 +144,35 @@ public class CryptoOutputStreamTest {
 
         assertArrayEquals(cleartext, read);
     }
+
+    @Test
+    public void testWriteMultipleChunks() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0);
+
+        // Exceeds number of chunks encrypted concurrently
+        final byte[] cleartext = RandomUtils.nextBytes(100 * vault.getCryptor().fileContentCryptor().cleartextChunkSize() + 1);
+        for(int offset = 0; offset < cleartext.length; offset += 1000) {
+            stream.write(cleartext, offset, Math.min(1000, cleartext.length - offset));
+        }
+        stream.close();
+        assertEquals(100 * vault.getCryptor().fileContentCryptor().ciphertextChunkSize()
+            + vault.getCryptor().fileContentCryptor().ciphertextChunkSize() - vault.getCryptor().fileContentCryptor().cleartextChunkSize() + 1,
+            cipherText.size());
+
+        final byte[] read = new byte[cleartext.length];
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getCryptor(), header, 0);
+        IOUtils.readFully(cryptoInputStream, read);
+        assertEquals(IOUtils.EOF, cryptoInputStream.read(new byte[1]));
+        cryptoInputStream.close();
+
+        assertArrayEquals(cleartext, read);
+    }
 }
@@ -0,0 +1,133 @@
+package ch.cyberduck.core.cryptomator.features;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.LoginOptions;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.cryptomator.CryptoVault;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.vault.VaultCredentials;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.NullInputStream;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CryptoDecryptingListProgressListenerTest {
+
+    @Test
+    public void testChunk() throws Exception {
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Read.class) {
+                    return (T) new Read() {
+                        @Override
+                        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) {
+                            if("masterkey.cryptomator".equals(file.getName())) {
+                                final String masterKey = "{\n" +
+                                    "  \"scryptSalt\": \"NrC7QGG/ouc=\",\n" +
+                                    "  \"scryptCostParam\": 16384,\n" +
+                                    "  \"scryptBlockSize\": 8,\n" +
+                                    "  \"primaryMasterKey\": \"Q7pGo1l0jmZssoQh9rXFPKJE9NIXvPbL+HcnVSR9CHdkeR8AwgFtcw==\",\n" +
+                                    "  \"hmacMasterKey\": \"xzBqT4/7uEcQbhHFLC0YmMy4ykVKbuvJEA46p1Xm25mJNuTc20nCbw==\",\n" +
+                                    "  \"versionMac\": \"hlNr3dz/CmuVajhaiGyCem9lcVIUjDfSMLhjppcXOrM=\",\n" +
+                                    "  \"version\": 5\n" +
+                                    "}";
+                                return IOUtils.toInputStream(masterKey, Charset.defaultCharset());
+                            }
+                            return new NullInputStream(0L);
+                        }
+
+                        @Override
+                        public boolean offset(final Path file) {
+                            return false;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final Path home = new Path("/", EnumSet.of((Path.Type.directory)));
+        final List<Integer> batches = new ArrayList<>();
+        final CryptoVault vault = new CryptoVault(home) {
+            @Override
+            public Map<Path, Path> decrypt(final Session<?> session, final List<Path> files) throws ConnectionCanceledException {
+                batches.add(files.size());
+                return super.decrypt(session, files);
+            }
+        };
+        vault.load(session, new DisabledPasswordCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String title, final String reason, final LoginOptions options) {
+                return new VaultCredentials("vault");
+            }
+        }, new DisabledPasswordStore());
+        final Path directory = vault.encrypt(session, home);
+        final byte[] id = directory.attributes().getDirectoryId().getBytes(StandardCharsets.UTF_8);
+        final AtomicInteger chunks = new AtomicInteger();
+        final CryptoDecryptingListProgressListener listener = new CryptoDecryptingListProgressListener(session, vault, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path folder, final AttributedList<Path> list) {
+                chunks.incrementAndGet();
+                for(Path f : list) {
+                    assertTrue(f.getType().contains(Path.Type.decrypted));
+                }
+            }
+        });
+        final AttributedList<Path> list = new AttributedList<>();
+        list.add(new Path(directory, vault.getCryptor().fileNameCryptor().encryptFilename("f", id), EnumSet.of(Path.Type.file)));
+        list.add(new Path(directory, "invalid", EnumSet.of(Path.Type.file)));
+        list.add(new Path(directory, CryptoVault.DIR_PREFIX + vault.getCryptor().fileNameCryptor().encryptFilename("d", id), EnumSet.of(Path.Type.file)));
+        listener.chunk(directory, list);
+        // Failure decrypting removed from list
+        assertEquals(2, list.size());
+        assertEquals(new Path(home, "f", EnumSet.of(Path.Type.file, Path.Type.decrypted)), list.get(0));
+        assertEquals(new Path(home, "d", EnumSet.of(Path.Type.directory, Path.Type.decrypted)), list.get(1));
+        list.add(new Path(directory, vault.getCryptor().fileNameCryptor().encryptFilename("g", id), EnumSet.of(Path.Type.file)));
+        listener.chunk(directory, list);
+        assertEquals(3, list.size());
+        assertEquals(new Path(home, "g", EnumSet.of(Path.Type.file, Path.Type.decrypted)), list.get(2));
+        // Only new files of listing decrypted with second chunk
+        assertEquals(Arrays.asList(3, 1), batches);
+        assertEquals(2, chunks.get());
+        vault.close();
+    }
+}
@@ -27,8 +27,11 @@ import ch.cyberduck.core.SerializerFactory;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.cryptomator.CryptoInvalidFilesizeException;
 import ch.cyberduck.core.cryptomator.CryptoVault;
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.LoginCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Directory;
+import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Vault;
 import ch.cyberduck.core.features.Write;
@@ -38,12 +41,19 @@ import ch.cyberduck.core.vault.VaultCredentials;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -487,4 +497,98 @@ public class CryptoVaultTest {
             assertEquals(i, vault.toCleartextSize(vault.toCiphertextSize(i)));
         }
     }
+
+    @Test
+    public void testDecryptList() throws Exception {
+        final Map<String, String> contents = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Read.class) {
+                    return (T) new Read() {
+                        @Override
+                        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                            if("masterkey.cryptomator".equals(file.getName())) {
+                                final String masterKey = "{\n" +
+                                    "  \"scryptSalt\": \"NrC7QGG/ouc=\",\n" +
+                                    "  \"scryptCostParam\": 16384,\n" +
+                                    "  \"scryptBlockSize\": 8,\n" +
+                                    "  \"primaryMasterKey\": \"Q7pGo1l0jmZssoQh9rXFPKJE9NIXvPbL+HcnVSR9CHdkeR8AwgFtcw==\",\n" +
+                                    "  \"hmacMasterKey\": \"xzBqT4/7uEcQbhHFLC0YmMy4ykVKbuvJEA46p1Xm25mJNuTc20nCbw==\",\n" +
+                                    "  \"versionMac\": \"hlNr3dz/CmuVajhaiGyCem9lcVIUjDfSMLhjppcXOrM=\",\n" +
+                                    "  \"version\": 5\n" +
+                                    "}";
+                                return IOUtils.toInputStream(masterKey, Charset.defaultCharset());
+                            }
+                            reads.computeIfAbsent(file.getAbsolute(), k -> new AtomicInteger()).incrementAndGet();
+                            if(!contents.containsKey(file.getAbsolute())) {
+                                throw new NotfoundException(file.getAbsolute());
+                            }
+                            return IOUtils.toInputStream(contents.get(file.getAbsolute()), StandardCharsets.UTF_8);
+                        }
+
+                        @Override
+                        public boolean offset(final Path file) {
+                            return false;
+                        }
+                    };
+                }
+                if(type == Find.class) {
+                    return (T) new Find() {
+                        @Override
+                        public boolean find(final Path file) {
+                            // Skip writing metadata file when deflating
+                            return true;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final Path home = new Path("/", EnumSet.of((Path.Type.directory)));
+        final CryptoVault vault = new CryptoVault(home);
+        vault.load(session, new DisabledPasswordCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String title, final String reason, final LoginOptions options) {
+                return new VaultCredentials("vault");
+            }
+        }, new DisabledPasswordStore());
+        final Path directory = vault.encrypt(session, home);
+        final byte[] id = directory.attributes().getDirectoryId().getBytes(StandardCharsets.UTF_8);
+        final Path file = new Path(directory, vault.getCryptor().fileNameCryptor().encryptFilename("f", id), EnumSet.of(Path.Type.file));
+        final Path folder = new Path(directory, CryptoVault.DIR_PREFIX + vault.getCryptor().fileNameCryptor().encryptFilename("d", id), EnumSet.of(Path.Type.file));
+        contents.put(folder.getAbsolute(), "id-d");
+        final String name = StringUtils.repeat("l", 200);
+        final String ciphertext = vault.getCryptor().fileNameCryptor().encryptFilename(name, id);
+        final String shortname = vault.getFilenameProvider().deflate(session, ciphertext);
+        assertTrue(vault.getFilenameProvider().isDeflated(shortname));
+        // Clear long filename cached when deflating
+        vault.getFilenameProvider().destroy();
+        final String metadata = vault.getFilenameProvider().resolve(shortname).getAbsolute();
+        contents.put(metadata, ciphertext);
+        final Path deflated = new Path(directory, shortname, EnumSet.of(Path.Type.file));
+        final Path invalid = new Path(directory, "invalid", EnumSet.of(Path.Type.file));
+        final Map<Path, Path> decrypted = vault.decrypt(session, Arrays.asList(file, folder, deflated, invalid));
+        assertEquals(3, decrypted.size());
+        assertEquals(new Path(home, "f", EnumSet.of(Path.Type.file, Path.Type.decrypted)), decrypted.get(file));
+        assertEquals(new Path(home, "d", EnumSet.of(Path.Type.directory, Path.Type.decrypted)), decrypted.get(folder));
+        assertEquals(new Path(home, name, EnumSet.of(Path.Type.file, Path.Type.decrypted)), decrypted.get(deflated));
+        assertFalse(decrypted.containsKey(invalid));
+        assertSame(folder, decrypted.get(folder).attributes().getEncrypted());
+        // No directory id read for child folder when listing
+        assertNull(reads.get(folder.getAbsolute()));
+        assertEquals(1, reads.get(metadata).get());
+        // Long filename cached
+        final Path again = new Path(directory, shortname, EnumSet.of(Path.Type.file));
+        assertEquals(new Path(home, name, EnumSet.of(Path.Type.file, Path.Type.decrypted)),
+            vault.decrypt(session, Collections.singletonList(again)).get(again));
+        assertEquals(1, reads.get(metadata).get());
+        // Directory id read from metadata file referenced in listing when required
+        assertEquals("id-d", vault.encrypt(session, decrypted.get(folder)).attributes().getDirectoryId());
+        assertEquals("id-d", vault.encrypt(session, decrypted.get(folder)).attributes().getDirectoryId());
+        assertEquals(1, reads.get(folder.getAbsolute()).get());
+        vault.close();
+    }
 }
@@ -19,7 +19,9 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
 import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
@@ -55,11 +57,18 @@ public class SDSCopyFeature implements Copy {
                 new CopyNodesRequest()
                     .addNodeIdsItem(Long.parseLong(nodeid.getFileid(source, new DisabledListProgressListener())))
                     .resolutionStrategy(CopyNodesRequest.ResolutionStrategyEnum.OVERWRITE), StringUtils.EMPTY, null);
+            // Replaced by new node
+            FileidStore.get().remove(session.getHost(), target);
             return new Path(target.getParent(), target.getName(), target.getType(),
                 new SDSAttributesFinderFeature(session, nodeid).toAttributes(node));
         }
         catch(ApiException e) {
-            throw new SDSExceptionMappingService().map("Cannot copy {0}", e, source);
+            final BackgroundException failure = new SDSExceptionMappingService().map("Cannot copy {0}", e, source);
+            if(failure instanceof NotfoundException) {
+                // Remove stale node id saved for source
+                FileidStore.get().remove(session.getHost(), source);
+            }
+            throw failure;
         }
     }
 
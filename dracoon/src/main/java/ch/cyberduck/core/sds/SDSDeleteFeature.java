@@ -19,7 +19,9 @@ import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
@@ -50,9 +52,15 @@ public class SDSDeleteFeature implements Delete {
             try {
                 new NodesApi(session.getClient()).deleteNode(
                     Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener())), StringUtils.EMPTY);
+                FileidStore.get().remove(session.getHost(), file);
             }
             catch(ApiException e) {
-                throw new SDSExceptionMappingService().map("Cannot delete {0}", e, file);
+                final BackgroundException failure = new SDSExceptionMappingService().map("Cannot delete {0}", e, file);
+                if(failure instanceof NotfoundException) {
+                    // Remove stale node ids saved for file and its children
+                    FileidStore.get().remove(session.getHost(), file);
+                }
+                throw failure;
             }
         }
     }
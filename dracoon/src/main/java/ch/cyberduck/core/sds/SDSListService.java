@@ -24,7 +24,9 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
 import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
@@ -85,8 +87,14 @@ public class SDSListService implements ListService {
             while(nodes.getItems().size() == chunksize);
         }
         catch(ApiException e) {
-            throw new SDSExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            final BackgroundException failure = new SDSExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            if(failure instanceof NotfoundException) {
+                FileidStore.get().remove(session.getHost(), directory);
+            }
+            throw failure;
         }
+        // Remove node ids saved for children no longer found
+        FileidStore.get().validate(session.getHost(), directory, children);
         return children;
     }
 
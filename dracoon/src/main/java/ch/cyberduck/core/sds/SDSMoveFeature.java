@@ -21,7 +21,9 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
@@ -59,6 +61,9 @@ public class SDSMoveFeature implements Move {
                 new SDSDeleteFeature(session, nodeid).delete(Collections.singletonList(renamed), connectionCallback, callback);
             }
             final long nodeId = Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener()));
+            // Node keeps its id but previous paths are no longer valid
+            FileidStore.get().remove(session.getHost(), file);
+            FileidStore.get().remove(session.getHost(), renamed);
             if(!new SimplePathPredicate(file.getParent()).test(renamed.getParent())) {
                 // Change parent node
                 new NodesApi(session.getClient()).moveNodes(
@@ -92,7 +97,12 @@ public class SDSMoveFeature implements Move {
                 new PathAttributes(renamed.attributes()).withVersionId(file.attributes().getVersionId()));
         }
         catch(ApiException e) {
-            throw new SDSExceptionMappingService().map("Cannot rename {0}", e, file);
+            final BackgroundException failure = new SDSExceptionMappingService().map("Cannot rename {0}", e, file);
+            if(failure instanceof NotfoundException) {
+                // Remove stale node id saved for source
+                FileidStore.get().remove(session.getHost(), file);
+            }
+            throw failure;
         }
     }
 
@@ -23,6 +23,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.URIEncoder;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Encryption;
@@ -78,6 +79,12 @@ public class SDSNodeIdProvider implements IdProvider {
                 }
             }
         }
+        // Fallback to ids saved before when not found in directory cache
+        final String cached = FileidStore.get().get(session.getHost(), file);
+        if(StringUtils.isNotBlank(cached)) {
+            file.attributes().setVersionId(cached);
+            return cached;
+        }
         try {
             final String type;
             if(file.isDirectory()) {
@@ -108,6 +115,7 @@ public class SDSNodeIdProvider implements IdProvider {
 
     protected String set(final Path file, final String id) {
         file.attributes().setVersionId(id);
+        FileidStore.get().put(session.getHost(), file, id);
         return id;
     }
 
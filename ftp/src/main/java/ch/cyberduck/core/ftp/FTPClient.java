@@ -174,26 +174,58 @@ public class FTPClient extends FTPSClient {
     }
 
     public List<String> list(final FTPCmd command, final String pathname) throws IOException {
+        final List<String> results = new ArrayList<String>();
+        try(BufferedReader reader = this.listing(command, pathname)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                results.add(line);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Open data connection for directory listing. Lines are returned as they are received. Closing the reader
+     * closes the data connection and reads the completion reply of the command.
+     *
+     * @param command  Listing command
+     * @param pathname Argument or null
+     * @return Reader for lines of directory listing
+     */
+    public BufferedReader listing(final FTPCmd command, final String pathname) throws IOException {
         this.pret(command, pathname);
 
-        Socket socket = _openDataConnection_(command, pathname);
+        final Socket socket = _openDataConnection_(command, pathname);
 
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(socket.getInputStream(), getControlEncoding()));
-        ArrayList<String> results = new ArrayList<String>();
-        String line;
-        while((line = reader.readLine()) != null) {
-            _commandSupport_.fireReplyReceived(-1, line);
-            results.add(line);
-        }
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), getControlEncoding())) {
+            private boolean closed;
 
-        reader.close();
-        socket.close();
+            @Override
+            public String readLine() throws IOException {
+                final String line = super.readLine();
+                if(line != null) {
+                    _commandSupport_.fireReplyReceived(-1, line);
+                }
+                return line;
+            }
 
-        if(!this.completePendingCommand()) {
-            throw new FTPException(this.getReplyCode(), this.getReplyString());
-        }
-        return results;
+            @Override
+            public void close() throws IOException {
+                if(closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                }
+                finally {
+                    socket.close();
+                }
+                if(!completePendingCommand()) {
+                    throw new FTPException(getReplyCode(), getReplyString());
+                }
+            }
+        };
     }
 
     /**
@@ -19,6 +19,7 @@ package ch.cyberduck.core.ftp;
 
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 import ch.cyberduck.core.ftp.parser.EPLFFTPEntryParser;
+import ch.cyberduck.core.ftp.parser.FastUnixFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.LaxUnixFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.RumpusFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.TrellixFTPEntryParser;
@@ -79,6 +80,8 @@ public class FTPParserFactory implements FTPFileEntryParserFactory {
 
     private CompositeFileEntryParser createUnixFTPEntryParser(final TimeZone timezone) {
         return new CompositeFileEntryParser(Arrays.asList(
+                // Without regular expression for common format
+                new FastUnixFTPEntryParser(timezone),
                 new LaxUnixFTPEntryParser() {
                     @Override
                     protected FTPClientConfig getDefaultConfiguration() {
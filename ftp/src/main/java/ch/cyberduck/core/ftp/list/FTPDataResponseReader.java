@@ -18,10 +18,62 @@ package ch.cyberduck.core.ftp.list;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface FTPDataResponseReader {
 
-    AttributedList<Path> read(Path parent, List<String> replies, ListProgressListener listener) throws FTPInvalidListException;
+    default AttributedList<Path> read(final Path parent, final List<String> replies, final ListProgressListener listener) throws FTPInvalidListException {
+        final AttributedList<Path> children = new AttributedList<Path>();
+        if(!this.parse(parent, replies, children, false)) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+
+    /**
+     * Parse lines in chunks while reading from the data connection without buffering the complete reply
+     *
+     * @param parent   Directory
+     * @param replies  Lines read from data connection
+     * @param listener Notified with files parsed after every chunk
+     * @return Files parsed
+     */
+    default AttributedList<Path> read(final Path parent, final BufferedReader replies, final ListProgressListener listener) throws IOException, BackgroundException {
+        final int chunksize = PreferencesFactory.get().getInteger("ftp.listing.chunksize");
+        final AttributedList<Path> children = new AttributedList<Path>();
+        final List<String> lines = new ArrayList<String>(chunksize);
+        boolean success = false;
+        String line;
+        while((line = replies.readLine()) != null) {
+            lines.add(line);
+            if(lines.size() == chunksize) {
+                success = this.parse(parent, lines, children, success);
+                lines.clear();
+                if(success) {
+                    listener.chunk(parent, children);
+                }
+            }
+        }
+        success = this.parse(parent, lines, children, success);
+        if(!success) {
+            throw new FTPInvalidListException(children);
+        }
+        listener.chunk(parent, children);
+        return children;
+    }
+
+    /**
+     * @param parent   Directory
+     * @param lines    Reply lines
+     * @param children Files parsed are added to this list
+     * @param success  At least one entry successfully parsed from previous lines
+     * @return True if at least one entry has been successfully parsed
+     */
+    boolean parse(Path parent, List<String> lines, AttributedList<Path> children, boolean success);
 }
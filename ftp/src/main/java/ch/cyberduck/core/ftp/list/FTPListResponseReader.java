@@ -17,7 +17,6 @@ package ch.cyberduck.core.ftp.list;
 
 import ch.cyberduck.core.AbstractPath;
 import ch.cyberduck.core.AttributedList;
-import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
@@ -48,10 +47,9 @@ public class FTPListResponseReader implements FTPDataResponseReader {
     }
 
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener) throws FTPInvalidListException {
-        final AttributedList<Path> children = new AttributedList<Path>();
+    public boolean parse(final Path directory, final List<String> replies, final AttributedList<Path> children, final boolean previous) {
         // At least one entry successfully parsed
-        boolean success = false;
+        boolean success = previous;
         // Call hook for those implementors which need to perform some action upon the list after it has been created
         // from the server stream, but before any clients see the list
         parser.preParse(replies);
@@ -160,9 +158,6 @@ public class FTPListResponseReader implements FTPDataResponseReader {
             }
             children.add(parsed);
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
-        }
-        return children;
+        return success;
     }
 }
@@ -16,7 +16,6 @@ package ch.cyberduck.core.ftp.list;
      */
 
 import ch.cyberduck.core.AttributedList;
-import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
@@ -45,10 +44,9 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
     }
 
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener) throws FTPInvalidListException {
-        final AttributedList<Path> children = new AttributedList<Path>();
+    public boolean parse(final Path directory, final List<String> replies, final AttributedList<Path> children, final boolean previous) {
         // At least one entry successfully parsed
-        boolean success = false;
+        boolean success = previous;
         for(String line : replies) {
             final Map<String, Map<String, String>> file = this.parseFacts(line);
             if(null == file) {
@@ -166,10 +164,7 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
                 children.add(parsed);
             }
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
-        }
-        return children;
+        return success;
     }
 
     /**
@@ -0,0 +1,418 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import org.apache.commons.net.ftp.Configurable;
+import org.apache.commons.net.ftp.FTPClientConfig;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParserImpl;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Single pass parser for the common <code>ls -l</code> format with group, size in bytes and English month names
+ * such as <code>drwxr-xr-x 3 ftp ftp 512 Mar 15 2004 doc</code>. Returns null for any other format to fallback to
+ * the regular expression based parsers. Results are equal to {@link LaxUnixFTPEntryParser}.
+ */
+public class FastUnixFTPEntryParser extends FTPFileEntryParserImpl implements Configurable {
+
+    private static final String MONTHS = "janfebmaraprmayjunjulaugsepoctnovdec";
+    private static final int[] DAYS = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private TimeZone timezone;
+    /**
+     * Cleared calendar in server timezone
+     */
+    private GregorianCalendar prototype;
+    /**
+     * Time of last update of current year and limit
+     */
+    private long reference;
+    /**
+     * Latest time accepted for recent files
+     */
+    private long limit;
+    /**
+     * Year of recent files
+     */
+    private int current;
+    /**
+     * Disabled for configuration with localized month names
+     */
+    private boolean enabled = true;
+
+    public FastUnixFTPEntryParser() {
+        this(TimeZone.getDefault());
+    }
+
+    public FastUnixFTPEntryParser(final TimeZone timezone) {
+        this.zone(timezone);
+    }
+
+    private void zone(final TimeZone timezone) {
+        this.timezone = timezone;
+        this.prototype = new GregorianCalendar(timezone);
+        this.prototype.clear();
+        this.reference = 0L;
+    }
+
+    @Override
+    public void configure(final FTPClientConfig config) {
+        if(null == config) {
+            return;
+        }
+        if(config.getServerTimeZoneId() != null) {
+            this.zone(TimeZone.getTimeZone(config.getServerTimeZoneId()));
+        }
+        enabled = null == config.getShortMonthNames()
+            && (null == config.getServerLanguageCode() || "en".equals(config.getServerLanguageCode()));
+    }
+
+    @Override
+    public FTPFile parseFTPEntry(final String entry) {
+        if(!enabled) {
+            return null;
+        }
+        final int length = entry.length();
+        // Type and permission flags
+        if(length < 11) {
+            return null;
+        }
+        final char type = entry.charAt(0);
+        switch(type) {
+            case 'b':
+            case 'c':
+            case 'd':
+            case 'l':
+            case 'f':
+            case 'm':
+            case 'p':
+            case 'S':
+            case 's':
+            case '-':
+                break;
+            default:
+                return null;
+        }
+        for(int access = 0; access < 3; access++) {
+            final int offset = 1 + access * 3;
+            final char r = entry.charAt(offset);
+            final char w = entry.charAt(offset + 1);
+            final char x = entry.charAt(offset + 2);
+            if(r != 'r' && r != '-' || w != 'w' && w != '-') {
+                return null;
+            }
+            switch(x) {
+                case 'x':
+                case 's':
+                case 'S':
+                case 't':
+                case 'T':
+                case 'L':
+                case '-':
+                    break;
+                default:
+                    return null;
+            }
+        }
+        int i = 10;
+        if(entry.charAt(i) == '+') {
+            i++;
+        }
+        // Hard link count
+        int start = skip(entry, i);
+        if(start == i) {
+            return null;
+        }
+        i = token(entry, start);
+        if(!digits(entry, start, i)) {
+            return null;
+        }
+        // User
+        start = skip(entry, i);
+        if(start == i) {
+            return null;
+        }
+        i = token(entry, start);
+        if(start == i) {
+            return null;
+        }
+        final int userStart = start;
+        final int userEnd = i;
+        // Group
+        start = skip(entry, i);
+        if(start == i) {
+            return null;
+        }
+        i = token(entry, start);
+        if(start == i) {
+            return null;
+        }
+        final int groupStart = start;
+        final int groupEnd = i;
+        // Size in bytes. Missing group or human readable size is left to fallback parser
+        start = skip(entry, i);
+        if(start == i) {
+            return null;
+        }
+        i = token(entry, start);
+        if(start == i || !digits(entry, start, i)) {
+            return null;
+        }
+        final long size = number(entry, start, i);
+        // Month
+        start = skip(entry, i);
+        if(start == i) {
+            return null;
+        }
+        i = token(entry, start);
+        if(i - start != 3) {
+            return null;
+        }
+        final int month = month(entry, start);
+        if(month == -1) {
+            return null;
+        }
+        // Day
+        start = skip(entry, i);
+        if(start == i) {
+            return null;
+        }
+        i = token(entry, start);
+        if(i - start < 1 || i - start > 2 || !digits(entry, start, i)) {
+            return null;
+        }
+        final int day = (int) number(entry, start, i);
+        // Time of recent file or year
+        start = skip(entry, i);
+        if(start == i) {
+            return null;
+        }
+        i = token(entry, start);
+        final Calendar timestamp;
+        if(i - start == 4 && digits(entry, start, i)) {
+            timestamp = this.timestamp((int) number(entry, start, i), month, day, 0, 0, false);
+            // Optional additional whitespace after year
+            if(i + 1 < length && whitespace(entry.charAt(i)) && whitespace(entry.charAt(i + 1))) {
+                i++;
+            }
+        }
+        else {
+            final int colon = i - 3;
+            if(colon <= start || colon - start > 2 || entry.charAt(colon) != ':'
+                || !digits(entry, start, colon) || !digits(entry, colon + 1, i)) {
+                return null;
+            }
+            timestamp = this.timestamp(-1, month, day, (int) number(entry, start, colon), (int) number(entry, colon + 1, i), true);
+        }
+        // Single whitespace before filename
+        if(i == length || !whitespace(entry.charAt(i))) {
+            return null;
+        }
+        i++;
+        if(skip(entry, i) == length) {
+            // Missing filename
+            return null;
+        }
+        final FTPExtendedFile file = new FTPExtendedFile();
+        file.setTimestamp(timestamp);
+        switch(type) {
+            case 'd':
+                file.setType(FTPFile.DIRECTORY_TYPE);
+                break;
+            case 'l':
+                file.setType(FTPFile.SYMBOLIC_LINK_TYPE);
+                break;
+            case 'b':
+            case 'c':
+            case 'f':
+            case '-':
+                file.setType(FTPFile.FILE_TYPE);
+                break;
+            default:
+                file.setType(FTPFile.UNKNOWN_TYPE);
+        }
+        file.setUser(entry.substring(userStart, userEnd));
+        file.setGroup(entry.substring(groupStart, groupEnd));
+        for(int access = 0; access < 3; access++) {
+            final int offset = 1 + access * 3;
+            file.setPermission(access, FTPFile.READ_PERMISSION, entry.charAt(offset) != '-');
+            file.setPermission(access, FTPFile.WRITE_PERMISSION, entry.charAt(offset + 1) != '-');
+            final char execute = entry.charAt(offset + 2);
+            file.setPermission(access, FTPFile.EXECUTE_PERMISSION, execute != '-' && Character.isLowerCase(execute));
+            switch(access) {
+                case 0:
+                    file.setSetuid(execute == 's' || execute == 'S');
+                    break;
+                case 1:
+                    file.setSetgid(execute == 's' || execute == 'S');
+                    break;
+                case 2:
+                    file.setSticky(execute == 't' || execute == 'T');
+                    break;
+            }
+        }
+        file.setSize(size);
+        final String name = entry.substring(i);
+        if(file.getType() == FTPFile.SYMBOLIC_LINK_TYPE) {
+            final int end = name.indexOf(" -> ");
+            // Give up if no link indicator is present
+            if(end == -1) {
+                file.setName(name);
+            }
+            else {
+                file.setName(name.substring(0, end));
+                file.setLink(name.substring(end + 4));
+            }
+        }
+        else {
+            file.setName(name);
+        }
+        return file;
+    }
+
+    /**
+     * @param year   Year or -1 for recent file
+     * @param recent Determine year from current date
+     * @return Null if date is invalid
+     */
+    private Calendar timestamp(final int year, final int month, final int day, final int hour, final int minute, final boolean recent) {
+        if(hour > 23 || minute > 59) {
+            return null;
+        }
+        final GregorianCalendar calendar = (GregorianCalendar) prototype.clone();
+        if(recent) {
+            final long now = System.currentTimeMillis();
+            if(now < reference || now - reference > 1000L) {
+                // Allow dates up to one day in the future for server clocks ahead of local time
+                final Calendar tomorrow = (Calendar) prototype.clone();
+                tomorrow.setTimeInMillis(now);
+                tomorrow.add(Calendar.DAY_OF_MONTH, 1);
+                reference = now;
+                limit = tomorrow.getTimeInMillis();
+                current = tomorrow.get(Calendar.YEAR);
+            }
+            if(day < 1 || day > length(calendar, current, month)) {
+                return null;
+            }
+            calendar.set(current, month, day, hour, minute, 0);
+            if(calendar.getTimeInMillis() > limit) {
+                calendar.add(Calendar.YEAR, -1);
+            }
+        }
+        else {
+            if(day < 1 || day > length(calendar, year, month)) {
+                return null;
+            }
+            calendar.set(year, month, day, hour, minute, 0);
+        }
+        return calendar;
+    }
+
+    /**
+     * @return Number of days in month
+     */
+    private static int length(final GregorianCalendar calendar, final int year, final int month) {
+        if(month == Calendar.FEBRUARY) {
+            return calendar.isLeapYear(year) ? 29 : 28;
+        }
+        return DAYS[month];
+    }
+
+    /**
+     * @return Zero based month index or -1 if not an English month abbreviation
+     */
+    private static int month(final String entry, final int offset) {
+        for(int m = 0; m < 12; m++) {
+            if(entry.regionMatches(true, offset, MONTHS, m * 3, 3)) {
+                return m;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean whitespace(final char c) {
+        switch(c) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\u000B':
+            case '\f':
+            case '\r':
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Index of first character that is not whitespace
+     */
+    private static int skip(final String entry, int i) {
+        while(i < entry.length() && whitespace(entry.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return Index after last character that is not whitespace
+     */
+    private static int token(final String entry, int i) {
+        while(i < entry.length() && !whitespace(entry.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean digits(final String entry, final int start, final int end) {
+        if(start == end) {
+            return false;
+        }
+        for(int i = start; i < end; i++) {
+            final char c = entry.charAt(i);
+            if(c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Value of decimal digits or -1 on overflow
+     */
+    private static long number(final String entry, final int start, final int end) {
+        long value = 0;
+        try {
+            for(int i = start; i < end; i++) {
+                value = Math.addExact(Math.multiplyExact(value, 10L), entry.charAt(i) - '0');
+            }
+        }
+        catch(ArithmeticException e) {
+            return -1;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "FastUnixFTPEntryParser{" +
+            "timezone=" + timezone.getID() +
+            '}';
+    }
+}
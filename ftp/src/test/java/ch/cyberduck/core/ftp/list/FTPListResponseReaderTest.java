@@ -28,10 +28,13 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -243,4 +246,23 @@ public class FTPListResponseReaderTest {
         assertNull(list.get(2).getSymlinkTarget());
         assertFalse(list.get(2).isSymbolicLink());
     }
+
+    @Test
+    public void testReadChunks() throws Exception {
+        final StringBuilder replies = new StringBuilder("total 2500\n");
+        for(int i = 0; i < 2500; i++) {
+            replies.append(String.format("-rw-r--r--   1 dkocher  staff  %d Sep  6 22:27 f-%d\n", i, i));
+        }
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> list = new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"))
+            .read(new Path("/", EnumSet.of(Path.Type.directory)), new BufferedReader(new StringReader(replies.toString())), new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path parent, final AttributedList<Path> list) {
+                    assertEquals(Math.min(2500, (chunks.incrementAndGet() * 1000) - 1), list.size());
+                }
+            });
+        assertEquals(3, chunks.get());
+        assertEquals(2500, list.size());
+        assertEquals(2499L, list.get(new Path("/f-2499", EnumSet.of(Path.Type.file))).attributes().getSize());
+    }
 }
@@ -0,0 +1,114 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.ftp.FTPParserSelector;
+
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse listing lines from different servers. Run using main method with test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FastUnixFTPEntryParserBenchmark {
+
+    /**
+     * Lines returned by vsFTPd, ProFTPD, Pure-FTPd, Solaris, HP Tru64, Freebox, Rumpus and Serv-U
+     */
+    static final String[] CORPUS = {
+        "drwxr-xr-x    3 ftp      ftp           512 Mar 15  2004 doc",
+        "drwxrwxr-x    2 ftp      ftp           512 Oct 23  2007 aurox",
+        "drw-rw-rw-   1 user      ftp             0  DEC 11 20:56 ADMIN_Documentation",
+        "drwxr--r--   1 user     group          0 Feb 14 18:14 Downloads",
+        "-rw-r--r--   1 20708    205             194 Oct 17 14:40 D3I0_805.fixlist",
+        "-rw-r--r--   1 20708    205         3553312 Feb 18 2005  D3I0_515.fmr",
+        "drwxr-sr-x  14 17037    209            4096 Oct  6 2000  v3r7",
+        "drwxrwsr-x+ 34 cristol  molvis      3072 Jul 12 20:16 molvis",
+        "-rw-r--r--   1 www-data www-data      34524204 Dec 20 13:41 Winter 2008 Newsletter.sit",
+        "drwxrwxrwx   1 owner    group               0 Dec  5  0:45 adele.handmadebyflloyd.com",
+        "lrwxrwxrwx    1 mk basicgrp       27 Sep 23  2004 www -> /www/basic/mk",
+        "-rw-r--r--   1  freebox  freebox 2064965868 Apr 15 21:17 M6 - Capital 15-04-2007 21h37 1h40m.ts",
+        "-rw-rw-rw- 1 ftp operator 9.0M Mar 22 17:44 Cyberduck-2.7.3.dmg",
+        "-rw-rw-rw- 1 hoerspiel hoerspiel  3722053 19. Sep 13:24 Offenbarung 23 - Menschenopfer - 02.mp3",
+        "drwxr-xr-x               folder        0 Oct 18 13:02 Akrilik",
+        "-rw-r--r--   1 ToysPKG  advertise24809879 Jun 25 10:54 TRU-Warning Guide Master CD.sitx",
+    };
+
+    @Param({"fast", "lax", "composite"})
+    private String implementation;
+
+    @Param({"10000"})
+    private int size;
+
+    private String[] lines;
+    private FTPFileEntryParser parser;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        lines = new String[size];
+        for(int i = 0; i < size; i++) {
+            lines[i] = CORPUS[i % CORPUS.length];
+        }
+        switch(implementation) {
+            case "fast":
+                parser = new FastUnixFTPEntryParser(TimeZone.getDefault());
+                break;
+            case "lax":
+                parser = new LaxUnixFTPEntryParser();
+                break;
+            default:
+                parser = new FTPParserSelector().getParser("UNIX");
+        }
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) {
+        for(String line : lines) {
+            blackhole.consume(parser.parseFTPEntry(line));
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(FastUnixFTPEntryParserBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import org.apache.commons.net.ftp.FTPClientConfig;
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class FastUnixFTPEntryParserTest {
+
+    @Test
+    public void testParse() {
+        final FTPFile parsed = new FastUnixFTPEntryParser(TimeZone.getTimeZone("UTC")).parseFTPEntry(
+            "drwxr-sr-x  14 17037    209            4096 Oct  6 2000  v3r7");
+        assertNotNull(parsed);
+        assertEquals(FTPFile.DIRECTORY_TYPE, parsed.getType());
+        assertEquals("17037", parsed.getUser());
+        assertEquals("209", parsed.getGroup());
+        assertEquals(4096L, parsed.getSize());
+        assertEquals("v3r7", parsed.getName());
+        assertEquals(2000, parsed.getTimestamp().get(Calendar.YEAR));
+        assertEquals(Calendar.OCTOBER, parsed.getTimestamp().get(Calendar.MONTH));
+        assertEquals(6, parsed.getTimestamp().get(Calendar.DAY_OF_MONTH));
+        assertTrue(parsed.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.EXECUTE_PERMISSION));
+        assertFalse(parsed.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.WRITE_PERMISSION));
+        assertTrue(((FTPExtendedFile) parsed).isSetgid());
+    }
+
+    @Test
+    public void testParseSymbolicLink() {
+        final FTPFile parsed = new FastUnixFTPEntryParser().parseFTPEntry(
+            "lrwxrwxrwx    1 mk basicgrp       27 Sep 23  2004 www -> /www/basic/mk");
+        assertNotNull(parsed);
+        assertEquals(FTPFile.SYMBOLIC_LINK_TYPE, parsed.getType());
+        assertEquals("www", parsed.getName());
+        assertEquals("/www/basic/mk", parsed.getLink());
+    }
+
+    @Test
+    public void testFallback() {
+        final FastUnixFTPEntryParser parser = new FastUnixFTPEntryParser();
+        // Human readable size
+        assertNull(parser.parseFTPEntry("-rw-rw-rw- 1 ftp operator 9.0M Mar 22 17:44 Cyberduck-2.7.3.dmg"));
+        // Localized date
+        assertNull(parser.parseFTPEntry("-rw-rw-rw- 1 hoerspiel hoerspiel  3722053 19. Sep 13:24 Offenbarung 23 - Menschenopfer - 02.mp3"));
+        // Missing link count
+        assertNull(parser.parseFTPEntry("drwxr-xr-x               folder        0 Oct 18 13:02 Akrilik"));
+        assertNull(parser.parseFTPEntry("total 1024"));
+        assertNull(parser.parseFTPEntry("drwxr-xr-x    3 ftp      ftp           512 Mar 15  2004 "));
+    }
+
+    @Test
+    public void testEqualLax() {
+        final TimeZone zone = TimeZone.getTimeZone("Europe/Zurich");
+        final FastUnixFTPEntryParser fast = new FastUnixFTPEntryParser(zone);
+        final LaxUnixFTPEntryParser lax = new LaxUnixFTPEntryParser();
+        final FTPClientConfig config = new FTPClientConfig(FTPClientConfig.SYST_UNIX, null, null, null, null, zone.getID());
+        config.setLenientFutureDates(true);
+        lax.configure(config);
+        for(String line : FastUnixFTPEntryParserBenchmark.CORPUS) {
+            final FTPFile expected = lax.parseFTPEntry(line);
+            final FTPFile parsed = fast.parseFTPEntry(line);
+            if(null == parsed) {
+                continue;
+            }
+            assertNotNull(line, expected);
+            assertEquals(line, expected.getType(), parsed.getType());
+            assertEquals(line, expected.getName(), parsed.getName());
+            assertEquals(line, expected.getLink(), parsed.getLink());
+            assertEquals(line, expected.getUser(), parsed.getUser());
+            assertEquals(line, expected.getGroup(), parsed.getGroup());
+            assertEquals(line, expected.getSize(), parsed.getSize());
+            assertEquals(line, expected.getTimestamp().getTimeInMillis(), parsed.getTimestamp().getTimeInMillis());
+            for(int access = FTPFile.USER_ACCESS; access <= FTPFile.WORLD_ACCESS; access++) {
+                for(int permission = FTPFile.READ_PERMISSION; permission <= FTPFile.EXECUTE_PERMISSION; permission++) {
+                    assertEquals(line, expected.hasPermission(access, permission), parsed.hasPermission(access, permission));
+                }
+            }
+        }
+    }
+}
@@ -18,26 +18,19 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
-import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
-import org.apache.http.client.HttpResponseException;
-import org.apache.log4j.Logger;
-
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
-import com.google.api.client.googleapis.batch.BatchRequest;
-import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
-import com.google.api.client.googleapis.json.GoogleJsonError;
-import com.google.api.client.http.HttpHeaders;
+import com.google.api.services.drive.DriveRequest;
 import com.google.api.services.drive.model.File;
 
 public class DriveBatchDeleteFeature implements Delete {
-    private static final Logger log = Logger.getLogger(DriveBatchDeleteFeature.class);
 
     private final DriveSession session;
     private final DriveFileidProvider fileid;
@@ -49,72 +42,54 @@ public class DriveBatchDeleteFeature implements Delete {
 
     @Override
     public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        final BatchRequest batch = session.getClient().batch();
-        final List<BackgroundException> failures = new ArrayList<>();
-        for(Path file : files) {
-            try {
-                if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
-                    session.getClient().teamdrives().delete(fileid.getFileid(file, new DisabledListProgressListener()))
-                        .queue(batch, new DeleteBatchCallback<Void>(file, failures, callback));
-                }
-                else {
+        if(files.isEmpty()) {
+            return;
+        }
+        fileid.prefetch(files, new DisabledListProgressListener());
+        try {
+            this.execute(files, callback);
+        }
+        catch(NotfoundException e) {
+            // Remove stale file ids saved for files and their children
+            for(Path file : files) {
+                FileidStore.get().remove(session.getHost(), file);
+            }
+            throw e;
+        }
+    }
+
+    private void execute(final List<Path> files, final Callback callback) throws BackgroundException {
+        new DriveBatchExecutor(session).execute(files, new DriveBatchExecutor.Operation() {
+            @Override
+            public DriveRequest<?> request(final Path file) throws BackgroundException {
+                try {
+                    if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
+                        return session.getClient().teamdrives().delete(fileid.getFileid(file, new DisabledListProgressListener()));
+                    }
                     if(PreferencesFactory.get().getBoolean("googledrive.delete.trash")) {
                         final File properties = new File();
                         properties.setTrashed(true);
-                        session.getClient().files().update(fileid.getFileid(file, new DisabledListProgressListener()), properties)
-                            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                            .queue(batch, new DeleteBatchCallback<File>(file, failures, callback));
-                    }
-                    else {
-                        session.getClient().files().delete(fileid.getFileid(file, new DisabledListProgressListener()))
-                            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                            .queue(batch, new DeleteBatchCallback<Void>(file, failures, callback));
+                        return session.getClient().files().update(fileid.getFileid(file, new DisabledListProgressListener()), properties)
+                            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"));
                     }
+                    return session.getClient().files().delete(fileid.getFileid(file, new DisabledListProgressListener()))
+                        .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"));
+                }
+                catch(IOException e) {
+                    throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
                 }
             }
-            catch(IOException e) {
-                throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
-            }
-        }
-        if(!files.isEmpty()) {
-            try {
-                batch.execute();
-            }
-            catch(IOException e) {
-                throw new DriveExceptionMappingService().map(e);
-            }
-            for(BackgroundException e : failures) {
-                throw e;
+        }, new DriveBatchExecutor.Callback() {
+            @Override
+            public void success(final Path file) {
+                FileidStore.get().remove(session.getHost(), file);
+                callback.delete(file);
             }
-        }
+        });
     }
 
     @Override
     public boolean isRecursive() {
         return false;
     }
-
-    private static class DeleteBatchCallback<V> extends JsonBatchCallback<V> {
-        private final Path file;
-        private final List<BackgroundException> failures;
-        private final Callback callback;
-
-        public DeleteBatchCallback(final Path file, final List<BackgroundException> failures, final Callback callback) {
-            this.file = file;
-            this.failures = failures;
-            this.callback = callback;
-        }
-
-        @Override
-        public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) {
-            log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
-            failures.add(new DefaultHttpResponseExceptionMappingService().map(
-                new HttpResponseException(e.getCode(), e.getMessage())));
-        }
-
-        @Override
-        public void onSuccess(final V aVoid, final HttpHeaders responseHeaders) {
-            callback.delete(file);
-        }
-    }
 }
@@ -0,0 +1,228 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.services.drive.DriveRequest;
+
+/**
+ * Execute a request for each file in batches no larger than allowed by the API. Batches run concurrently and requests
+ * failing because of usage limits are retried with exponential backoff.
+ */
+public class DriveBatchExecutor {
+    private static final Logger log = Logger.getLogger(DriveBatchExecutor.class);
+
+    private final DriveSession session;
+    /**
+     * Maximum number of requests in a single batch
+     */
+    private final int size;
+    private final int concurrency;
+    /**
+     * Maximum number of retries for requests exceeding rate limit
+     */
+    private final int retry;
+
+    public DriveBatchExecutor(final DriveSession session) {
+        this(session,
+            PreferencesFactory.get().getInteger("googledrive.batch.size"),
+            PreferencesFactory.get().getInteger("googledrive.batch.concurrency"),
+            PreferencesFactory.get().getInteger("googledrive.batch.retry"));
+    }
+
+    public DriveBatchExecutor(final DriveSession session, final int size, final int concurrency, final int retry) {
+        this.session = session;
+        this.size = size;
+        this.concurrency = concurrency;
+        this.retry = retry;
+    }
+
+    public interface Operation {
+        /**
+         * @param file File
+         * @return Request to queue in batch for file
+         */
+        DriveRequest<?> request(Path file) throws BackgroundException;
+    }
+
+    public interface Callback {
+        /**
+         * @param file Request for file completed successfully
+         */
+        void success(Path file);
+    }
+
+    /**
+     * @param files     Files to run request for
+     * @param operation Creates request for file
+     * @param callback  Notified for every successful request. May be called concurrently
+     * @throws BackgroundException First failure of any request after all batches completed
+     */
+    public void execute(final List<Path> files, final Operation operation, final Callback callback) throws BackgroundException {
+        if(files.size() <= size) {
+            this.run(files, operation, callback);
+            return;
+        }
+        final ThreadPool pool = ThreadPoolFactory.get("batch", concurrency);
+        final List<Future<Void>> futures = new ArrayList<>();
+        boolean success = false;
+        try {
+            for(int offset = 0; offset < files.size(); offset += size) {
+                final List<Path> batch = files.subList(offset, Math.min(offset + size, files.size()));
+                futures.add(pool.execute(new Callable<Void>() {
+                    @Override
+                    public Void call() throws BackgroundException {
+                        run(batch, operation, callback);
+                        return null;
+                    }
+                }));
+            }
+            for(Future<Void> future : futures) {
+                try {
+                    future.get();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new DefaultExceptionMappingService().map(e.getCause());
+                }
+            }
+            success = true;
+        }
+        finally {
+            // Interrupt pending batches on failure
+            pool.shutdown(success);
+        }
+    }
+
+    /**
+     * Execute single batch and repeat requests exceeding the rate limit
+     */
+    private void run(final List<Path> files, final Operation operation, final Callback callback) throws BackgroundException {
+        List<Path> pending = files;
+        for(int attempt = 0; ; attempt++) {
+            final BatchRequest batch = session.getClient().batch();
+            // Requests exceeding rate limit with error message
+            final Map<Path, String> limited = new LinkedHashMap<>();
+            final List<BackgroundException> failures = new ArrayList<>();
+            for(Path file : pending) {
+                this.queue(batch, operation.request(file), file, limited, failures, callback);
+            }
+            try {
+                batch.execute();
+            }
+            catch(IOException e) {
+                throw new DriveExceptionMappingService().map(e);
+            }
+            for(BackgroundException e : failures) {
+                throw e;
+            }
+            if(limited.isEmpty()) {
+                return;
+            }
+            if(attempt == retry) {
+                throw new RetriableAccessDeniedException(limited.values().iterator().next(), Duration.ofSeconds(5));
+            }
+            final long delay = (1000L << attempt) + ThreadLocalRandom.current().nextLong(1000L);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Retry %d requests exceeding rate limit in %dms", limited.size(), delay));
+            }
+            try {
+                Thread.sleep(delay);
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            pending = new ArrayList<>(limited.keySet());
+        }
+    }
+
+    private <V> void queue(final BatchRequest batch, final DriveRequest<V> request, final Path file,
+                           final Map<Path, String> limited, final List<BackgroundException> failures, final Callback callback) throws BackgroundException {
+        try {
+            request.queue(batch, new JsonBatchCallback<V>() {
+                @Override
+                public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) {
+                    if(isRateLimited(e)) {
+                        limited.put(file, e.getMessage());
+                        return;
+                    }
+                    log.warn(String.format("Failure for %s. %s", file, e.getMessage()));
+                    failures.add(new DefaultHttpResponseExceptionMappingService().map(
+                        new HttpResponseException(e.getCode(), e.getMessage())));
+                }
+
+                @Override
+                public void onSuccess(final V result, final HttpHeaders responseHeaders) {
+                    callback.success(file);
+                }
+            });
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService().map(e);
+        }
+    }
+
+    private static boolean isRateLimited(final GoogleJsonError e) {
+        switch(e.getCode()) {
+            case 429:
+                // Too many requests
+                return true;
+            case HttpStatus.SC_FORBIDDEN:
+                if(null != e.getErrors()) {
+                    for(GoogleJsonError.ErrorInfo info : e.getErrors()) {
+                        if("usageLimits".equals(info.getDomain())) {
+                            return true;
+                        }
+                    }
+                }
+        }
+        return false;
+    }
+}
@@ -19,7 +19,9 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -46,11 +48,17 @@ public class DriveCopyFeature implements Copy {
                 .setParents(Collections.singletonList(fileid.getFileid(target.getParent(), new DisabledListProgressListener())))
                 .setName(target.getName()))
                 .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+            FileidStore.get().remove(session.getHost(), target);
             return new Path(target.getParent(), target.getName(), target.getType(),
                     new PathAttributes(target.attributes()).withVersionId(copy.getId()));
         }
         catch(IOException e) {
-            throw new DriveExceptionMappingService().map("Cannot copy {0}", e, source);
+            final BackgroundException failure = new DriveExceptionMappingService().map("Cannot copy {0}", e, source);
+            if(failure instanceof NotfoundException) {
+                // Remove stale file id saved for source
+                FileidStore.get().remove(session.getHost(), source);
+            }
+            throw failure;
         }
     }
 
@@ -15,24 +15,45 @@ package ch.cyberduck.core.googledrive;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 
 public class DriveDefaultListService extends AbstractDriveListService {
 
+    private final DriveSession session;
     private final DriveFileidProvider fileid;
 
     public DriveDefaultListService(final DriveSession session, final DriveFileidProvider fileid) {
         super(session, fileid);
+        this.session = session;
         this.fileid = fileid;
     }
 
     public DriveDefaultListService(final DriveSession session, final DriveFileidProvider fileid, final int pagesize) {
         super(session, fileid, pagesize);
+        this.session = session;
         this.fileid = fileid;
     }
 
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final AttributedList<Path> children;
+        try {
+            children = super.list(directory, listener);
+        }
+        catch(NotfoundException e) {
+            FileidStore.get().remove(session.getHost(), directory);
+            throw e;
+        }
+        // Remove file ids saved for children no longer found
+        FileidStore.get().validate(session.getHost(), directory, children);
+        return children;
+    }
+
     protected String query(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return String.format("'%s' in parents", fileid.getFileid(directory, listener));
     }
@@ -18,7 +18,9 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -60,9 +62,15 @@ public class DriveDeleteFeature implements Delete {
                             .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
                     }
                 }
+                FileidStore.get().remove(session.getHost(), file);
             }
             catch(IOException e) {
-                throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
+                final BackgroundException failure = new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
+                if(failure instanceof NotfoundException) {
+                    // Remove stale file ids saved for file and its children
+                    FileidStore.get().remove(session.getHost(), file);
+                }
+                throw failure;
             }
         }
     }
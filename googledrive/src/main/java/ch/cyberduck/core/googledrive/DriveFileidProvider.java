@@ -22,12 +22,19 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 public class DriveFileidProvider implements IdProvider {
 
     private final DriveSession session;
@@ -58,6 +65,12 @@ public class DriveFileidProvider implements IdProvider {
                 }
             }
         }
+        // Fallback to ids saved before when not found in directory cache
+        final String cached = FileidStore.get().get(session.getHost(), file);
+        if(StringUtils.isNotBlank(cached)) {
+            file.attributes().setVersionId(cached);
+            return cached;
+        }
         if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
             final Path found = new DriveTeamDrivesListService(session).withCache(cache).list(file.getParent(), listener).find(
                 new SimplePathPredicate(file)
@@ -75,8 +88,64 @@ public class DriveFileidProvider implements IdProvider {
         return this.set(file, found.attributes().getVersionId());
     }
 
+    /**
+     * Resolve missing file ids with a single listing of every parent folder containing more than one of the files
+     *
+     * @param files Files to look up
+     */
+    public void prefetch(final Collection<Path> files, final ListProgressListener listener) throws BackgroundException {
+        final Map<Path, List<Path>> parents = new HashMap<>();
+        for(Path file : files) {
+            if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
+                continue;
+            }
+            if(file.isRoot() || file.getParent().isRoot()) {
+                continue;
+            }
+            if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
+                continue;
+            }
+            if(!cache.isCached(file.getParent())) {
+                // Fallback to ids saved before when not found in directory cache
+                final String cached = FileidStore.get().get(session.getHost(), file);
+                if(StringUtils.isNotBlank(cached)) {
+                    file.attributes().setVersionId(cached);
+                    continue;
+                }
+            }
+            List<Path> children = parents.get(file.getParent());
+            if(null == children) {
+                children = new ArrayList<>();
+                parents.put(file.getParent(), children);
+            }
+            children.add(file);
+        }
+        for(Map.Entry<Path, List<Path>> entry : parents.entrySet()) {
+            if(entry.getValue().size() < 2 && !cache.isCached(entry.getKey())) {
+                // Query by name is cheaper than listing folder
+                continue;
+            }
+            final AttributedList<Path> list;
+            if(cache.isCached(entry.getKey())) {
+                list = cache.get(entry.getKey());
+            }
+            else {
+                list = new DriveDefaultListService(session, this).list(entry.getKey(), listener);
+            }
+            for(Path file : entry.getValue()) {
+                final Path found = list.find(new IgnoreTrashedPathPredicate(file));
+                if(null != found) {
+                    if(StringUtils.isNotBlank(found.attributes().getVersionId())) {
+                        this.set(file, found.attributes().getVersionId());
+                    }
+                }
+            }
+        }
+    }
+
     protected String set(final Path file, final String id) {
         file.attributes().setVersionId(id);
+        FileidStore.get().put(session.getHost(), file, id);
         return id;
     }
 
@@ -18,7 +18,9 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -82,11 +84,18 @@ public class DriveMoveFeature implements Move {
                 .setFields("id, parents")
                 .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
                 .execute();
+            FileidStore.get().remove(session.getHost(), file);
+            FileidStore.get().remove(session.getHost(), renamed);
             return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
                 new DriveAttributesFinderFeature(session, fileid).find(renamed));
         }
         catch(IOException e) {
-            throw new DriveExceptionMappingService().map("Cannot rename {0}", e, file);
+            final BackgroundException failure = new DriveExceptionMappingService().map("Cannot rename {0}", e, file);
+            if(failure instanceof NotfoundException) {
+                // Remove stale file id saved for source
+                FileidStore.get().remove(session.getHost(), file);
+            }
+            throw failure;
         }
     }
 
@@ -0,0 +1,102 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.api.services.drive.DriveRequest;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class DriveBatchExecutorTest extends AbstractDriveTest {
+
+    @Test
+    public void testExecuteMultipleBatches() throws Exception {
+        final DriveFileidProvider fileid = new DriveFileidProvider(session).withCache(cache);
+        final List<Path> files = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            files.add(new DriveTouchFeature(session, fileid).touch(
+                new Path(DriveHomeFinderService.MYDRIVE_FOLDER, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file)), new TransferStatus()));
+        }
+        final List<Path> lookup = new ArrayList<>();
+        for(Path file : files) {
+            lookup.add(new Path(file.getParent(), file.getName(), file.getType()));
+        }
+        fileid.prefetch(lookup, new DisabledListProgressListener());
+        for(int i = 0; i < files.size(); i++) {
+            assertEquals(files.get(i).attributes().getVersionId(), lookup.get(i).attributes().getVersionId());
+        }
+        final Set<Path> deleted = ConcurrentHashMap.newKeySet();
+        new DriveBatchExecutor(session, 2, 2, 1).execute(files, new DriveBatchExecutor.Operation() {
+            @Override
+            public DriveRequest<?> request(final Path file) throws BackgroundException {
+                try {
+                    return session.getClient().files().delete(fileid.getFileid(file, new DisabledListProgressListener()));
+                }
+                catch(IOException e) {
+                    throw new DriveExceptionMappingService().map(e);
+                }
+            }
+        }, new DriveBatchExecutor.Callback() {
+            @Override
+            public void success(final Path file) {
+                deleted.add(file);
+            }
+        });
+        assertEquals(5, deleted.size());
+    }
+
+    @Test(expected = NotfoundException.class)
+    public void testExecuteFailure() throws Exception {
+        final Path test = new Path(DriveHomeFinderService.MYDRIVE_FOLDER, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        test.attributes().setVersionId("n");
+        new DriveBatchExecutor(session, 1, 1, 0).execute(Arrays.asList(test, test), new DriveBatchExecutor.Operation() {
+            @Override
+            public DriveRequest<?> request(final Path file) throws BackgroundException {
+                try {
+                    return session.getClient().files().delete(file.attributes().getVersionId());
+                }
+                catch(IOException e) {
+                    throw new DriveExceptionMappingService().map(e);
+                }
+            }
+        }, new DriveBatchExecutor.Callback() {
+            @Override
+            public void success(final Path file) {
+                fail();
+            }
+        });
+    }
+}
@@ -23,7 +23,9 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.onedrive.features.GraphAttributesFinderFeature;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.webloc.UrlFileWriter;
@@ -81,8 +83,14 @@ public class GraphItemListService implements ListService {
             }
         }
         catch(OneDriveRuntimeException e) { // this catches iterator.hasNext() which in return should fail fast
-            throw new GraphExceptionMappingService().map("Listing directory {0} failed", e.getCause(), directory);
+            final BackgroundException failure = new GraphExceptionMappingService().map("Listing directory {0} failed", e.getCause(), directory);
+            if(failure instanceof NotfoundException) {
+                FileidStore.get().remove(session.getHost(), directory);
+            }
+            throw failure;
         }
+        // Remove file ids saved for children no longer found
+        FileidStore.get().validate(session.getHost(), directory, children);
         return children;
     }
 
@@ -18,7 +18,9 @@ package ch.cyberduck.core.onedrive.features;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.onedrive.GraphExceptionMappingService;
@@ -63,11 +65,17 @@ public class GraphCopyFeature implements Copy {
                 statusObject.getPercentage(),
                 statusObject.getStatus())));
             target.attributes().setVersionId(null);
+            FileidStore.get().remove(session.getHost(), target);
             return new Path(target.getParent(), target.getName(), target.getType(),
                 new GraphAttributesFinderFeature(session).find(target));
         }
         catch(OneDriveAPIException e) {
-            throw new GraphExceptionMappingService().map("Cannot copy {0}", e, source);
+            final BackgroundException failure = new GraphExceptionMappingService().map("Cannot copy {0}", e, source);
+            if(failure instanceof NotfoundException) {
+                // Remove stale file id saved for source
+                FileidStore.get().remove(session.getHost(), source);
+            }
+            throw failure;
         }
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map("Cannot copy {0}", e, source);
@@ -18,6 +18,7 @@ package ch.cyberduck.core.onedrive.features;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
@@ -47,9 +48,11 @@ public class GraphDeleteFeature implements Delete {
             try {
                 final OneDriveItem item = session.toItem(file);
                 item.delete();
+                FileidStore.get().remove(session.getHost(), file);
             }
             catch(NotfoundException e) {
                 logger.warn(String.format("Cannot delete %s. Not found.", file));
+                FileidStore.get().remove(session.getHost(), file);
             }
             catch(OneDriveAPIException e) {
                 throw new GraphExceptionMappingService().map("Cannot delete {0}", e, file);
@@ -22,6 +22,7 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
@@ -52,6 +53,12 @@ public class GraphFileIdProvider implements IdProvider {
                 }
             }
         }
+        // Fallback to ids saved before when not found in directory cache
+        final String cached = FileidStore.get().get(session.getHost(), file);
+        if(StringUtils.isNotBlank(cached)) {
+            file.attributes().setVersionId(cached);
+            return cached;
+        }
         final AttributedList<Path> list = session._getFeature(ListService.class).list(file.getParent(), listener);
         final Path found = list.find(new SimplePathPredicate(file));
         if(null == found) {
@@ -62,6 +69,7 @@ public class GraphFileIdProvider implements IdProvider {
 
     protected String set(final Path file, final String id) {
         file.attributes().setVersionId(id);
+        FileidStore.get().put(session.getHost(), file, id);
         return id;
     }
 
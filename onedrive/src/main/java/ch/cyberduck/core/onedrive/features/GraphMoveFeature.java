@@ -18,7 +18,9 @@ package ch.cyberduck.core.onedrive.features;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidStore;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.onedrive.GraphExceptionMappingService;
@@ -69,9 +71,16 @@ public class GraphMoveFeature implements Move {
         final OneDriveItem item = session.toItem(file);
         try {
             item.patch(patchOperation);
+            FileidStore.get().remove(session.getHost(), file);
+            FileidStore.get().remove(session.getHost(), renamed);
         }
         catch(OneDriveAPIException e) {
-            throw new GraphExceptionMappingService().map("Cannot rename {0}", e, file);
+            final BackgroundException failure = new GraphExceptionMappingService().map("Cannot rename {0}", e, file);
+            if(failure instanceof NotfoundException) {
+                // Remove stale file id saved for source
+                FileidStore.get().remove(session.getHost(), file);
+            }
+            throw failure;
         }
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map("Cannot rename {0}", e, file);
@@ -22,14 +22,16 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
-import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BatchExecutor;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +41,9 @@ import ch.iterate.openstack.swift.model.Region;
 
 public class SwiftMultipleDeleteFeature implements Delete {
 
+    private final Preferences preferences
+            = PreferencesFactory.get();
+
     private final SwiftSession session;
 
     private final PathContainerService containerService
@@ -86,25 +91,31 @@ public class SwiftMultipleDeleteFeature implements Delete {
                 }
             }
             try {
-                for(Map.Entry<Path, List<String>> container : containers.entrySet()) {
+                for(final Map.Entry<Path, List<String>> container : containers.entrySet()) {
                     final Region region = regionService.lookup(container.getKey());
-                    final List<String> keys = container.getValue();
-                    for(List<String> partition : new Partition<String>(keys, PreferencesFactory.get().getInteger("openstack.delete.multiple.partition"))) {
-                        session.getClient().deleteObjects(region, container.getKey().getName(), partition);
-                    }
-                }
-            }
-            catch(GenericException e) {
-                if(new SwiftExceptionMappingService().map(e) instanceof InteroperabilityException) {
-                    new SwiftDeleteFeature(session, regionService).delete(files, prompt, callback);
-                    return;
-                }
-                else {
-                    throw new SwiftExceptionMappingService().map("Cannot delete {0}", e, files.iterator().next());
+                    // Send bulk delete requests concurrently
+                    new BatchExecutor("delete", preferences.getInteger("openstack.delete.multiple.concurrency")).execute(container.getValue(),
+                        preferences.getInteger("openstack.delete.multiple.partition"), new BatchExecutor.Batch<String>() {
+                            @Override
+                            public Map<String, BackgroundException> run(final List<String> partition) throws BackgroundException {
+                                try {
+                                    session.getClient().deleteObjects(region, container.getKey().getName(), partition);
+                                    return Collections.emptyMap();
+                                }
+                                catch(GenericException e) {
+                                    throw new SwiftExceptionMappingService().map("Cannot delete {0}", e, container.getKey());
+                                }
+                                catch(IOException e) {
+                                    throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, container.getKey());
+                                }
+                            }
+                        });
                 }
             }
-            catch(IOException e) {
-                throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, files.iterator().next());
+            catch(InteroperabilityException e) {
+                // Bulk delete not supported
+                new SwiftDeleteFeature(session, regionService).delete(files, prompt, callback);
+                return;
             }
             for(Path file : files) {
                 if(containerService.isContainer(file)) {
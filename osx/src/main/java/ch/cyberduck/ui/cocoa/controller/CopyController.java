@@ -71,10 +71,14 @@ public class CopyController extends ProxyController {
             @Override
             public void run() {
                 final SessionPool pool = parent.getSession();
+                final SessionPool target = pool.getHost().getProtocol().isStateful() ? SessionPoolFactory.create(parent, cache, pool.getHost()) : pool;
                 parent.background(new WorkerBackgroundAction<Map<Path, Path>>(parent, parent.getSession(),
-                    new CopyWorker(selected, pool.getHost().getProtocol().isStateful() ? SessionPoolFactory.create(parent, cache, pool.getHost()) : pool, cache, parent, LoginCallbackFactory.get(parent)) {
+                    new CopyWorker(selected, target, target, cache, parent, LoginCallbackFactory.get(parent)) {
                             @Override
                             public void cleanup(final Map<Path, Path> result) {
+                                if(target != pool) {
+                                    target.shutdown();
+                                }
                                 final List<Path> changed = new ArrayList<>();
                                 changed.addAll(result.keySet());
                                 changed.addAll(result.values());
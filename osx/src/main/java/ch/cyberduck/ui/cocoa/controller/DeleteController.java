@@ -20,8 +20,11 @@ import ch.cyberduck.binding.application.NSAlert;
 import ch.cyberduck.binding.application.SheetCallback;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.LoginCallbackFactory;
+import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.SessionPoolFactory;
+import ch.cyberduck.core.pool.SessionPool;
 import ch.cyberduck.core.threading.WorkerBackgroundAction;
 import ch.cyberduck.core.worker.DeleteWorker;
 
@@ -75,10 +78,16 @@ public class DeleteController extends ProxyController {
     }
 
     private void run(final List<Path> files) {
+        final SessionPool pool = parent.getSession();
+        final SessionPool list = pool.getHost().getProtocol().isStateful() ? SessionPoolFactory.create(parent, parent.getCache(), pool.getHost()) : pool;
         parent.background(new WorkerBackgroundAction<List<Path>>(parent, parent.getSession(),
-            new DeleteWorker(LoginCallbackFactory.get(parent), files, parent.getCache(), parent) {
+            new DeleteWorker(LoginCallbackFactory.get(parent), files, parent.getCache(), new NullFilter<Path>(), parent, list) {
                     @Override
                     public void cleanup(final List<Path> deleted) {
+                        if(list != pool) {
+                            // Close connections opened for listing
+                            list.shutdown();
+                        }
                         super.cleanup(deleted);
                         parent.reload(parent.workdir(), files, Collections.emptyList());
                     }
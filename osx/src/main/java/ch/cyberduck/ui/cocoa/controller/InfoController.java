@@ -2411,10 +2411,15 @@ public class InfoController extends ToolbarWindowController {
     @Action
     public void calculateSizeButtonClicked(final ID sender) {
         if(this.toggleSizeSettings(false)) {
+            final SessionPool list = session.getHost().getProtocol().isStateful() ? SessionPoolFactory.create(controller, session.getCache(), session.getHost()) : session;
             controller.background(new WorkerBackgroundAction<Long>(controller, session,
-                new CalculateSizeWorker(files, controller) {
+                new CalculateSizeWorker(files, controller, list) {
                     @Override
                     public void cleanup(final Long size) {
+                        if(list != session) {
+                            // Close connections opened for listing
+                            list.shutdown();
+                        }
                         setSize(size);
                         toggleSizeSettings(true);
                     }
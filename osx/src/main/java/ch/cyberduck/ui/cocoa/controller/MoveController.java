@@ -71,9 +71,13 @@ public class MoveController extends ProxyController {
             @Override
             public void run() {
                 final SessionPool pool = parent.getSession();
-                final MoveWorker move = new MoveWorker(selected, pool.getHost().getProtocol().isStateful() ? SessionPoolFactory.create(parent, cache, pool.getHost()) : pool, cache, parent, LoginCallbackFactory.get(parent)) {
+                final SessionPool target = pool.getHost().getProtocol().isStateful() ? SessionPoolFactory.create(parent, cache, pool.getHost()) : pool;
+                final MoveWorker move = new MoveWorker(selected, target, target, cache, parent, LoginCallbackFactory.get(parent)) {
                     @Override
                     public void cleanup(final Map<Path, Path> result) {
+                        if(target != pool) {
+                            target.shutdown();
+                        }
                         final List<Path> changed = new ArrayList<>();
                         changed.addAll(result.keySet());
                         changed.addAll(result.values());
@@ -0,0 +1,98 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.io.BufferPool;
+
+import org.apache.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Part buffers borrowed from the shared buffer pool with the total capacity in use bounded
+ */
+public final class S3MultipartBufferPool {
+    private static final Logger log = Logger.getLogger(S3MultipartBufferPool.class);
+
+    private final BufferPool pool;
+    /**
+     * Maximum total capacity of buffers in use
+     */
+    private final long limit;
+    /**
+     * Total capacity of buffers in use
+     */
+    private final AtomicLong used = new AtomicLong();
+
+    public S3MultipartBufferPool(final long limit) {
+        this(BufferPool.get(), limit);
+    }
+
+    public S3MultipartBufferPool(final BufferPool pool, final long limit) {
+        this.pool = pool;
+        this.limit = limit;
+    }
+
+    /**
+     * @param length Part size
+     * @return Buffer with capacity of at least length or null if the limit would be exceeded. Must be returned with
+     * {@link #release(ByteBuffer)}
+     */
+    public ByteBuffer borrow(final long length) {
+        if(length > Integer.MAX_VALUE) {
+            return null;
+        }
+        final int capacity = BufferPool.capacity((int) length);
+        long current;
+        do {
+            current = used.get();
+            if(current + capacity > limit) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("No buffer available for part with length %d in %s", length, this));
+                }
+                return null;
+            }
+        }
+        while(!used.compareAndSet(current, current + capacity));
+        return pool.borrow((int) length);
+    }
+
+    /**
+     * @param buffer Buffer borrowed
+     */
+    public void release(final ByteBuffer buffer) {
+        used.addAndGet(-buffer.capacity());
+        pool.release(buffer);
+    }
+
+    /**
+     * @return Total capacity of buffers in use
+     */
+    public long getUsed() {
+        return used.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("S3MultipartBufferPool{");
+        sb.append("limit=").append(limit);
+        sb.append(", used=").append(used);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -18,6 +18,7 @@ package ch.cyberduck.core.s3;
  */
 
 import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
@@ -35,14 +36,16 @@ import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamProgress;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.SegmentScheduler;
 import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.jets3t.service.ServiceException;
@@ -52,6 +55,10 @@ import org.jets3t.service.model.MultipartUpload;
 import org.jets3t.service.model.S3Object;
 import org.jets3t.service.model.StorageObject;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -65,6 +72,12 @@ import java.util.concurrent.Future;
 public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, MessageDigest> {
     private static final Logger log = Logger.getLogger(S3MultipartUploadService.class);
 
+    /**
+     * Parts read into memory once to compute the payload checksum and upload
+     */
+    private static final S3MultipartBufferPool buffers
+        = new S3MultipartBufferPool(PreferencesFactory.get().getLong("s3.upload.multipart.buffer.limit"));
+
     private final S3Session session;
 
     private final PathContainerService containerService
@@ -97,7 +110,7 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                                 final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("multipart", concurrency);
+        final ThreadPool pool = SegmentScheduler.get().pool(session.getHost(), status.getLength(), concurrency);
         try {
             MultipartUpload multipart = null;
             try {
@@ -255,26 +268,46 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                     .withParameters(requestParameters);
                 status.setHeader(overall.getHeader());
                 status.setNonces(overall.getNonces());
+                final StreamProgress progress = new StreamProgress() {
+                    @Override
+                    public void progress(final long bytes) {
+                        status.progress(bytes);
+                        // Discard sent bytes in overall progress if there is an error reply for segment.
+                        overall.progress(bytes);
+                    }
+
+                    @Override
+                    public void setComplete() {
+                        status.setComplete();
+                    }
+                };
+                status.setSegment(true);
+                final StorageObject part;
                 switch(session.getSignatureVersion()) {
                     case AWS4HMACSHA256:
-                        status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
-                        break;
-                }
-                status.setSegment(true);
-                final StorageObject part = S3MultipartUploadService.super.upload(
-                    file, local, throttle, listener, status, overall, new StreamProgress() {
-                        @Override
-                        public void progress(final long bytes) {
-                            status.progress(bytes);
-                            // Discard sent bytes in overall progress if there is an error reply for segment.
-                            overall.progress(bytes);
+                        final ByteBuffer buffer = buffers.borrow(length);
+                        if(null == buffer) {
+                            // Read part twice from file for checksum and upload
+                            status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
+                            part = S3MultipartUploadService.super.upload(file, local, throttle, listener, status, overall, progress, callback);
                         }
-
-                        @Override
-                        public void setComplete() {
-                            status.setComplete();
+                        else {
+                            try {
+                                // Read part once for both checksum and upload
+                                read(local, offset, length, buffer.array());
+                                status.setChecksum(writer.checksum(file).compute(
+                                    new ByteArrayInputStream(buffer.array(), 0, (int) length), new TransferStatus().length(length)));
+                                part = S3MultipartUploadService.super.upload(file,
+                                    new ByteArrayInputStream(buffer.array(), 0, (int) length), throttle, listener, status, overall, progress, callback);
+                            }
+                            finally {
+                                buffers.release(buffer);
+                            }
                         }
-                    }, callback);
+                        break;
+                    default:
+                        part = S3MultipartUploadService.super.upload(file, local, throttle, listener, status, overall, progress, callback);
+                }
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Received response %s for part number %d", part, partNumber));
                 }
@@ -288,6 +321,22 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         }, overall));
     }
 
+    /**
+     * Read part from file into buffer
+     */
+    private static void read(final Local local, final long offset, final long length, final byte[] buffer) throws BackgroundException {
+        final InputStream in = StreamCopier.skip(local.getInputStream(), offset);
+        try {
+            IOUtils.readFully(in, buffer, 0, (int) length);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e);
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
     @Override
     public Upload<StorageObject> withWriter(final Write<StorageObject> writer) {
         this.writer = writer;
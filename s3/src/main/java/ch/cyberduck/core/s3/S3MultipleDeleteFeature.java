@@ -21,12 +21,13 @@ import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
-import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Versioning;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BatchExecutor;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -38,12 +39,16 @@ import org.jets3t.service.model.container.ObjectKeyAndVersion;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class S3MultipleDeleteFeature implements Delete {
     private static final Logger log = Logger.getLogger(S3MultipleDeleteFeature.class);
 
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
     private final S3Session session;
 
     private final PathContainerService containerService
@@ -133,41 +138,28 @@ public class S3MultipleDeleteFeature implements Delete {
                     factor.getPassword(),
                     // Only include errors in response
                     true);
-                if(result.hasErrors()) {
-                    for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
-                        if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
-                            // Ignore failure deleting placeholder
-                            continue;
-                        }
-                        final ServiceException failure = new ServiceException();
-                        failure.setErrorCode(error.getErrorCode());
-                        failure.setErrorMessage(error.getMessage());
-                        throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
-                            new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
-                    }
+                for(BackgroundException failure : this.failures(container, keys, result).values()) {
+                    throw failure;
                 }
             }
             else {
-                // Request contains a list of up to 1000 keys that you want to delete
-                for(List<ObjectKeyAndVersion> partition : new Partition<ObjectKeyAndVersion>(keys, PreferencesFactory.get().getInteger("s3.delete.multiple.partition"))) {
-                    final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(container.getName(),
-                        partition.toArray(new ObjectKeyAndVersion[partition.size()]),
-                        // Only include errors in response
-                        true);
-                    if(result.hasErrors()) {
-                        for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
-                            if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
-                                // Ignore failure deleting placeholder
-                                continue;
+                // Request contains a list of up to 1000 keys that you want to delete. Send requests concurrently.
+                new BatchExecutor("delete", preferences.getInteger("s3.delete.multiple.concurrency")).execute(keys,
+                    preferences.getInteger("s3.delete.multiple.partition"), new BatchExecutor.Batch<ObjectKeyAndVersion>() {
+                        @Override
+                        public Map<ObjectKeyAndVersion, BackgroundException> run(final List<ObjectKeyAndVersion> partition) throws BackgroundException {
+                            try {
+                                final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(container.getName(),
+                                    partition.toArray(new ObjectKeyAndVersion[partition.size()]),
+                                    // Only include errors in response
+                                    true);
+                                return failures(container, partition, result);
+                            }
+                            catch(ServiceException e) {
+                                throw new S3ExceptionMappingService().map("Cannot delete {0}", e, container);
                             }
-                            final ServiceException failure = new ServiceException();
-                            failure.setErrorCode(error.getErrorCode());
-                            failure.setErrorMessage(error.getMessage());
-                            throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
-                                new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
                         }
-                    }
-                }
+                    });
             }
         }
         catch(ServiceException e) {
@@ -175,6 +167,40 @@ public class S3MultipleDeleteFeature implements Delete {
         }
     }
 
+    /**
+     * @return Failure for each key in error results of response
+     */
+    private Map<ObjectKeyAndVersion, BackgroundException> failures(final Path container, final List<ObjectKeyAndVersion> keys,
+                                                                   final MultipleDeleteResult result) {
+        final Map<ObjectKeyAndVersion, BackgroundException> failures = new LinkedHashMap<ObjectKeyAndVersion, BackgroundException>();
+        if(result.hasErrors()) {
+            // Requested keys by key and version as multiple versions of a key may be deleted in the same request
+            final Map<String, ObjectKeyAndVersion> requested = new HashMap<String, ObjectKeyAndVersion>();
+            for(ObjectKeyAndVersion key : keys) {
+                requested.put(this.toString(key.getKey(), key.getVersion()), key);
+            }
+            for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
+                if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
+                    // Ignore failure deleting placeholder
+                    continue;
+                }
+                final ServiceException failure = new ServiceException();
+                failure.setErrorCode(error.getErrorCode());
+                failure.setErrorMessage(error.getMessage());
+                final String id = this.toString(error.getKey(), error.getVersion());
+                final ObjectKeyAndVersion key = requested.containsKey(id) ? requested.get(id)
+                    : new ObjectKeyAndVersion(error.getKey(), error.getVersion());
+                failures.put(key, new S3ExceptionMappingService().map("Cannot delete {0}", failure,
+                    new Path(container, error.getKey(), EnumSet.of(Path.Type.file))));
+            }
+        }
+        return failures;
+    }
+
+    private String toString(final String key, final String version) {
+        return String.format("%s%s%s", key, Path.DELIMITER, StringUtils.defaultString(version));
+    }
+
     @Override
     public boolean isRecursive() {
         return false;
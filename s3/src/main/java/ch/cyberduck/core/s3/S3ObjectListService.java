@@ -21,26 +21,54 @@ package ch.cyberduck.core.s3;
 import ch.cyberduck.core.AbstractPath;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.RecursiveListService;
 import ch.cyberduck.core.URIEncoder;
+import ch.cyberduck.core.VersioningConfiguration;
+import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.exception.UnsupportedException;
+import ch.cyberduck.core.features.Versioning;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.jets3t.service.ServiceException;
 import org.jets3t.service.StorageObjectsChunk;
+import org.jets3t.service.model.MultipartUpload;
 import org.jets3t.service.model.StorageObject;
 
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
-public class S3ObjectListService extends S3AbstractListService implements ListService {
+public class S3ObjectListService extends S3AbstractListService implements ListService, RecursiveListService {
     private static final Logger log = Logger.getLogger(S3ObjectListService.class);
 
     private final Preferences preferences
@@ -51,10 +79,16 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
 
     private final S3Session session;
     private final S3AttributesFinderFeature attributes;
+    private final Integer concurrency;
 
     public S3ObjectListService(final S3Session session) {
+        this(session, PreferencesFactory.get().getInteger("s3.listing.concurrency"));
+    }
+
+    public S3ObjectListService(final S3Session session, final Integer concurrency) {
         this.session = session;
         this.attributes = new S3AttributesFinderFeature(session);
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -148,4 +182,327 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
             throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
         }
     }
+
+    /**
+     * List all keys in directory without delimiter. The key space is split into shards by the common prefixes found
+     * listing the directory with delimiter. Shards are listed concurrently. Keys are returned in lexicographic order
+     * within a shard and a directory listing is passed to the callback as soon as the first key outside of its prefix
+     * is found. At most the number of listings set in <code>browser.list.lookahead</code> are kept waiting to be
+     * passed to the callback. In-progress multipart uploads below the directory are included as files of type
+     * {@link Path.Type#upload} as in the listing with {@link S3ListService}.
+     * <p>
+     * Shards are only split at the first level of the directory. A single common prefix containing most keys is
+     * listed sequentially with no speedup compared to listing without delimiter.
+     */
+    @Override
+    public void walk(final Path directory, final Filter<Path> filter, final ListProgressListener listener, final Callback callback) throws BackgroundException {
+        if(directory.isRoot()) {
+            throw new UnsupportedException(String.format("Listing buckets in %s", directory.getAbsolute()));
+        }
+        final Path bucket = containerService.getContainer(directory);
+        final VersioningConfiguration versioning = null != session.getFeature(Versioning.class) ? session.getFeature(Versioning.class).getConfiguration(
+            bucket
+        ) : VersioningConfiguration.empty();
+        if(versioning.isEnabled()) {
+            // Previous versions are only listed with delimiter
+            throw new UnsupportedException(String.format("Versioning enabled for %s", bucket.getAbsolute()));
+        }
+        final int chunksize = preferences.getInteger("s3.listing.chunksize");
+        final String prefix = this.createPrefix(directory);
+        // Pending uploads by common prefix. Uploads in directory are stored with prefix of directory
+        final Map<String, List<MultipartUpload>> uploads = new TreeMap<String, List<MultipartUpload>>();
+        try {
+            for(MultipartUpload upload : new S3DefaultMultipartService(session).find(directory)) {
+                if(!upload.getObjectKey().startsWith(prefix)) {
+                    // Upload for sibling with same prefix
+                    continue;
+                }
+                final String name = upload.getObjectKey().substring(prefix.length());
+                final String common = name.contains(String.valueOf(Path.DELIMITER)) ?
+                    prefix + name.substring(0, name.indexOf(Path.DELIMITER) + 1) : prefix;
+                if(!uploads.containsKey(common)) {
+                    uploads.put(common, new ArrayList<MultipartUpload>());
+                }
+                uploads.get(common).add(upload);
+            }
+        }
+        catch(AccessDeniedException | InteroperabilityException e) {
+            log.warn(String.format("Ignore failure listing incomplete multipart uploads. %s", e.getDetail()));
+        }
+        final BlockingQueue<Map.Entry<Path, AttributedList<Path>>> queue
+            = new LinkedBlockingQueue<Map.Entry<Path, AttributedList<Path>>>(preferences.getInteger("browser.list.lookahead"));
+        final ThreadPool pool = ThreadPoolFactory.get("list", concurrency);
+        try {
+            final AttributedList<Path> children = new AttributedList<Path>();
+            final Map<String, Path> shards = new LinkedHashMap<String, Path>();
+            boolean placeholder = containerService.isContainer(directory);
+            String priorLastKey = null;
+            do {
+                // First pass with delimiter to find common prefixes to list concurrently
+                final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                    PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, String.valueOf(Path.DELIMITER),
+                    chunksize, priorLastKey);
+                for(StorageObject object : chunk.getObjects()) {
+                    final String key = PathNormalizer.normalize(object.getKey());
+                    if(String.valueOf(Path.DELIMITER).equals(key)) {
+                        log.warn(String.format("Skipping prefix %s", key));
+                        continue;
+                    }
+                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                        // Placeholder object, skip
+                        placeholder = true;
+                        continue;
+                    }
+                    children.add(this.toPath(bucket, object));
+                }
+                for(String common : chunk.getCommonPrefixes()) {
+                    if(String.valueOf(Path.DELIMITER).equals(common)) {
+                        log.warn(String.format("Skipping prefix %s", common));
+                        continue;
+                    }
+                    final Path folder = this.toPath(bucket, common);
+                    children.add(folder);
+                    shards.put(common, folder);
+                }
+                priorLastKey = chunk.getPriorLastKey();
+            }
+            while(priorLastKey != null);
+            if(!placeholder && children.isEmpty()) {
+                throw new NotfoundException(directory.getAbsolute());
+            }
+            for(Map.Entry<String, List<MultipartUpload>> entry : uploads.entrySet()) {
+                if(entry.getKey().equals(prefix)) {
+                    for(MultipartUpload upload : entry.getValue()) {
+                        children.add(this.toPath(bucket, upload));
+                    }
+                }
+                else if(!shards.containsKey(entry.getKey())) {
+                    // No keys other than pending uploads with prefix
+                    final Path folder = this.toPath(bucket, entry.getKey());
+                    children.add(folder);
+                    shards.put(entry.getKey(), folder);
+                }
+            }
+            listener.chunk(directory, children);
+            callback.complete(directory, children);
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for(Map.Entry<String, Path> shard : shards.entrySet()) {
+                if(!filter.accept(shard.getValue())) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Skip listing %s rejected by filter", shard.getValue()));
+                    }
+                    continue;
+                }
+                final List<MultipartUpload> pending = uploads.get(shard.getKey());
+                futures.add(this.submit(pool, bucket, shard.getKey(), new Shard(shard.getValue(), filter, queue),
+                    null == pending ? Collections.<MultipartUpload>emptyList() : pending, chunksize));
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("List %d prefixes in %s concurrently", futures.size(), directory));
+            }
+            int count = 1;
+            while(true) {
+                final Map.Entry<Path, AttributedList<Path>> next = queue.poll(100L, TimeUnit.MILLISECONDS);
+                if(null != next) {
+                    listener.chunk(next.getKey(), next.getValue());
+                    callback.complete(next.getKey(), next.getValue());
+                    count++;
+                    continue;
+                }
+                boolean done = true;
+                for(Future<Void> future : futures) {
+                    if(future.isDone()) {
+                        // Rethrow failure
+                        future.get();
+                    }
+                    else {
+                        done = false;
+                    }
+                }
+                if(done && queue.isEmpty()) {
+                    break;
+                }
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Listed %d directories in %s", count, directory));
+            }
+        }
+        catch(ServiceException e) {
+            throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(InterruptedException e) {
+            log.error("Listing objects failed with interrupt failure");
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Listing objects failed with execution failure %s", e.getMessage()));
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+        finally {
+            // Cancel running tasks blocked on full queue
+            pool.shutdown(false);
+        }
+    }
+
+    private Future<Void> submit(final ThreadPool pool, final Path bucket, final String common, final Shard shard,
+                                final List<MultipartUpload> uploads, final int chunksize) {
+        return pool.execute(new BackgroundExceptionCallable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                final Iterator<MultipartUpload> pending = uploads.iterator();
+                MultipartUpload upload = pending.hasNext() ? pending.next() : null;
+                try {
+                    String priorLastKey = null;
+                    do {
+                        final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                            PathNormalizer.name(URIEncoder.encode(bucket.getName())), common, null,
+                            chunksize, priorLastKey);
+                        for(StorageObject object : chunk.getObjects()) {
+                            // Merge uploads in lexicographic order
+                            while(null != upload && upload.getObjectKey().compareTo(object.getKey()) < 0) {
+                                shard.add(toPath(bucket, upload));
+                                upload = pending.hasNext() ? pending.next() : null;
+                            }
+                            if(String.valueOf(Path.DELIMITER).equals(PathNormalizer.normalize(object.getKey()))) {
+                                log.warn(String.format("Skipping prefix %s", object.getKey()));
+                                continue;
+                            }
+                            shard.add(toPath(bucket, object));
+                        }
+                        priorLastKey = chunk.getPriorLastKey();
+                    }
+                    while(priorLastKey != null);
+                    while(null != upload) {
+                        shard.add(toPath(bucket, upload));
+                        upload = pending.hasNext() ? pending.next() : null;
+                    }
+                    shard.close();
+                }
+                catch(ServiceException e) {
+                    throw new S3ExceptionMappingService().map("Listing directory {0} failed", e,
+                        new Path(String.format("%s%s", bucket.getAbsolute(), PathNormalizer.normalize(common)), EnumSet.of(Path.Type.directory)));
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                return null;
+            }
+        });
+    }
+
+    private Path toPath(final Path bucket, final StorageObject object) {
+        final PathAttributes attr = attributes.toAttributes(object);
+        // Copy bucket location
+        attr.setRegion(bucket.attributes().getRegion());
+        return new Path(String.format("%s%s", bucket.getAbsolute(), PathNormalizer.normalize(object.getKey())),
+            object.getKey().endsWith(String.valueOf(Path.DELIMITER)) ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attr);
+    }
+
+    private Path toPath(final Path bucket, final MultipartUpload upload) {
+        final PathAttributes attr = new PathAttributes();
+        attr.setVersionId(upload.getUploadId());
+        attr.setModificationDate(upload.getInitiatedDate().getTime());
+        attr.setRegion(bucket.attributes().getRegion());
+        return new Path(String.format("%s%s", bucket.getAbsolute(), PathNormalizer.normalize(upload.getObjectKey())),
+            EnumSet.of(Path.Type.file, Path.Type.upload), attr);
+    }
+
+    /**
+     * @param common Common prefix
+     * @return Directory without placeholder object
+     */
+    private Path toPath(final Path bucket, final String common) {
+        final PathAttributes attr = new PathAttributes();
+        attr.setRegion(bucket.attributes().getRegion());
+        return new Path(String.format("%s%s", bucket.getAbsolute(), PathNormalizer.normalize(common)),
+            EnumSet.of(Path.Type.directory, Path.Type.placeholder), attr);
+    }
+
+    /**
+     * Listings of directories built from keys in lexicographic order. Only directories with a key prefix matching the
+     * last key are kept open. Parent directories without placeholder object are added when first found in a key.
+     */
+    private final class Shard {
+        private final Filter<Path> filter;
+        private final BlockingQueue<Map.Entry<Path, AttributedList<Path>>> queue;
+
+        /**
+         * Open directories with the innermost first. No listing for directories rejected by filter.
+         */
+        private final Deque<Map.Entry<Path, AttributedList<Path>>> open
+            = new ArrayDeque<Map.Entry<Path, AttributedList<Path>>>();
+
+        public Shard(final Path directory, final Filter<Path> filter, final BlockingQueue<Map.Entry<Path, AttributedList<Path>>> queue) {
+            this.filter = filter;
+            this.queue = queue;
+            open.push(new AbstractMap.SimpleImmutableEntry<Path, AttributedList<Path>>(directory, new AttributedList<Path>()));
+        }
+
+        public void add(final Path file) throws InterruptedException {
+            final String parent = PathNormalizer.parent(file.getAbsolute(), Path.DELIMITER);
+            // Pass listings of directories not containing file
+            while(open.size() > 1 && !this.contains(open.peek().getKey(), parent)) {
+                this.pass();
+            }
+            final Path root = open.peekLast().getKey();
+            if(file.getAbsolute().equals(root.getAbsolute())) {
+                // Placeholder object, skip
+                return;
+            }
+            if(!this.contains(root, parent)) {
+                log.warn(String.format("Skip %s not in %s", file, root));
+                return;
+            }
+            while(!parent.equals(open.peek().getKey().getAbsolute())) {
+                // No placeholder object for directory
+                final String name = StringUtils.substringBefore(
+                    parent.substring(open.peek().getKey().getAbsolute().length() + 1), String.valueOf(Path.DELIMITER));
+                final PathAttributes attr = new PathAttributes();
+                attr.setRegion(root.attributes().getRegion());
+                this.open(new Path(open.peek().getKey(), name, EnumSet.of(Path.Type.directory, Path.Type.placeholder), attr));
+            }
+            if(file.isDirectory()) {
+                this.open(file);
+            }
+            else if(null != open.peek().getValue()) {
+                open.peek().getValue().add(file);
+            }
+        }
+
+        private boolean contains(final Path directory, final String absolute) {
+            return absolute.equals(directory.getAbsolute())
+                || absolute.startsWith(String.format("%s%s", directory.getAbsolute(), Path.DELIMITER));
+        }
+
+        private void open(final Path directory) {
+            final AttributedList<Path> parent = open.peek().getValue();
+            if(null != parent) {
+                parent.add(directory);
+            }
+            open.push(new AbstractMap.SimpleImmutableEntry<Path, AttributedList<Path>>(directory,
+                null != parent && filter.accept(directory) ? new AttributedList<Path>() : null));
+        }
+
+        /**
+         * Pass listing of innermost open directory. Blocks while queue is full.
+         */
+        private void pass() throws InterruptedException {
+            final Map.Entry<Path, AttributedList<Path>> next = open.pop();
+            if(null != next.getValue()) {
+                queue.put(next);
+            }
+        }
+
+        /**
+         * Pass listings of all open directories
+         */
+        public void close() throws InterruptedException {
+            while(!open.isEmpty()) {
+                this.pass();
+            }
+        }
+    }
 }
@@ -29,6 +29,7 @@ import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.RecursiveListService;
 import ch.cyberduck.core.Scheme;
 import ch.cyberduck.core.UrlProvider;
 import ch.cyberduck.core.analytics.AnalyticsProvider;
@@ -197,7 +198,9 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
 
     @Override
     public RequestEntityRestStorageService connect(final Proxy proxy, final HostKeyCallback hostkey, final LoginCallback prompt) {
-        final HttpClientBuilder configuration = builder.build(proxy, this, prompt);
+        final HttpClientBuilder configuration = builder
+            .withConnectionsPerRoute(preferences.getInteger("s3.connections.route"))
+            .build(proxy, this, prompt);
         // Only for AWS
         if(S3Session.isAwsHostname(host.getHostname())) {
             configuration.setServiceUnavailableRetryStrategy(new S3TokenExpiredResponseInterceptor(this, prompt));
@@ -269,6 +272,12 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
         if(type == ListService.class) {
             return (T) new S3ListService(this);
         }
+        if(type == RecursiveListService.class) {
+            if(preferences.getBoolean("s3.listing.recursive")) {
+                return (T) new S3ObjectListService(this);
+            }
+            return null;
+        }
         if(type == Read.class) {
             return (T) new S3ReadFeature(this);
         }
@@ -0,0 +1,62 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.io.BufferPool;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class S3MultipartBufferPoolTest {
+
+    @Test
+    public void testBorrowLimitBytes() {
+        final S3MultipartBufferPool pool = new S3MultipartBufferPool(new BufferPool(false, Long.MAX_VALUE), 32L * 1024L * 1024L);
+        // Part buffers of 16MB size class
+        final ByteBuffer first = pool.borrow(10L * 1024L * 1024L);
+        assertNotNull(first);
+        final ByteBuffer second = pool.borrow(10L * 1024L * 1024L);
+        assertNotNull(second);
+        assertEquals(32L * 1024L * 1024L, pool.getUsed());
+        assertNull(pool.borrow(1L));
+        pool.release(first);
+        assertEquals(16L * 1024L * 1024L, pool.getUsed());
+        final ByteBuffer third = pool.borrow(1L);
+        assertNotNull(third);
+        pool.release(second);
+        pool.release(third);
+        assertEquals(0L, pool.getUsed());
+    }
+
+    @Test
+    public void testPartExceedingLimit() {
+        final S3MultipartBufferPool pool = new S3MultipartBufferPool(new BufferPool(false, Long.MAX_VALUE), 32L * 1024L * 1024L);
+        assertNull(pool.borrow(64L * 1024L * 1024L));
+        assertEquals(0L, pool.getUsed());
+    }
+
+    @Test
+    public void testPartExceedingArray() {
+        final S3MultipartBufferPool pool = new S3MultipartBufferPool(new BufferPool(false, Long.MAX_VALUE), Long.MAX_VALUE);
+        assertNull(pool.borrow(Integer.MAX_VALUE + 1L));
+        assertNull(pool.borrow(5L * 1024L * 1024L * 1024L));
+        assertEquals(0L, pool.getUsed());
+    }
+}
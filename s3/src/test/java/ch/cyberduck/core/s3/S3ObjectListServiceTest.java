@@ -31,13 +31,17 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
 
 import org.jets3t.service.Jets3tProperties;
+import org.jets3t.service.model.MultipartUpload;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -71,6 +75,53 @@ public class S3ObjectListServiceTest extends AbstractS3Test {
         assertFalse(new S3ObjectListService(session).list(bucket, new DisabledListProgressListener()).contains(directory));
     }
 
+    @Test
+    public void testWalk() throws Exception {
+        final Path bucket = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(new Path(bucket, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path placeholder = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path file = new S3TouchFeature(session).touch(new Path(placeholder, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        // Parent directory without placeholder object
+        final Path implied = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory, Path.Type.placeholder));
+        final Path nested = new S3TouchFeature(session).touch(new Path(implied, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Map<Path, AttributedList<Path>> listings = new HashMap<Path, AttributedList<Path>>();
+        new S3ObjectListService(session).walk(directory, new NullFilter<Path>(), new DisabledListProgressListener(), new RecursiveListService.Callback() {
+            @Override
+            public void complete(final Path folder, final AttributedList<Path> children) {
+                listings.put(folder, children);
+            }
+        });
+        assertEquals(3, listings.size());
+        assertEquals(2, listings.get(directory).size());
+        assertTrue(listings.get(directory).contains(placeholder));
+        assertTrue(listings.get(directory).contains(implied));
+        assertTrue(listings.get(placeholder).contains(file));
+        assertTrue(listings.get(implied).contains(nested));
+        new S3DefaultDeleteFeature(session).delete(Arrays.asList(nested, file, placeholder, directory), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
+    @Test
+    public void testWalkPendingUpload() throws Exception {
+        final Path bucket = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(new Path(bucket, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path placeholder = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path file = new Path(placeholder, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final MultipartUpload upload = session.getClient().multipartStartUpload(bucket.getName(), new S3WriteFeature(session).getDetails(file, new TransferStatus()));
+        final Map<Path, AttributedList<Path>> listings = new HashMap<Path, AttributedList<Path>>();
+        new S3ObjectListService(session).walk(directory, new NullFilter<Path>(), new DisabledListProgressListener(), new RecursiveListService.Callback() {
+            @Override
+            public void complete(final Path folder, final AttributedList<Path> children) {
+                listings.put(folder, children);
+            }
+        });
+        final Path pending = listings.get(placeholder).find(new SimplePathPredicate(file));
+        assertNotNull(pending);
+        assertTrue(pending.getType().contains(Path.Type.upload));
+        assertEquals(upload.getUploadId(), pending.attributes().getVersionId());
+        new S3DefaultDeleteFeature(session).delete(Arrays.asList(pending, placeholder, directory), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        assertTrue(new S3DefaultMultipartService(session).find(file).isEmpty());
+    }
+
     @Test(expected = NotfoundException.class)
     public void testListNotFoundFolder() throws Exception {
         final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.volume));
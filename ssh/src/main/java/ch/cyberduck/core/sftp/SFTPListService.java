@@ -32,15 +32,27 @@ import ch.cyberduck.core.exception.NotfoundException;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import net.schmizz.concurrent.Promise;
 import net.schmizz.sshj.sftp.FileAttributes;
 import net.schmizz.sshj.sftp.FileMode;
-import net.schmizz.sshj.sftp.RemoteDirectory;
-import net.schmizz.sshj.sftp.RemoteResourceFilter;
-import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.Request;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
 import net.schmizz.sshj.sftp.SFTPException;
 
+/**
+ * Requests for the next batch of directory entries and to resolve symbolic links are sent without waiting for replies
+ * to previous requests. Replies are matched by request id.
+ */
 public class SFTPListService implements ListService {
     private static final Logger log = Logger.getLogger(SFTPListService.class);
 
@@ -55,33 +67,52 @@ public class SFTPListService implements ListService {
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         try {
+            final SFTPEngine sftp = session.sftp();
+            final Charset charset = Charset.forName(session.getHost().getEncoding());
             final AttributedList<Path> children = new AttributedList<Path>();
-            final RemoteDirectory handle = session.sftp().openDir(directory.getAbsolute());
-            for(RemoteResourceInfo f : handle.scan(new RemoteResourceFilter() {
-                @Override
-                public boolean accept(RemoteResourceInfo remoteResourceInfo) {
-                    return true;
-                }
-            })) {
-                final PathAttributes attr = attributes.toAttributes(f.getAttributes());
-                final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
-                if(f.getAttributes().getType().equals(FileMode.Type.DIRECTORY)) {
-                    type.add(Path.Type.directory);
-                }
-                if(f.getAttributes().getType().equals(FileMode.Type.REGULAR)) {
-                    type.add(Path.Type.file);
+            final byte[] handle = this.retrieve(sftp, sftp.request(sftp.newRequest(PacketType.OPENDIR)
+                .putString(directory.getAbsolute(), charset))).ensurePacketTypeIs(PacketType.HANDLE).readBytes();
+            try {
+                Promise<Response, SFTPException> next = sftp.request(this.readdir(sftp, handle));
+                while(true) {
+                    final Response response = this.retrieve(sftp, next);
+                    switch(response.getType()) {
+                        case NAME:
+                            // Server reads next batch while symbolic links of this batch are resolved
+                            next = sftp.request(this.readdir(sftp, handle));
+                            final List<Path> batch = new ArrayList<Path>();
+                            final int count = response.readUInt32AsInt();
+                            for(int i = 0; i < count; i++) {
+                                final String name = response.readString(charset);
+                                // Long name
+                                response.readString();
+                                final FileAttributes stat = response.readFileAttributes();
+                                if(".".equals(name) || "..".equals(name)) {
+                                    continue;
+                                }
+                                batch.add(this.toPath(directory, name, stat));
+                            }
+                            for(Path file : this.post(batch)) {
+                                children.add(file);
+                            }
+                            listener.chunk(directory, children);
+                            break;
+                        case STATUS:
+                            response.ensureStatusIs(Response.StatusCode.EOF);
+                            return children;
+                        default:
+                            throw new SFTPException(String.format("Unexpected packet %s", response.getType()));
+                    }
                 }
-                if(f.getAttributes().getType().equals(FileMode.Type.SYMLINK)) {
-                    type.add(Path.Type.symboliclink);
+            }
+            finally {
+                try {
+                    this.retrieve(sftp, sftp.request(sftp.newRequest(PacketType.CLOSE).putString(handle))).ensureStatusPacketIsOK();
                 }
-                final Path file = new Path(directory, f.getName(), type, attr);
-                if(this.post(file)) {
-                    children.add(file);
-                    listener.chunk(directory, children);
+                catch(IOException e) {
+                    log.warn(String.format("Failure closing handle for %s. %s", directory, e.getMessage()));
                 }
             }
-            handle.close();
-            return children;
         }
         catch(IOException e) {
             throw new SFTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
@@ -94,57 +125,122 @@ public class SFTPListService implements ListService {
         return this;
     }
 
-    protected boolean post(final Path file) throws BackgroundException {
-        if(file.isSymbolicLink()) {
-            final Path target;
-            Path.Type type;
-            PathAttributes attr;
+    private Request readdir(final SFTPEngine sftp, final byte[] handle) {
+        return sftp.newRequest(PacketType.READDIR).putString(handle);
+    }
+
+    private Response retrieve(final SFTPEngine sftp, final Promise<Response, SFTPException> promise) throws IOException {
+        return promise.retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private Path toPath(final Path directory, final String name, final FileAttributes stat) {
+        final PathAttributes attr = attributes.toAttributes(stat);
+        final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
+        if(stat.getType().equals(FileMode.Type.DIRECTORY)) {
+            type.add(Path.Type.directory);
+        }
+        if(stat.getType().equals(FileMode.Type.REGULAR)) {
+            type.add(Path.Type.file);
+        }
+        if(stat.getType().equals(FileMode.Type.SYMLINK)) {
+            type.add(Path.Type.symboliclink);
+        }
+        return new Path(directory, name, type, attr);
+    }
+
+    /**
+     * Resolve targets of symbolic links. All link requests are sent before reading the first reply and all stat
+     * requests for link targets before reading the first attributes.
+     *
+     * @param files Directory entries
+     * @return Entries excluding symbolic links that cannot be read
+     */
+    protected List<Path> post(final List<Path> files) throws BackgroundException {
+        final SFTPEngine sftp = session.sftp();
+        final Charset charset = Charset.forName(session.getHost().getEncoding());
+        final Map<Path, Promise<Response, SFTPException>> links = new LinkedHashMap<Path, Promise<Response, SFTPException>>();
+        final List<Path> failed = new ArrayList<Path>();
+        for(Path file : files) {
+            if(file.isSymbolicLink()) {
+                try {
+                    links.put(file, sftp.request(sftp.newRequest(PacketType.READLINK).putString(file.getAbsolute(), charset)));
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+                    failed.add(file);
+                }
+            }
+        }
+        final Map<Path, Path> targets = new LinkedHashMap<Path, Path>();
+        final Map<Path, Promise<Response, SFTPException>> stats = new LinkedHashMap<Path, Promise<Response, SFTPException>>();
+        for(Map.Entry<Path, Promise<Response, SFTPException>> entry : links.entrySet()) {
+            final Path file = entry.getKey();
             try {
-                final String link = session.sftp().readLink(file.getAbsolute());
+                final Response response = this.retrieve(sftp, entry.getValue()).ensurePacketTypeIs(PacketType.NAME);
+                if(response.readUInt32AsInt() != 1) {
+                    throw new SFTPException(String.format("Unexpected data in %s packet", response.getType()));
+                }
+                final String link = response.readString(charset);
+                final Path target;
                 if(link.startsWith(String.valueOf(Path.DELIMITER))) {
                     target = new Path(PathNormalizer.normalize(link), EnumSet.of(Path.Type.file));
                 }
                 else {
                     target = new Path(PathNormalizer.normalize(String.format("%s/%s", file.getParent().getAbsolute(), link)), EnumSet.of(Path.Type.file));
                 }
-                try {
-                    final FileAttributes stat = session.sftp().stat(target.getAbsolute());
-                    if(stat.getType().equals(FileMode.Type.DIRECTORY)) {
-                        type = Path.Type.directory;
-                    }
-                    else {
-                        type = Path.Type.file;
-                    }
-                    attr = attributes.toAttributes(stat);
+                targets.put(file, target);
+                stats.put(file, sftp.request(sftp.newRequest(PacketType.STAT).putString(target.getAbsolute(), charset)));
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+                failed.add(file);
+            }
+        }
+        for(Map.Entry<Path, Promise<Response, SFTPException>> entry : stats.entrySet()) {
+            final Path file = entry.getKey();
+            final Path target = targets.get(file);
+            Path.Type type;
+            PathAttributes attr;
+            try {
+                final FileAttributes stat = this.retrieve(sftp, entry.getValue()).ensurePacketTypeIs(PacketType.ATTRS).readFileAttributes();
+                if(stat.getType().equals(FileMode.Type.DIRECTORY)) {
+                    type = Path.Type.directory;
                 }
-                catch(SFTPException e) {
-                    final BackgroundException reason = new SFTPExceptionMappingService().map(e);
-                    if(reason instanceof NotfoundException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof AccessDeniedException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof InteroperabilityException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else {
-                        log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
-                        throw reason;
-                    }
+                else {
                     type = Path.Type.file;
-                    attr = PathAttributes.EMPTY;
                 }
-                file.setType(EnumSet.of(Path.Type.symboliclink, type));
-                target.setType(EnumSet.of(type));
-                target.setAttributes(attr);
-                file.setSymlinkTarget(target);
+                attr = attributes.toAttributes(stat);
+            }
+            catch(SFTPException e) {
+                final BackgroundException reason = new SFTPExceptionMappingService().map(e);
+                if(reason instanceof NotfoundException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof AccessDeniedException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof InteroperabilityException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else {
+                    log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
+                    throw reason;
+                }
+                type = Path.Type.file;
+                attr = PathAttributes.EMPTY;
             }
             catch(IOException e) {
                 log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
-                return false;
+                failed.add(file);
+                continue;
             }
+            file.setType(EnumSet.of(Path.Type.symboliclink, type));
+            target.setType(EnumSet.of(type));
+            target.setAttributes(attr);
+            file.setSymlinkTarget(target);
         }
-        return true;
+        final List<Path> result = new ArrayList<Path>(files);
+        result.removeAll(failed);
+        return result;
     }
 }
@@ -21,8 +21,6 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Read;
-import ch.cyberduck.core.preferences.Preferences;
-import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
@@ -40,9 +38,6 @@ public class SFTPReadFeature implements Read {
 
     private final SFTPSession session;
 
-    private final Preferences preferences
-            = PreferencesFactory.get();
-
     public SFTPReadFeature(final SFTPSession session) {
         this.session = session;
     }
@@ -50,13 +45,42 @@ public class SFTPReadFeature implements Read {
     @Override
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
+            final SFTPTransferWindow window = session.getReadWindow();
+            final long start = System.nanoTime();
             final RemoteFile handle = session.sftp().open(file.getAbsolute(), EnumSet.of(OpenMode.READ));
+            // Open request is a single round trip
+            window.rtt(System.nanoTime() - start);
             final int maxUnconfirmedReads = this.getMaxUnconfirmedReads(status);
             if(log.isInfoEnabled()) {
+                log.info(String.format("Using %d unconfirmed reads with %s", maxUnconfirmedReads, window));
                 log.info(String.format("Skipping %d bytes", status.getOffset()));
             }
             return handle.new ReadAheadRemoteFileInputStream(maxUnconfirmedReads, status.getOffset()) {
                 private final AtomicBoolean close = new AtomicBoolean();
+                private long transferred;
+                /**
+                 * Time waiting for responses from server excluding time spent by consumer
+                 */
+                private long elapsed;
+
+                @Override
+                public int read(final byte[] into, final int off, final int len) throws IOException {
+                    final long begin = System.nanoTime();
+                    try {
+                        final int read = super.read(into, off, len);
+                        if(read > 0) {
+                            transferred += read;
+                        }
+                        return read;
+                    }
+                    catch(IOException e) {
+                        window.failure();
+                        throw e;
+                    }
+                    finally {
+                        elapsed += System.nanoTime() - begin;
+                    }
+                }
 
                 @Override
                 public void close() throws IOException {
@@ -70,6 +94,7 @@ public class SFTPReadFeature implements Read {
                     finally {
                         handle.close();
                         close.set(true);
+                        window.transferred(transferred, elapsed, maxUnconfirmedReads);
                     }
                 }
             };
@@ -80,11 +105,7 @@ public class SFTPReadFeature implements Read {
     }
 
     protected int getMaxUnconfirmedReads(final TransferStatus status) {
-        if(-1 == status.getLength()) {
-            return preferences.getInteger("sftp.read.maxunconfirmed");
-        }
-        return Integer.min(((int) (status.getLength() / preferences.getInteger("connection.chunksize")) + 1),
-                preferences.getInteger("sftp.read.maxunconfirmed"));
+        return session.getReadWindow().get(status);
     }
 
     @Override
@@ -104,6 +104,18 @@ public class SFTPSession extends Session<SSHClient> {
 
     private final SocketFactory socketFactory;
 
+    private final SFTPTransferWindow read = new SFTPTransferWindow(
+        preferences.getInteger("sftp.read.maxunconfirmed"),
+        preferences.getInteger("sftp.read.maxunconfirmed.minimum"),
+        preferences.getInteger("sftp.read.maxunconfirmed.maximum"),
+        preferences.getInteger("connection.chunksize"));
+
+    private final SFTPTransferWindow write = new SFTPTransferWindow(
+        preferences.getInteger("sftp.write.maxunconfirmed"),
+        preferences.getInteger("sftp.write.maxunconfirmed.minimum"),
+        preferences.getInteger("sftp.write.maxunconfirmed.maximum"),
+        preferences.getInteger("connection.chunksize"));
+
     public SFTPSession(final Host h) {
         this(h, new ProxySocketFactory(h.getProtocol(), new DefaultTrustManagerHostnameCallback(h)));
     }
@@ -329,6 +341,20 @@ public class SFTPSession extends Session<SSHClient> {
         }
     }
 
+    /**
+     * @return Number of unconfirmed reads for downloads
+     */
+    public SFTPTransferWindow getReadWindow() {
+        return read;
+    }
+
+    /**
+     * @return Number of unconfirmed writes for uploads
+     */
+    public SFTPTransferWindow getWriteWindow() {
+        return write;
+    }
+
     public SFTPEngine sftp() throws LoginCanceledException {
         if(null == sftp) {
             throw new LoginCanceledException();
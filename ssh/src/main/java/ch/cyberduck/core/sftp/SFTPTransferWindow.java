@@ -0,0 +1,135 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Number of unconfirmed read or write requests adapted to the bandwidth delay product measured for previous transfers
+ * in a session. The window is doubled when the throughput of a transfer was limited by the number of requests in
+ * flight and reduced to twice the measured bandwidth delay product otherwise. The window is halved on failure.
+ */
+public class SFTPTransferWindow {
+    private static final Logger log = Logger.getLogger(SFTPTransferWindow.class);
+
+    /**
+     * Minimum number of bytes transferred to measure throughput
+     */
+    private static final long THRESHOLD = 1024L * 1024L;
+
+    private final int minimum;
+    private final int maximum;
+    private final int packet;
+
+    /**
+     * Number of unconfirmed requests. Guarded by this.
+     */
+    private int window;
+    /**
+     * Smoothed round trip time in nanoseconds or -1 if not yet measured. Guarded by this.
+     */
+    private long rtt = -1L;
+
+    /**
+     * @param initial Number of unconfirmed requests before any measurement
+     * @param minimum Lower bound of unconfirmed requests
+     * @param maximum Upper bound of unconfirmed requests
+     * @param packet  Number of bytes per request
+     */
+    public SFTPTransferWindow(final int initial, final int minimum, final int maximum, final int packet) {
+        this.window = initial;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.packet = packet;
+    }
+
+    /**
+     * @return Number of unconfirmed requests to use for transfer
+     */
+    public synchronized int get(final TransferStatus status) {
+        if(-1 == status.getLength()) {
+            return window;
+        }
+        return Integer.min((int) (status.getLength() / packet) + 1, window);
+    }
+
+    /**
+     * @param nanos Round trip time of single request
+     */
+    public synchronized void rtt(final long nanos) {
+        if(-1L == rtt) {
+            rtt = nanos;
+        }
+        else {
+            rtt = (7 * rtt + nanos) / 8;
+        }
+    }
+
+    /**
+     * @param bytes       Number of bytes transferred
+     * @param nanos       Time waiting for responses from server excluding time spent by consumer or producer
+     * @param unconfirmed Number of unconfirmed requests used for transfer
+     */
+    public synchronized void transferred(final long bytes, final long nanos, final int unconfirmed) {
+        if(bytes < THRESHOLD || nanos <= 0L || -1L == rtt) {
+            // Not enough data
+            return;
+        }
+        final double throughput = (double) bytes / nanos;
+        // Throughput achievable when all requests are in flight for a round trip
+        final double limit = (double) unconfirmed * packet / rtt;
+        final int previous = window;
+        if(unconfirmed == window && throughput >= limit / 2) {
+            // Limited by window
+            window = Integer.min(maximum, window * 2);
+        }
+        else {
+            // Limited by bandwidth or server
+            final long product = (long) Math.ceil(throughput * rtt / packet);
+            window = (int) Long.max(minimum, Long.min(window, 2 * product));
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Adjust window from %d to %d after %d bytes with %d unconfirmed requests in %dms with round trip time %dms",
+                previous, window, bytes, unconfirmed, TimeUnit.NANOSECONDS.toMillis(nanos), TimeUnit.NANOSECONDS.toMillis(rtt)));
+        }
+    }
+
+    /**
+     * Transfer failed
+     */
+    public synchronized void failure() {
+        window = Integer.max(minimum, window / 2);
+    }
+
+    public synchronized int getWindow() {
+        return window;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("SFTPTransferWindow{");
+        sb.append("window=").append(window);
+        sb.append(", rtt=").append(rtt);
+        sb.append(", minimum=").append(minimum);
+        sb.append(", maximum=").append(maximum);
+        sb.append('}');
+        return sb.toString();
+    }
+}
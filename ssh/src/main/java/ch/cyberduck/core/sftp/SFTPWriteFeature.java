@@ -22,8 +22,6 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.io.VoidStatusOutputStream;
-import ch.cyberduck.core.preferences.Preferences;
-import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.AppendWriteFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -41,9 +39,6 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
 
     private final SFTPSession session;
 
-    private final Preferences preferences
-            = PreferencesFactory.get();
-
     public SFTPWriteFeature(final SFTPSession session) {
         super(session);
         this.session = session;
@@ -79,10 +74,14 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
                     flags = EnumSet.of(OpenMode.CREAT, OpenMode.TRUNC, OpenMode.WRITE);
                 }
             }
+            final SFTPTransferWindow window = session.getWriteWindow();
+            final long start = System.nanoTime();
             final RemoteFile handle = session.sftp().open(file.getAbsolute(), flags);
+            // Open request is a single round trip
+            window.rtt(System.nanoTime() - start);
             final int maxUnconfirmedWrites = this.getMaxUnconfirmedWrites(status);
             if(log.isInfoEnabled()) {
-                log.info(String.format("Using %d unconfirmed writes", maxUnconfirmedWrites));
+                log.info(String.format("Using %d unconfirmed writes with %s", maxUnconfirmedWrites, window));
             }
             if(log.isInfoEnabled()) {
                 log.info(String.format("Skipping %d bytes", status.getOffset()));
@@ -90,6 +89,27 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
             // Open stream at offset
             return new VoidStatusOutputStream(handle.new RemoteFileOutputStream(status.getOffset(), maxUnconfirmedWrites) {
                 private final AtomicBoolean close = new AtomicBoolean();
+                private long transferred;
+                /**
+                 * Time sending requests and waiting for acknowledgements excluding time spent by producer
+                 */
+                private long elapsed;
+
+                @Override
+                public void write(final byte[] buf, final int off, final int len) throws IOException {
+                    final long begin = System.nanoTime();
+                    try {
+                        super.write(buf, off, len);
+                        transferred += len;
+                    }
+                    catch(IOException e) {
+                        window.failure();
+                        throw e;
+                    }
+                    finally {
+                        elapsed += System.nanoTime() - begin;
+                    }
+                }
 
                 @Override
                 public void close() throws IOException {
@@ -97,12 +117,16 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
                         log.warn(String.format("Skip double close of stream %s", this));
                         return;
                     }
+                    final long begin = System.nanoTime();
                     try {
+                        // Wait for outstanding acknowledgements
                         super.close();
                     }
                     finally {
+                        elapsed += System.nanoTime() - begin;
                         handle.close();
                         close.set(true);
+                        window.transferred(transferred, elapsed, maxUnconfirmedWrites);
                     }
                 }
             });
@@ -113,11 +137,7 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
     }
 
     protected int getMaxUnconfirmedWrites(final TransferStatus status) {
-        if(-1 == status.getLength()) {
-            return preferences.getInteger("sftp.write.maxunconfirmed");
-        }
-        return Integer.min((int) (status.getLength() / preferences.getInteger("connection.chunksize")) + 1,
-                preferences.getInteger("sftp.write.maxunconfirmed"));
+        return session.getWriteWindow().get(status);
     }
 
     @Override
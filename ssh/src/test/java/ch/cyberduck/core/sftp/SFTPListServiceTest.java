@@ -18,6 +18,7 @@ package ch.cyberduck.core.sftp;
  */
 
 import ch.cyberduck.core.*;
+import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -26,10 +27,13 @@ import ch.cyberduck.test.IntegrationTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -82,6 +86,76 @@ public class SFTPListServiceTest extends AbstractSFTPTest {
         new SFTPDeleteFeature(session).delete(Collections.<Path>singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testListPipelined() throws Exception {
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SFTPDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final List<Path> files = new ArrayList<Path>();
+        // Entries returned in multiple replies to read directory requests
+        for(int i = 0; i < 250; i++) {
+            final Path file = new Path(directory, String.format("f-%d", i), EnumSet.of(Path.Type.file));
+            new SFTPTouchFeature(session).touch(file, new TransferStatus());
+            files.add(file);
+        }
+        final List<Path> links = new ArrayList<Path>();
+        for(int i = 0; i < 150; i++) {
+            final Path link = new Path(directory, String.format("l-%d", i), EnumSet.of(Path.Type.file, AbstractPath.Type.symboliclink));
+            new SFTPSymlinkFeature(session).symlink(link, files.get(i).getName());
+            links.add(link);
+        }
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> list = new SFTPListService(session).list(directory, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path parent, final AttributedList<Path> list) throws ListCanceledException {
+                chunks.incrementAndGet();
+            }
+        });
+        assertTrue(chunks.get() > 1);
+        assertEquals(files.size() + links.size(), list.size());
+        for(Path file : files) {
+            assertTrue(list.contains(file));
+        }
+        for(int i = 0; i < links.size(); i++) {
+            assertTrue(list.contains(links.get(i)));
+            assertEquals(files.get(i), list.get(links.get(i)).getSymlinkTarget());
+        }
+        final List<Path> delete = new ArrayList<Path>(links);
+        delete.addAll(files);
+        delete.add(directory);
+        new SFTPDeleteFeature(session).delete(delete, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
+    @Test
+    public void testListPipelinedSymlinkTargetNotfound() throws Exception {
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SFTPDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final Path file = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        new SFTPTouchFeature(session).touch(file, new TransferStatus());
+        final List<Path> links = new ArrayList<Path>();
+        for(int i = 0; i < 3; i++) {
+            final Path link = new Path(directory, String.format("l-%d", i), EnumSet.of(Path.Type.file, AbstractPath.Type.symboliclink));
+            links.add(link);
+        }
+        final String missing = new AlphanumericRandomStringService().random();
+        new SFTPSymlinkFeature(session).symlink(links.get(0), file.getName());
+        // Failure replying to request in the middle of the pipeline
+        new SFTPSymlinkFeature(session).symlink(links.get(1), missing);
+        new SFTPSymlinkFeature(session).symlink(links.get(2), file.getName());
+        final AttributedList<Path> list = new SFTPListService(session).list(directory, new DisabledListProgressListener());
+        assertEquals(4, list.size());
+        assertTrue(list.contains(file));
+        assertEquals(file, list.get(links.get(0)).getSymlinkTarget());
+        assertEquals(new Path(directory, missing, EnumSet.of(Path.Type.file)), list.get(links.get(1)).getSymlinkTarget());
+        assertEquals(PathAttributes.EMPTY, list.get(links.get(1)).getSymlinkTarget().attributes());
+        assertEquals(file, list.get(links.get(2)).getSymlinkTarget());
+        final List<Path> delete = new ArrayList<Path>(links);
+        delete.add(file);
+        delete.add(directory);
+        new SFTPDeleteFeature(session).delete(delete, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
     @Test(expected = NotfoundException.class)
     public void testListNotfound() throws Exception {
         final Path f = new Path(UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory));
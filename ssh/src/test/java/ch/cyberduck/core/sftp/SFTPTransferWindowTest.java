@@ -0,0 +1,78 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class SFTPTransferWindowTest {
+
+    @Test
+    public void testGet() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(64, 8, 512, 32768);
+        assertEquals(64, window.get(new TransferStatus()));
+        assertEquals(33, window.get(new TransferStatus().length(TransferStatus.MEGA * 1L)));
+        assertEquals(64, window.get(new TransferStatus().length((long) (TransferStatus.GIGA * 1.3))));
+    }
+
+    @Test
+    public void testGrowLimitedByWindow() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(64, 8, 512, 32768);
+        window.rtt(TimeUnit.MILLISECONDS.toNanos(100L));
+        // 64 * 32KB per 100ms
+        window.transferred(20L * 1024L * 1024L, TimeUnit.SECONDS.toNanos(1L), 64);
+        assertEquals(128, window.getWindow());
+        window.transferred(200L * 1024L * 1024L, TimeUnit.SECONDS.toNanos(5L), 128);
+        assertEquals(256, window.getWindow());
+        window.transferred(400L * 1024L * 1024L, TimeUnit.SECONDS.toNanos(5L), 256);
+        assertEquals(512, window.getWindow());
+        window.transferred(800L * 1024L * 1024L, TimeUnit.SECONDS.toNanos(5L), 512);
+        assertEquals(512, window.getWindow());
+    }
+
+    @Test
+    public void testShrinkLimitedByBandwidth() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(64, 8, 512, 32768);
+        window.rtt(TimeUnit.MILLISECONDS.toNanos(10L));
+        // 1MB/s with 10ms round trip is less than a single packet in flight
+        window.transferred(10L * 1024L * 1024L, TimeUnit.SECONDS.toNanos(10L), 64);
+        assertEquals(8, window.getWindow());
+    }
+
+    @Test
+    public void testIgnoreSmallTransfer() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(64, 8, 512, 32768);
+        window.rtt(TimeUnit.MILLISECONDS.toNanos(100L));
+        window.transferred(1024L, 1L, 1);
+        assertEquals(64, window.getWindow());
+    }
+
+    @Test
+    public void testFailure() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(64, 8, 512, 32768);
+        window.failure();
+        assertEquals(32, window.getWindow());
+        window.failure();
+        window.failure();
+        window.failure();
+        assertEquals(8, window.getWindow());
+    }
+}
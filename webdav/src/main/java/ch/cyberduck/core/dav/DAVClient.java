@@ -31,20 +31,22 @@ import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.log4j.Logger;
 
+import javax.xml.namespace.QName;
 import java.io.IOException;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineImpl;
 import com.github.sardine.impl.handler.VoidResponseHandler;
 import com.github.sardine.impl.methods.HttpPropFind;
-import com.github.sardine.model.Multistatus;
+import com.github.sardine.model.Allprop;
+import com.github.sardine.model.ObjectFactory;
+import com.github.sardine.model.Prop;
 import com.github.sardine.model.Propfind;
-import com.github.sardine.model.Response;
 import com.github.sardine.util.SardineUtil;
 
 public class DAVClient extends SardineImpl {
@@ -82,23 +84,58 @@ public class DAVClient extends SardineImpl {
 
     @Override
     protected List<DavResource> propfind(final String url, final int depth, final Propfind body) throws IOException {
-        HttpPropFind entity = new HttpPropFind(url);
-        entity.setDepth(depth < 0 ? "infinity" : Integer.toString(depth));
-        entity.setEntity(new StringEntity(SardineUtil.toXml(body), StandardCharsets.UTF_8));
-        Multistatus multistatus = this.execute(entity, new SaxPropFindResponseHandler());
-        List<Response> responses = multistatus.getResponse();
-        List<DavResource> resources = new ArrayList<DavResource>(responses.size());
-        for(Response response : responses) {
-            try {
-                resources.add(new DavResource(response));
+        final List<DavResource> resources = new ArrayList<DavResource>();
+        this.propfind(url, depth, body, new StaxPropFindResponseHandler.Callback() {
+            @Override
+            public void resource(final DavResource resource) {
+                resources.add(resource);
             }
-            catch(URISyntaxException e) {
-                log.warn(String.format("Ignore resource with invalid URI %s", response.getHref().get(0)));
-            }
-        }
+        });
         return resources;
     }
 
+    /**
+     * List resources passing each to the callback while the response is read
+     *
+     * @param url      Encoded URL of collection
+     * @param depth    Depth header value. Infinity for negative value
+     * @param props    Custom properties to retrieve in addition to the default DAV properties
+     * @param callback Notified for every response element in order of the multistatus response
+     */
+    public void list(final String url, final int depth, final Set<QName> props, final StaxPropFindResponseHandler.Callback callback) throws IOException {
+        final Propfind body = new Propfind();
+        final Prop prop = new Prop();
+        final ObjectFactory factory = new ObjectFactory();
+        prop.setGetcontentlength(factory.createGetcontentlength());
+        prop.setGetlastmodified(factory.createGetlastmodified());
+        prop.setCreationdate(factory.createCreationdate());
+        prop.setDisplayname(factory.createDisplayname());
+        prop.setGetcontenttype(factory.createGetcontenttype());
+        prop.setResourcetype(factory.createResourcetype());
+        prop.setGetetag(factory.createGetetag());
+        for(QName name : props) {
+            prop.getAny().add(SardineUtil.createElement(name));
+        }
+        body.setProp(prop);
+        this.propfind(url, depth, body, callback);
+    }
+
+    /**
+     * List resources with all properties passing each to the callback while the response is read
+     */
+    public void list(final String url, final int depth, final StaxPropFindResponseHandler.Callback callback) throws IOException {
+        final Propfind body = new Propfind();
+        body.setAllprop(new Allprop());
+        this.propfind(url, depth, body, callback);
+    }
+
+    protected void propfind(final String url, final int depth, final Propfind body, final StaxPropFindResponseHandler.Callback callback) throws IOException {
+        final HttpPropFind entity = new HttpPropFind(url);
+        entity.setDepth(depth < 0 ? "infinity" : Integer.toString(depth));
+        entity.setEntity(new StringEntity(SardineUtil.toXml(body), StandardCharsets.UTF_8));
+        this.execute(entity, new StaxPropFindResponseHandler(callback));
+    }
+
     @Override
     public ContentLengthStatusInputStream get(final String url, final List<Header> headers) throws IOException {
         HttpGet get = new HttpGet(url);
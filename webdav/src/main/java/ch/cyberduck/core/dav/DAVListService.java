@@ -19,32 +19,47 @@ package ch.cyberduck.core.dav;
 
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.RecursiveListService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.http.HttpExceptionMappingService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.http.HttpStatus;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.EnumSet;
-import java.util.List;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineException;
 
-public class DAVListService implements ListService {
+public class DAVListService implements ListService, RecursiveListService {
     private static final Logger log = Logger.getLogger(DAVListService.class);
 
     private final DAVSession session;
     private final DAVAttributesFinderFeature attributes;
 
+    /**
+     * Server refused request with depth infinity
+     */
+    private volatile boolean finite;
+
     public DAVListService(final DAVSession session) {
         this(session, new DAVAttributesFinderFeature(session));
     }
@@ -56,41 +71,184 @@ public class DAVListService implements ListService {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final int chunksize = PreferencesFactory.get().getInteger("webdav.listing.chunksize");
+        final AttributedList<Path> children = new AttributedList<Path>();
         try {
-            final AttributedList<Path> children = new AttributedList<Path>();
-            for(final DavResource resource : this.list(directory)) {
-                // Try to parse as RFC 2396
-                final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
-                if(href.equals(directory.getAbsolute())) {
-                    log.warn(String.format("Ignore resource %s", href));
-                    // Do not include self
-                    if(resource.isDirectory()) {
-                        continue;
+            this.list(directory, 1, new StaxPropFindResponseHandler.Callback() {
+                @Override
+                public void resource(final DavResource resource) throws IOException {
+                    try {
+                        // Try to parse as RFC 2396
+                        final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
+                        if(href.equals(directory.getAbsolute())) {
+                            log.warn(String.format("Ignore resource %s", href));
+                            // Do not include self
+                            if(resource.isDirectory()) {
+                                return;
+                            }
+                            throw new NotfoundException(directory.getAbsolute());
+                        }
+                        final Path file = toPath(directory, href, resource);
+                        children.add(file);
+                        if(children.size() % chunksize == 0) {
+                            listener.chunk(directory, children);
+                        }
+                    }
+                    catch(BackgroundException e) {
+                        // Abort reading response
+                        throw new IOException(e.getMessage(), e);
                     }
-                    throw new NotfoundException(directory.getAbsolute());
                 }
-                final PathAttributes attr = attributes.toAttributes(resource);
-                final Path file = new Path(directory, PathNormalizer.name(href),
-                    resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attr);
-                children.add(file);
-                listener.chunk(directory, children);
-            }
+            });
+            listener.chunk(directory, children);
             return children;
         }
         catch(SardineException e) {
             throw new DAVExceptionMappingService().map("Listing directory {0} failed", e, directory);
         }
         catch(IOException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
             throw new HttpExceptionMappingService().map(e, directory);
         }
     }
 
-    protected List<DavResource> list(final Path directory) throws IOException {
-        return session.getClient().list(new DAVPathEncoder().encode(directory), 1,
+    /**
+     * Listings are passed to the callback after the complete response is read, as the order of resources in the
+     * response is not defined. The listing of a directory is passed before listings of its descendants. Resources
+     * in directories not accepted by the filter are discarded while reading the response.
+     */
+    @Override
+    public void walk(final Path directory, final Filter<Path> filter, final ListProgressListener listener, final Callback callback) throws BackgroundException {
+        if(finite) {
+            throw new UnsupportedException(String.format("Depth infinity not supported for %s", directory.getAbsolute()));
+        }
+        // Directories in tree by absolute path
+        final Map<String, Path> directories = new HashMap<String, Path>();
+        // Absolute path of directories not accepted by filter
+        final Set<String> rejected = new HashSet<String>();
+        final Map<Path, AttributedList<Path>> listings = new HashMap<Path, AttributedList<Path>>();
+        directories.put(directory.getAbsolute(), directory);
+        listings.put(directory, new AttributedList<Path>());
+        final String prefix = directory.isRoot() ? directory.getAbsolute() : directory.getAbsolute() + Path.DELIMITER;
+        try {
+            this.list(directory, -1, new StaxPropFindResponseHandler.Callback() {
+                @Override
+                public void resource(final DavResource resource) throws IOException {
+                    try {
+                        final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
+                        if(href.equals(directory.getAbsolute())) {
+                            if(resource.isDirectory()) {
+                                return;
+                            }
+                            throw new NotfoundException(directory.getAbsolute());
+                        }
+                        if(!href.startsWith(prefix)) {
+                            log.warn(String.format("Ignore resource %s outside of %s", href, directory));
+                            return;
+                        }
+                        final String absolute = PathNormalizer.parent(href, Path.DELIMITER);
+                        if(rejected.contains(absolute)) {
+                            if(resource.isDirectory()) {
+                                rejected.add(href);
+                            }
+                            return;
+                        }
+                        Path parent = directories.get(absolute);
+                        if(null == parent) {
+                            // Response for parent directory not yet read
+                            parent = new Path(absolute, EnumSet.of(Path.Type.directory));
+                            directories.put(absolute, parent);
+                        }
+                        AttributedList<Path> children = listings.get(parent);
+                        if(null == children) {
+                            children = new AttributedList<Path>();
+                            listings.put(parent, children);
+                        }
+                        final Path file = toPath(parent, href, resource);
+                        children.add(file);
+                        if(file.isDirectory()) {
+                            if(!filter.accept(file)) {
+                                rejected.add(href);
+                                return;
+                            }
+                            directories.put(href, file);
+                            if(!listings.containsKey(file)) {
+                                // Empty unless children are found
+                                listings.put(file, new AttributedList<Path>());
+                            }
+                        }
+                    }
+                    catch(BackgroundException e) {
+                        // Abort reading response
+                        throw new IOException(e.getMessage(), e);
+                    }
+                }
+            });
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Listed %d directories in %s", listings.size(), directory));
+            }
+            // Pass listings of directories reachable from root with parent first
+            final Deque<Path> pending = new ArrayDeque<Path>();
+            pending.push(directory);
+            while(!pending.isEmpty()) {
+                final Path next = pending.pop();
+                final AttributedList<Path> children = listings.remove(next);
+                if(null == children) {
+                    continue;
+                }
+                listener.chunk(next, children);
+                callback.complete(next, children);
+                for(int i = children.size() - 1; i >= 0; i--) {
+                    final Path child = children.get(i);
+                    if(child.isDirectory() && !rejected.contains(child.getAbsolute())) {
+                        pending.push(child);
+                    }
+                }
+            }
+            if(!listings.isEmpty()) {
+                log.warn(String.format("Discard listings %s not found in tree %s", listings.keySet(), directory));
+            }
+        }
+        catch(SardineException e) {
+            switch(e.getStatusCode()) {
+                case HttpStatus.SC_BAD_REQUEST:
+                case HttpStatus.SC_FORBIDDEN:
+                case HttpStatus.SC_NOT_IMPLEMENTED:
+                case HttpStatus.SC_INSUFFICIENT_STORAGE:
+                    // Reply with propfind-finite-depth precondition or limit on response size
+                    log.warn(String.format("Disable depth infinity after failure %s listing %s", e.getResponsePhrase(), directory));
+                    finite = true;
+                    throw new UnsupportedException(e.getResponsePhrase(), e);
+            }
+            throw new DAVExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new HttpExceptionMappingService().map(e, directory);
+        }
+    }
+
+    private Path toPath(final Path parent, final String href, final DavResource resource) {
+        final PathAttributes attr = attributes.toAttributes(resource);
+        return new Path(parent, PathNormalizer.name(href),
+            resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attr);
+    }
+
+    /**
+     * @param directory Collection to list
+     * @param depth     Depth header value with negative value for infinity
+     * @param callback  Notified for every resource parsed from the response including the collection itself
+     */
+    protected void list(final Path directory, final int depth, final StaxPropFindResponseHandler.Callback callback) throws IOException {
+        session.getClient().list(new DAVPathEncoder().encode(directory), depth,
             Stream.of(
                 DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE,
                 DAVTimestampFeature.LAST_MODIFIED_SERVER_CUSTOM_NAMESPACE).
-                collect(Collectors.toSet()));
+                collect(Collectors.toSet()), callback);
     }
 
     @Override
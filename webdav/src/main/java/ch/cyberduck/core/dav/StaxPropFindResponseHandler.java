@@ -0,0 +1,251 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.log4j.Logger;
+import org.w3c.dom.Element;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+
+import com.github.sardine.DavResource;
+import com.github.sardine.impl.SardineException;
+import com.github.sardine.impl.handler.ValidatingResponseHandler;
+import com.github.sardine.model.Collection;
+import com.github.sardine.model.Creationdate;
+import com.github.sardine.model.Displayname;
+import com.github.sardine.model.Getcontentlength;
+import com.github.sardine.model.Getcontenttype;
+import com.github.sardine.model.Getetag;
+import com.github.sardine.model.Getlastmodified;
+import com.github.sardine.model.Prop;
+import com.github.sardine.model.Propstat;
+import com.github.sardine.model.Resourcetype;
+import com.github.sardine.model.Response;
+import com.github.sardine.util.SardineUtil;
+
+/**
+ * Pull parser for multistatus responses to PROPFIND. Each resource is passed to the callback when its response
+ * element is closed without keeping previous responses in memory.
+ */
+public class StaxPropFindResponseHandler extends ValidatingResponseHandler<Void> {
+    private static final Logger log = Logger.getLogger(StaxPropFindResponseHandler.class);
+
+    private static final XMLInputFactory factory = XMLInputFactory.newFactory();
+
+    static {
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    public interface Callback {
+        /**
+         * @param resource Resource parsed from response element
+         */
+        void resource(DavResource resource) throws IOException;
+    }
+
+    private final Callback callback;
+
+    public StaxPropFindResponseHandler(final Callback callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public Void handleResponse(final HttpResponse response) throws IOException {
+        this.validateResponse(response);
+        final HttpEntity entity = response.getEntity();
+        if(null == entity) {
+            final StatusLine status = response.getStatusLine();
+            throw new SardineException("No entity found in response", status.getStatusCode(), status.getReasonPhrase());
+        }
+        try (InputStream in = entity.getContent()) {
+            this.read(in);
+        }
+        return null;
+    }
+
+    protected void read(final InputStream stream) throws IOException {
+        final XMLStreamReader reader;
+        try {
+            reader = factory.createXMLStreamReader(stream);
+        }
+        catch(XMLStreamException e) {
+            throw new IOException("Not a valid DAV response", e);
+        }
+        try {
+            final Element root = SardineUtil.createElement(SardineUtil.createQNameWithCustomNamespace("root"));
+            final StringBuilder data = new StringBuilder();
+            Response response = null;
+            Propstat propstat = null;
+            Prop prop = null;
+            Resourcetype type = null;
+            while(reader.hasNext()) {
+                switch(reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        switch(reader.getLocalName()) {
+                            case "response":
+                                response = new Response();
+                                propstat = null;
+                                prop = null;
+                                type = null;
+                                break;
+                            case "propstat":
+                                if(null != response) {
+                                    propstat = new Propstat();
+                                    response.getPropstat().add(propstat);
+                                }
+                                break;
+                            case "prop":
+                                if(null != propstat) {
+                                    prop = new Prop();
+                                    propstat.setProp(prop);
+                                }
+                                break;
+                            case "resourcetype":
+                                if(null != prop) {
+                                    type = new Resourcetype();
+                                    prop.setResourcetype(type);
+                                }
+                                break;
+                            case "collection":
+                                if(null != type) {
+                                    type.setCollection(new Collection());
+                                }
+                                break;
+                        }
+                        data.setLength(0);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        data.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if(null == response) {
+                            break;
+                        }
+                        final String name = reader.getLocalName();
+                        if(name.equals("response")) {
+                            if(!response.getHref().isEmpty()) {
+                                try {
+                                    callback.resource(new DavResource(response));
+                                }
+                                catch(URISyntaxException e) {
+                                    log.warn(String.format("Ignore resource with invalid URI %s", response.getHref().get(0)));
+                                }
+                            }
+                            response = null;
+                        }
+                        else if(name.equals("href")) {
+                            response.getHref().add(data.toString());
+                        }
+                        else if(name.equals("status")) {
+                            if(null != propstat) {
+                                propstat.setStatus(data.toString());
+                            }
+                        }
+                        else if(null != prop) {
+                            this.property(root, prop, StringUtils.defaultString(reader.getNamespaceURI()), name, data.toString());
+                        }
+                        break;
+                }
+            }
+        }
+        catch(XMLStreamException e) {
+            throw new IOException("Not a valid DAV response", e);
+        }
+        finally {
+            try {
+                reader.close();
+            }
+            catch(XMLStreamException e) {
+                log.warn(String.format("Failure closing parser. %s", e.getMessage()));
+            }
+        }
+    }
+
+    private void property(final Element root, final Prop prop, final String uri, final String name, final String value) {
+        switch(name) {
+            case "creationdate": {
+                final Creationdate property = new Creationdate();
+                property.getContent().add(value);
+                prop.setCreationdate(property);
+                return;
+            }
+            case "displayname": {
+                final Displayname property = new Displayname();
+                property.getContent().add(value);
+                prop.setDisplayname(property);
+                return;
+            }
+            case "getcontentlength": {
+                final Getcontentlength property = new Getcontentlength();
+                property.getContent().add(value);
+                prop.setGetcontentlength(property);
+                return;
+            }
+            case "getcontenttype": {
+                final Getcontenttype property = new Getcontenttype();
+                property.getContent().add(value);
+                prop.setGetcontenttype(property);
+                return;
+            }
+            case "getlastmodified": {
+                final Getlastmodified property = new Getlastmodified();
+                property.getContent().add(value);
+                prop.setGetlastmodified(property);
+                return;
+            }
+            case "getetag": {
+                final Getetag property = new Getetag();
+                property.getContent().add(value);
+                prop.setGetetag(property);
+                return;
+            }
+            case "lastmodified_server": {
+                final Element element = SardineUtil.createElement(root, DAVTimestampFeature.LAST_MODIFIED_SERVER_CUSTOM_NAMESPACE);
+                element.setTextContent(value);
+                prop.getAny().add(element);
+                return;
+            }
+            case "lastmodified": {
+                final Element element = SardineUtil.createElement(root, DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE);
+                element.setTextContent(value);
+                prop.getAny().add(element);
+                return;
+            }
+        }
+        if(!uri.equals(SardineUtil.DEFAULT_NAMESPACE_URI)) {
+            // Custom property
+            final Element element = SardineUtil.createElement(root, new QName(uri, name, SardineUtil.DEFAULT_NAMESPACE_PREFIX));
+            element.setTextContent(value);
+            prop.getAny().add(element);
+        }
+    }
+}
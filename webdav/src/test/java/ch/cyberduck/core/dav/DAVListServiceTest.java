@@ -24,8 +24,11 @@ import ch.cyberduck.core.DisabledHostKeyCallback;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.RecursiveListService;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.proxy.Proxy;
@@ -35,6 +38,10 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -101,4 +108,61 @@ public class DAVListServiceTest extends AbstractDAVTest {
             new DisabledListProgressListener());
         session.close();
     }
+
+    @Test
+    public void testWalk() throws Exception {
+        final Host host = new Host(new DAVSSLProtocol(), "svn.cyberduck.ch", new Credentials(
+            PreferencesFactory.get().getProperty("connection.login.anon.name"), null
+        ));
+        final DAVSession session = new DAVSession(host);
+        assertNotNull(session.open(Proxy.DIRECT, new DisabledHostKeyCallback(), new DisabledLoginCallback()));
+        session.login(Proxy.DIRECT, new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path directory = new Path("/trunk/core/src/main/java/ch/cyberduck/core/dav", EnumSet.of(Path.Type.directory));
+        final DAVListService service = new DAVListService(session);
+        try {
+            final Map<Path, AttributedList<Path>> listings = new LinkedHashMap<Path, AttributedList<Path>>();
+            final Set<Path> chunks = new HashSet<Path>();
+            service.walk(directory, new NullFilter<Path>(), new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path folder, final AttributedList<Path> list) {
+                    // Notified once per directory
+                    assertTrue(chunks.add(folder));
+                }
+            }, new RecursiveListService.Callback() {
+                @Override
+                public void complete(final Path folder, final AttributedList<Path> children) {
+                    // Parent listed before children
+                    assertTrue(folder.equals(directory) || listings.containsKey(folder.getParent()));
+                    assertNull(listings.put(folder, children));
+                }
+            });
+            assertTrue(listings.containsKey(directory));
+            assertEquals(listings.keySet(), chunks);
+            assertEquals(service.list(directory, new DisabledListProgressListener()).size(), listings.get(directory).size());
+            for(Map.Entry<Path, AttributedList<Path>> entry : listings.entrySet()) {
+                for(Path p : entry.getValue()) {
+                    assertEquals(entry.getKey(), p.getParent());
+                    if(p.isDirectory()) {
+                        assertTrue(listings.containsKey(p));
+                    }
+                }
+            }
+        }
+        catch(UnsupportedException e) {
+            // Depth infinity disabled on server
+            try {
+                service.walk(directory, new NullFilter<Path>(), new DisabledListProgressListener(), new RecursiveListService.Callback() {
+                    @Override
+                    public void complete(final Path folder, final AttributedList<Path> children) {
+                        fail();
+                    }
+                });
+                fail();
+            }
+            catch(UnsupportedException ignored) {
+                //
+            }
+        }
+        session.close();
+    }
 }
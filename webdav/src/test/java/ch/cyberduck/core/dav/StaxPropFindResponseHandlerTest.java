@@ -0,0 +1,72 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.sardine.DavResource;
+
+import static org.junit.Assert.*;
+
+public class StaxPropFindResponseHandlerTest {
+
+    @Test
+    public void testRead() throws Exception {
+        final String response = "<?xml version=\"1.0\" encoding=\"utf-8\"?>" +
+            "<d:multistatus xmlns:d=\"DAV:\" xmlns:s=\"SAR:\">" +
+            "<d:response><d:href>/dir/</d:href><d:propstat><d:prop>" +
+            "<d:resourcetype><d:collection/></d:resourcetype>" +
+            "</d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat></d:response>" +
+            "<d:response><d:href>/dir/f%20f</d:href><d:propstat><d:prop>" +
+            "<d:resourcetype/><d:getcontentlength>12</d:getcontentlength><d:getetag>\"e\"</d:getetag>" +
+            "<s:lastmodified>Mon, 01 Jan 2018 00:00:00 GMT</s:lastmodified>" +
+            "</d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat></d:response>" +
+            "<d:response><d:href>/dir/invalid uri{</d:href></d:response>" +
+            "</d:multistatus>";
+        final List<DavResource> resources = new ArrayList<>();
+        new StaxPropFindResponseHandler(new StaxPropFindResponseHandler.Callback() {
+            @Override
+            public void resource(final DavResource resource) {
+                resources.add(resource);
+            }
+        }).read(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, resources.size());
+        assertTrue(resources.get(0).isDirectory());
+        assertEquals("/dir/", resources.get(0).getHref().getPath());
+        assertFalse(resources.get(1).isDirectory());
+        assertEquals("/dir/f f", resources.get(1).getHref().getPath());
+        assertEquals(12L, resources.get(1).getContentLength(), 0L);
+        assertEquals("\"e\"", resources.get(1).getEtag());
+        assertEquals("Mon, 01 Jan 2018 00:00:00 GMT", resources.get(1).getCustomPropsNS().get(DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadInvalid() throws Exception {
+        new StaxPropFindResponseHandler(new StaxPropFindResponseHandler.Callback() {
+            @Override
+            public void resource(final DavResource resource) {
+                fail();
+            }
+        }).read(new ByteArrayInputStream("<d:multistatus xmlns:d=\"DAV:\"><d:response>".getBytes(StandardCharsets.UTF_8)));
+    }
+}